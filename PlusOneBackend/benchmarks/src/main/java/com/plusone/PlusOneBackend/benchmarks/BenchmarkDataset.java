@@ -0,0 +1,231 @@
+package com.plusone.PlusOneBackend.benchmarks;
+
+import com.plusone.PlusOneBackend.PlusOneBackendApplication;
+import com.plusone.PlusOneBackend.model.Connection;
+import com.plusone.PlusOneBackend.model.ConnectionRequest;
+import com.plusone.PlusOneBackend.model.Post;
+import com.plusone.PlusOneBackend.model.Profile;
+import com.plusone.PlusOneBackend.model.User;
+import com.plusone.PlusOneBackend.service.ConnectionGraph;
+import com.plusone.PlusOneBackend.service.UserIndexRegistry;
+import de.bwaldvogel.mongo.MongoServer;
+import de.bwaldvogel.mongo.backend.memory.MemoryBackend;
+import org.bson.types.ObjectId;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+
+import java.net.InetSocketAddress;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.SplittableRandom;
+
+/**
+ * A booted backend (no web server) on top of an in-memory MongoDB stand-in, seeded with
+ * a synthetic campus: users with interests, a random connection graph, some pending
+ * requests and posts. Shared by every benchmark in a fork; seeding is deterministic so
+ * runs are comparable.
+ *
+ * The stand-in has no query planner cost model and no network, so absolute numbers are
+ * optimistic compared to Atlas; compare runs against each other, not against production.
+ */
+@State(Scope.Benchmark)
+public class BenchmarkDataset {
+
+    static final String[] INTERESTS = {
+        "Hiking", "Running", "Basketball", "Soccer", "Tennis", "Climbing", "Yoga", "Cycling",
+        "Photography", "Painting", "Music", "Guitar", "Piano", "Jazz", "Theatre", "Film",
+        "Cooking", "Baking", "Coffee", "Travel", "Reading", "Writing", "Poetry", "History",
+        "Machine Learning", "Startups", "Investing", "Robotics", "Chess", "Board Games",
+        "Video Games", "Anime", "Volunteering", "Gardening", "Dogs", "Cats", "Fashion", "Dance"
+    };
+    static final String[] JOB_TITLES = {
+        "Student", "Software Engineer", "Data Scientist", "Product Manager", "Research Assistant",
+        "Teaching Assistant", "Designer", "Analyst", "Consultant", "Nurse"
+    };
+    static final String[] COMPANIES = {
+        "Vanderbilt University", "Google", "Microsoft", "Amazon", "HCA Healthcare", "Deloitte",
+        "Asurion", "Oracle", "Nissan", "Dollar General"
+    };
+    private static final String[] CATEGORIES = {"Events", "Job opportunities", "Internships", "Housing"};
+
+    private static final int AVERAGE_CONNECTIONS = 12;
+    private static final int PENDING_REQUESTS_PER_100_USERS = 20;
+    private static final int POSTS_PER_100_USERS = 150;
+    private static final int BATCH_SIZE = 5_000;
+
+    @Param({"10000", "100000", "1000000"})
+    public int users;
+
+    public ConfigurableApplicationContext context;
+    public String[] userIds;
+
+    private MongoServer server;
+
+    @Setup(Level.Trial)
+    public void start() {
+        server = new MongoServer(new MemoryBackend());
+        InetSocketAddress address = server.bind();
+
+        context = new SpringApplicationBuilder(PlusOneBackendApplication.class)
+            .web(WebApplicationType.NONE)
+            .properties(
+                "spring.data.mongodb.uri=mongodb://localhost:" + address.getPort() + "/plusone",
+                "spring.mail.host=localhost",
+                "logging.level.root=WARN",
+                "spring.main.banner-mode=off")
+            .run();
+
+        long start = System.nanoTime();
+        seed(context.getBean(MongoTemplate.class));
+        System.out.println("Seeded " + users + " users in " + (System.nanoTime() - start) / 1_000_000 + " ms");
+
+        // Startup loading already ran against the empty database; load the seeded data
+        context.getBean(ConnectionGraph.class).reload();
+        context.getBean(UserIndexRegistry.class).rebuild();
+    }
+
+    @TearDown(Level.Trial)
+    public void stop() {
+        context.close();
+        server.shutdown();
+    }
+
+    public <T> T bean(Class<T> type) {
+        return context.getBean(type);
+    }
+
+    public String randomUserId(SplittableRandom random) {
+        return userIds[random.nextInt(userIds.length)];
+    }
+
+    private void seed(MongoTemplate mongoTemplate) {
+        SplittableRandom random = new SplittableRandom(42);
+        userIds = new String[users];
+        LocalDateTime firstSignup = LocalDateTime.now().minusDays(365);
+
+        List<User> batch = new ArrayList<>(BATCH_SIZE);
+        for (int i = 0; i < users; i++) {
+            userIds[i] = new ObjectId().toHexString();
+
+            Profile profile = new Profile();
+            profile.setAge(18 + random.nextInt(10));
+            List<String> interests = new ArrayList<>();
+            for (int n = 1 + random.nextInt(6); n > 0; n--) {
+                interests.add(INTERESTS[skewedIndex(random, INTERESTS.length)]);
+            }
+            profile.setInterests(interests);
+            profile.getLocation().setCity("Nashville");
+            profile.getJob().setTitle(JOB_TITLES[skewedIndex(random, JOB_TITLES.length)]);
+            profile.getJob().setCompaniesName(COMPANIES[skewedIndex(random, COMPANIES.length)]);
+
+            User user = User.builder()
+                .id(userIds[i])
+                .email("user" + i + "@vanderbilt.edu")
+                .password("$2a$10$benchmarkbenchmarkbenchmarkbenchmarkbenchmarkbenchmark")
+                .firstName("First" + i)
+                .lastName("Last" + i)
+                .createdAt(firstSignup.plusSeconds((long) i * 365 * 24 * 3600 / users))
+                .profile(profile)
+                .build();
+            batch.add(user);
+            if (batch.size() == BATCH_SIZE) {
+                insert(mongoTemplate, User.class, batch);
+            }
+        }
+        insert(mongoTemplate, User.class, batch);
+
+        seedConnections(mongoTemplate, random);
+        seedRequests(mongoTemplate, random);
+        seedPosts(mongoTemplate, random);
+    }
+
+    private void seedConnections(MongoTemplate mongoTemplate, SplittableRandom random) {
+        long target = (long) users * AVERAGE_CONNECTIONS / 2;
+        Set<String> pairKeys = new HashSet<>();
+        List<Connection> batch = new ArrayList<>(BATCH_SIZE);
+        while (pairKeys.size() < target) {
+            String a = userIds[random.nextInt(users)];
+            String b = userIds[random.nextInt(users)];
+            String pairKey = Connection.pairKeyOf(a, b);
+            if (a.equals(b) || !pairKeys.add(pairKey)) {
+                continue;
+            }
+            batch.add(Connection.builder().user1Id(a).user2Id(b).pairKey(pairKey).build());
+            if (batch.size() == BATCH_SIZE) {
+                insert(mongoTemplate, Connection.class, batch);
+            }
+        }
+        insert(mongoTemplate, Connection.class, batch);
+    }
+
+    private void seedRequests(MongoTemplate mongoTemplate, SplittableRandom random) {
+        List<ConnectionRequest> batch = new ArrayList<>(BATCH_SIZE);
+        Set<String> pairKeys = new HashSet<>();
+        for (long i = 0, n = (long) users * PENDING_REQUESTS_PER_100_USERS / 100; i < n; i++) {
+            String from = userIds[random.nextInt(users)];
+            String to = userIds[random.nextInt(users)];
+            String pairKey = Connection.pairKeyOf(from, to);
+            if (from.equals(to) || !pairKeys.add(pairKey)) {
+                continue;
+            }
+            batch.add(ConnectionRequest.builder()
+                .fromUserId(from)
+                .toUserId(to)
+                .message("Hi! Want to connect?")
+                .status("PENDING")
+                .pairKey(pairKey)
+                .build());
+            if (batch.size() == BATCH_SIZE) {
+                insert(mongoTemplate, ConnectionRequest.class, batch);
+            }
+        }
+        insert(mongoTemplate, ConnectionRequest.class, batch);
+    }
+
+    private void seedPosts(MongoTemplate mongoTemplate, SplittableRandom random) {
+        List<Post> batch = new ArrayList<>(BATCH_SIZE);
+        Instant now = Instant.now();
+        for (long i = 0, n = (long) users * POSTS_PER_100_USERS / 100; i < n; i++) {
+            Post post = new Post();
+            post.setUserId(userIds[skewedIndex(random, users)]);  // a few prolific posters
+            post.setCategory(CATEGORIES[random.nextInt(CATEGORIES.length)]);
+            post.setTitle("Post " + i);
+            post.setDescription("Synthetic post body used for benchmarking. ".repeat(1 + random.nextInt(6)));
+            post.setCreatedAt(now.minusSeconds(random.nextInt(365 * 24 * 3600)));
+            batch.add(post);
+            if (batch.size() == BATCH_SIZE) {
+                insert(mongoTemplate, Post.class, batch);
+            }
+        }
+        insert(mongoTemplate, Post.class, batch);
+    }
+
+    private static <T> void insert(MongoTemplate mongoTemplate, Class<T> type, List<T> batch) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        BulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, type);
+        bulk.insert(batch);
+        bulk.execute();
+        batch.clear();
+    }
+
+    // Roughly Zipf-like: low indexes are picked far more often than high ones
+    private static int skewedIndex(SplittableRandom random, int bound) {
+        double u = random.nextDouble();
+        return (int) (bound * u * u * u);
+    }
+}
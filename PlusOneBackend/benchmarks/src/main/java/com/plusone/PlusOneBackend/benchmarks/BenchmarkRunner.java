@@ -0,0 +1,56 @@
+package com.plusone.PlusOneBackend.benchmarks;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.openjdk.jmh.runner.options.TimeValue;
+
+/**
+ * Entry point for the benchmarks. Accepts the usual JMH command line (benchmark regex,
+ * -p users=100000, -f, -wi, -i, ...) and fills in defaults for anything not given:
+ * one fork, short warmup and measurement, the 10k-user dataset, the GC profiler for
+ * allocation rates, and JSON results in target/jmh-result.json.
+ */
+public class BenchmarkRunner {
+
+    public static void main(String[] args) throws Exception {
+        CommandLineOptions commandLine = new CommandLineOptions(args);
+        ChainedOptionsBuilder options = new OptionsBuilder()
+            .parent(commandLine)
+            .addProfiler(GCProfiler.class);
+
+        if (commandLine.getIncludes().isEmpty()) {
+            options.include(BenchmarkRunner.class.getPackageName() + "\\..*Benchmark");
+        }
+        if (!commandLine.getForkCount().hasValue()) {
+            options.forks(1);
+        }
+        if (!commandLine.getWarmupIterations().hasValue()) {
+            options.warmupIterations(3);
+        }
+        if (!commandLine.getWarmupTime().hasValue()) {
+            options.warmupTime(TimeValue.seconds(2));
+        }
+        if (!commandLine.getMeasurementIterations().hasValue()) {
+            options.measurementIterations(5);
+        }
+        if (!commandLine.getMeasurementTime().hasValue()) {
+            options.measurementTime(TimeValue.seconds(3));
+        }
+        if (!commandLine.getParameter("users").hasValue()) {
+            options.param("users", "10000");
+        }
+        if (!commandLine.getJvmArgs().hasValue()) {
+            // Enough for the 1M-user dataset in the in-memory stand-in
+            options.jvmArgs("-Xms2g", "-Xmx8g");
+        }
+        if (!commandLine.getResult().hasValue()) {
+            options.resultFormat(ResultFormatType.JSON).result("target/jmh-result.json");
+        }
+
+        new Runner(options.build()).run();
+    }
+}
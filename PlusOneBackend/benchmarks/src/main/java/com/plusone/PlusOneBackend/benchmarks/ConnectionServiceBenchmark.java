@@ -0,0 +1,63 @@
+package com.plusone.PlusOneBackend.benchmarks;
+
+import com.plusone.PlusOneBackend.dto.ConnectionRequestDto;
+import com.plusone.PlusOneBackend.dto.UserCardDto;
+import com.plusone.PlusOneBackend.service.ConnectionService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Homepage and profile-card paths of ConnectionService: recent signups, suggestions,
+ * single and batched connection status, and the pending-request list.
+ */
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class ConnectionServiceBenchmark {
+
+    private static final int STATUS_BATCH_SIZE = 20;
+
+    @State(Scope.Thread)
+    public static class Randomness {
+        final SplittableRandom random = new SplittableRandom(7);
+    }
+
+    @Benchmark
+    public List<UserCardDto> recentUsers(BenchmarkDataset dataset, Randomness r) {
+        return dataset.bean(ConnectionService.class).getRecentUsers(dataset.randomUserId(r.random));
+    }
+
+    @Benchmark
+    public List<UserCardDto> suggestedUsers(BenchmarkDataset dataset, Randomness r) {
+        return dataset.bean(ConnectionService.class).getSuggestedUsers(dataset.randomUserId(r.random), 3);
+    }
+
+    @Benchmark
+    public String connectionStatus(BenchmarkDataset dataset, Randomness r) {
+        return dataset.bean(ConnectionService.class)
+            .getConnectionStatus(dataset.randomUserId(r.random), dataset.randomUserId(r.random));
+    }
+
+    @Benchmark
+    public Map<String, String> connectionStatusBatch(BenchmarkDataset dataset, Randomness r) {
+        List<String> toUserIds = new ArrayList<>(STATUS_BATCH_SIZE);
+        for (int i = 0; i < STATUS_BATCH_SIZE; i++) {
+            toUserIds.add(dataset.randomUserId(r.random));
+        }
+        return dataset.bean(ConnectionService.class).getConnectionStatuses(dataset.randomUserId(r.random), toUserIds);
+    }
+
+    @Benchmark
+    public List<ConnectionRequestDto> pendingRequests(BenchmarkDataset dataset, Randomness r) {
+        return dataset.bean(ConnectionService.class).getPendingRequests(dataset.randomUserId(r.random));
+    }
+}
@@ -0,0 +1,102 @@
+package com.plusone.PlusOneBackend.benchmarks;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.plusone.PlusOneBackend.dto.ConnectionRequestDto;
+import com.plusone.PlusOneBackend.dto.ProfileResponse;
+import com.plusone.PlusOneBackend.dto.UserCardDto;
+import com.plusone.PlusOneBackend.model.User;
+import com.plusone.PlusOneBackend.repository.UserRepository;
+import com.plusone.PlusOneBackend.service.ConnectionService;
+import com.plusone.PlusOneBackend.service.ProfileService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Serializing the response DTOs the way the controllers do (the application's
+ * ObjectMapper), without any database work, to show what the payload shape costs.
+ * The fullUsers / userCards pairs compare a list of whole User documents with the
+ * projected cards the list endpoints return, both loading from MongoDB and serializing.
+ */
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class DtoConversionBenchmark {
+
+    private static final int LIST_SIZE = 20;
+
+    @State(Scope.Benchmark)
+    public static class Payloads {
+        ObjectMapper objectMapper;
+        ProfileResponse profile;
+        List<UserCardDto> recentUsers;
+        List<ConnectionRequestDto> requests;
+        List<String> listIds;
+        List<User> fullUsers;
+        List<UserCardDto> userCards;
+
+        @Setup(Level.Trial)
+        public void load(BenchmarkDataset dataset) {
+            objectMapper = dataset.bean(ObjectMapper.class);
+            // The first user is the most prolific poster (see BenchmarkDataset.skewedIndex)
+            String userId = dataset.userIds[0];
+            profile = dataset.bean(ProfileService.class).getProfile(userId);
+            recentUsers = dataset.bean(ConnectionService.class).getRecentUsers(userId);
+            requests = dataset.bean(ConnectionService.class).getPendingRequests(userId);
+
+            // A page of search results
+            listIds = Arrays.asList(dataset.userIds).subList(0, Math.min(LIST_SIZE, dataset.userIds.length));
+            UserRepository userRepository = dataset.bean(UserRepository.class);
+            fullUsers = userRepository.findAllById(listIds);
+            userCards = userRepository.findCardsByIdIn(listIds).stream().map(UserCardDto::from).collect(Collectors.toList());
+        }
+    }
+
+    @Benchmark
+    public byte[] profileResponse(Payloads payloads) throws JsonProcessingException {
+        return payloads.objectMapper.writeValueAsBytes(payloads.profile);
+    }
+
+    @Benchmark
+    public byte[] recentUsers(Payloads payloads) throws JsonProcessingException {
+        return payloads.objectMapper.writeValueAsBytes(payloads.recentUsers);
+    }
+
+    @Benchmark
+    public byte[] serializeFullUsers(Payloads payloads) throws JsonProcessingException {
+        return payloads.objectMapper.writeValueAsBytes(payloads.fullUsers);
+    }
+
+    @Benchmark
+    public byte[] serializeUserCards(Payloads payloads) throws JsonProcessingException {
+        return payloads.objectMapper.writeValueAsBytes(payloads.userCards);
+    }
+
+    @Benchmark
+    public List<User> loadFullUsers(BenchmarkDataset dataset, Payloads payloads) {
+        return dataset.bean(UserRepository.class).findAllById(payloads.listIds);
+    }
+
+    @Benchmark
+    public List<UserCardDto> loadUserCards(BenchmarkDataset dataset, Payloads payloads) {
+        return dataset.bean(UserRepository.class).findCardsByIdIn(payloads.listIds)
+            .stream()
+            .map(UserCardDto::from)
+            .collect(Collectors.toList());
+    }
+
+    @Benchmark
+    public byte[] pendingRequests(Payloads payloads) throws JsonProcessingException {
+        return payloads.objectMapper.writeValueAsBytes(payloads.requests);
+    }
+}
@@ -0,0 +1,40 @@
+package com.plusone.PlusOneBackend.benchmarks;
+
+import com.plusone.PlusOneBackend.dto.ProfileResponse;
+import com.plusone.PlusOneBackend.service.ProfileResponseCache;
+import com.plusone.PlusOneBackend.service.ProfileService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Profile page assembly, through the response cache (uniformly random users, so the
+ * hit rate depends on dataset size versus cache size) and with the cache bypassed.
+ */
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class ProfileServiceBenchmark {
+
+    @State(Scope.Thread)
+    public static class Randomness {
+        final SplittableRandom random = new SplittableRandom(11);
+    }
+
+    @Benchmark
+    public ProfileResponse profile(BenchmarkDataset dataset, Randomness r) {
+        return dataset.bean(ProfileService.class).getProfile(dataset.randomUserId(r.random));
+    }
+
+    @Benchmark
+    public ProfileResponse profileUncached(BenchmarkDataset dataset, Randomness r) {
+        String userId = dataset.randomUserId(r.random);
+        dataset.bean(ProfileResponseCache.class).invalidate(userId);
+        return dataset.bean(ProfileService.class).getProfile(userId);
+    }
+}
@@ -0,0 +1,100 @@
+package com.plusone.PlusOneBackend.benchmarks;
+
+import com.plusone.PlusOneBackend.dto.SearchFilters;
+import com.plusone.PlusOneBackend.dto.SimilarUser;
+import com.plusone.PlusOneBackend.dto.UserCardDto;
+import com.plusone.PlusOneBackend.dto.UserSearchPage;
+import com.plusone.PlusOneBackend.service.SearchResultCache;
+import com.plusone.PlusOneBackend.service.UserSearchService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Search as typed in the search box: a full interest (with facet counts), a lower-case
+ * prefix of one, the same narrowed to a company, and a ranked people search combining a
+ * job title, a company and a partly typed interest; plus similar-interest matching.
+ */
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class UserSearchBenchmark {
+
+    private static final int LIMIT = 20;
+
+    @State(Scope.Thread)
+    public static class Randomness {
+        final SplittableRandom random = new SplittableRandom(13);
+
+        String interest() {
+            return BenchmarkDataset.INTERESTS[random.nextInt(BenchmarkDataset.INTERESTS.length)];
+        }
+
+        SearchFilters companyFilter() {
+            return new SearchFilters(null, BenchmarkDataset.COMPANIES[random.nextInt(BenchmarkDataset.COMPANIES.length)], null);
+        }
+
+        String peopleQuery() {
+            return BenchmarkDataset.JOB_TITLES[random.nextInt(BenchmarkDataset.JOB_TITLES.length)] + " "
+                + BenchmarkDataset.COMPANIES[random.nextInt(BenchmarkDataset.COMPANIES.length)] + " "
+                + interest().substring(0, 3).toLowerCase();
+        }
+    }
+
+    // With few distinct queries these mostly measure SearchResultCache hits; the *Uncached
+    // variants drop the entry first to measure the index lookup itself
+
+    @Benchmark
+    public UserSearchPage searchExactInterest(BenchmarkDataset dataset, Randomness r) {
+        return search(dataset, r.interest(), null, false);
+    }
+
+    @Benchmark
+    public UserSearchPage searchExactInterestUncached(BenchmarkDataset dataset, Randomness r) {
+        return search(dataset, r.interest(), null, true);
+    }
+
+    @Benchmark
+    public UserSearchPage searchInterestPrefix(BenchmarkDataset dataset, Randomness r) {
+        return search(dataset, r.interest().substring(0, 3).toLowerCase(), null, false);
+    }
+
+    @Benchmark
+    public UserSearchPage searchInterestPrefixUncached(BenchmarkDataset dataset, Randomness r) {
+        return search(dataset, r.interest().substring(0, 3).toLowerCase(), null, true);
+    }
+
+    // Drill-down: the first page again with a company filter applied (facets included)
+    @Benchmark
+    public UserSearchPage searchInterestInCompany(BenchmarkDataset dataset, Randomness r) {
+        return search(dataset, r.interest(), r.companyFilter(), false);
+    }
+
+    @Benchmark
+    public UserSearchPage searchInterestInCompanyUncached(BenchmarkDataset dataset, Randomness r) {
+        return search(dataset, r.interest(), r.companyFilter(), true);
+    }
+
+    private static UserSearchPage search(BenchmarkDataset dataset, String query, SearchFilters filters, boolean uncached) {
+        if (uncached) {
+            dataset.bean(SearchResultCache.class).invalidate(SearchResultCache.Key.of(query, filters, null, LIMIT));
+        }
+        return dataset.bean(UserSearchService.class).searchByInterest(query, filters, null, LIMIT);
+    }
+
+    @Benchmark
+    public List<UserCardDto> searchPeople(BenchmarkDataset dataset, Randomness r) {
+        return dataset.bean(UserSearchService.class).searchPeople(r.peopleQuery(), LIMIT);
+    }
+
+    @Benchmark
+    public List<SimilarUser> similarUsers(BenchmarkDataset dataset, Randomness r) {
+        return dataset.bean(UserSearchService.class).similarUsers(dataset.randomUserId(r.random), 10);
+    }
+}
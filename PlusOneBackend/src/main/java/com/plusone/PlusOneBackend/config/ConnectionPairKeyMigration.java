@@ -0,0 +1,89 @@
+package com.plusone.PlusOneBackend.config;
+
+import com.plusone.PlusOneBackend.model.Connection;
+import com.plusone.PlusOneBackend.model.ConnectionRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Component;
+
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Backfills pairKey on existing connections and connection requests. Duplicate
+ * connections between the same two users are removed and duplicate pending requests
+ * are marked SUPERSEDED (the oldest one is kept), so the unique indexes can be built.
+ */
+@Component
+public class ConnectionPairKeyMigration implements MongoMigration {
+
+    @Override
+    public String id() {
+        return "002-connection-pair-key";
+    }
+
+    @Override
+    public void apply(MongoTemplate mongoTemplate) {
+        backfillConnections(mongoTemplate);
+        backfillRequests(mongoTemplate);
+    }
+
+    private void backfillConnections(MongoTemplate mongoTemplate) {
+        Query query = new Query().with(Sort.by(Sort.Direction.ASC, "connectedAt"));
+        query.fields().include("user1Id", "user2Id", "pairKey");
+
+        Set<String> seenPairs = new HashSet<>();
+        BulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Connection.class);
+        int pending = 0;
+
+        try (var connections = mongoTemplate.stream(query, Connection.class)) {
+            for (Connection connection : (Iterable<Connection>) connections::iterator) {
+                String pairKey = Connection.pairKeyOf(connection.getUser1Id(), connection.getUser2Id());
+                Query byId = new Query(Criteria.where("_id").is(connection.getId()));
+                if (!seenPairs.add(pairKey)) {
+                    bulk.remove(byId);
+                } else if (!pairKey.equals(connection.getPairKey())) {
+                    bulk.updateOne(byId, Update.update("pairKey", pairKey));
+                } else {
+                    continue;
+                }
+                pending++;
+            }
+        }
+
+        if (pending > 0) {
+            bulk.execute();
+        }
+    }
+
+    private void backfillRequests(MongoTemplate mongoTemplate) {
+        Query query = new Query().with(Sort.by(Sort.Direction.ASC, "createdAt"));
+        query.fields().include("fromUserId", "toUserId", "status", "pairKey");
+
+        Set<String> pendingPairs = new HashSet<>();
+        BulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, ConnectionRequest.class);
+        int pending = 0;
+
+        try (var requests = mongoTemplate.stream(query, ConnectionRequest.class)) {
+            for (ConnectionRequest request : (Iterable<ConnectionRequest>) requests::iterator) {
+                String pairKey = Connection.pairKeyOf(request.getFromUserId(), request.getToUserId());
+                Update update = new Update().set("pairKey", pairKey);
+                if ("PENDING".equals(request.getStatus()) && !pendingPairs.add(pairKey)) {
+                    update.set("status", "SUPERSEDED");
+                } else if (pairKey.equals(request.getPairKey())) {
+                    continue;
+                }
+                bulk.updateOne(new Query(Criteria.where("_id").is(request.getId())), update);
+                pending++;
+            }
+        }
+
+        if (pending > 0) {
+            bulk.execute();
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package com.plusone.PlusOneBackend.config;
+
+import com.plusone.PlusOneBackend.model.User;
+import com.plusone.PlusOneBackend.service.NearbyUserService;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.geo.GeoJsonPoint;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Component;
+
+/**
+ * Backfills profile.geoLocation from profile.location.latitude/longitude for users saved
+ * before the field existed, so nearby search finds them.
+ */
+@Component
+public class GeoLocationMigration implements MongoMigration {
+
+    private static final int BATCH_SIZE = 1000;
+
+    @Override
+    public String id() {
+        return "004-geo-location";
+    }
+
+    @Override
+    public void apply(MongoTemplate mongoTemplate) {
+        Query query = new Query(Criteria.where("profile.location.latitude").ne(null)
+            .and("profile.location.longitude").ne(null)
+            .and("profile.geoLocation").exists(false));
+        query.fields().include("profile.location");
+
+        BulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, User.class);
+        int pending = 0;
+
+        try (var users = mongoTemplate.stream(query, User.class)) {
+            for (User user : (Iterable<User>) users::iterator) {
+                GeoJsonPoint point = NearbyUserService.pointOf(user.getProfile().getLocation());
+                if (point == null) {
+                    continue;
+                }
+                bulk.updateOne(new Query(Criteria.where("_id").is(user.getId())),
+                    Update.update("profile.geoLocation", point));
+                if (++pending == BATCH_SIZE) {
+                    bulk.execute();
+                    bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, User.class);
+                    pending = 0;
+                }
+            }
+        }
+
+        if (pending > 0) {
+            bulk.execute();
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package com.plusone.PlusOneBackend.config;
+
+import com.plusone.PlusOneBackend.model.User;
+import com.plusone.PlusOneBackend.service.InterestNormalizer;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Backfills profile.interestTokens from profile.interests for users saved before the
+ * field existed, so indexed interest search matches any word of their interests.
+ */
+@Component
+public class InterestTokensMigration implements MongoMigration {
+
+    private static final int BATCH_SIZE = 1000;
+
+    @Override
+    public String id() {
+        return "006-interest-tokens";
+    }
+
+    @Override
+    public void apply(MongoTemplate mongoTemplate) {
+        Query query = new Query();
+        query.fields().include("profile.interests", "profile.interestTokens");
+
+        BulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, User.class);
+        int pending = 0;
+
+        try (var users = mongoTemplate.stream(query, User.class)) {
+            for (User user : (Iterable<User>) users::iterator) {
+                List<String> tokens = InterestNormalizer.wordTails(user.getInterests());
+                if (user.getProfile() != null && tokens.equals(user.getProfile().getInterestTokens())) {
+                    continue;
+                }
+                bulk.updateOne(new Query(Criteria.where("_id").is(user.getId())),
+                    Update.update("profile.interestTokens", tokens));
+                if (++pending == BATCH_SIZE) {
+                    bulk.execute();
+                    bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, User.class);
+                    pending = 0;
+                }
+            }
+        }
+
+        if (pending > 0) {
+            bulk.execute();
+        }
+    }
+}
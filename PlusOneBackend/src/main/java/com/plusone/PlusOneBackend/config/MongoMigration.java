@@ -0,0 +1,18 @@
+package com.plusone.PlusOneBackend.config;
+
+import org.springframework.data.mongodb.core.MongoTemplate;
+
+/**
+ * A one-off data migration. Each migration runs once per database (tracked in the
+ * "schema_migrations" collection) and before indexes are created, so backfills can
+ * make existing documents satisfy new unique indexes.
+ */
+public interface MongoMigration {
+
+    /**
+     * Stable identifier recorded once the migration succeeds; migrations run in id order.
+     */
+    String id();
+
+    void apply(MongoTemplate mongoTemplate);
+}
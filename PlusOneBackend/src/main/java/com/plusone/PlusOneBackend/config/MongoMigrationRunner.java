@@ -0,0 +1,65 @@
+package com.plusone.PlusOneBackend.config;
+
+import org.bson.Document;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Component;
+
+import java.util.Comparator;
+import java.util.Date;
+import java.util.List;
+
+/**
+ * Applies pending {@link MongoMigration}s and then builds indexes via {@link MongoIndexInitializer}.
+ * This runs once all singletons exist but before the embedded web server starts, so no request
+ * is served against an unmigrated schema; a failed migration aborts startup.
+ */
+@Component
+public class MongoMigrationRunner implements SmartInitializingSingleton {
+
+    private static final String MIGRATIONS_COLLECTION = "schema_migrations";
+    private static final Logger log = LoggerFactory.getLogger(MongoMigrationRunner.class);
+
+    private final MongoTemplate mongoTemplate;
+    private final List<MongoMigration> migrations;
+    private final MongoIndexInitializer indexInitializer;
+
+    public MongoMigrationRunner(MongoTemplate mongoTemplate, List<MongoMigration> migrations,
+                                MongoIndexInitializer indexInitializer) {
+        this.mongoTemplate = mongoTemplate;
+        this.migrations = migrations;
+        this.indexInitializer = indexInitializer;
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        applyPendingMigrations();
+        indexInitializer.ensureIndexes();
+    }
+
+    public void applyPendingMigrations() {
+        migrations.stream()
+            .sorted(Comparator.comparing(MongoMigration::id))
+            .forEach(this::applyIfPending);
+    }
+
+    private void applyIfPending(MongoMigration migration) {
+        try {
+            Query applied = new Query(Criteria.where("_id").is(migration.id()));
+            if (mongoTemplate.exists(applied, MIGRATIONS_COLLECTION)) {
+                return;
+            }
+
+            log.info("Applying migration {}", migration.id());
+            migration.apply(mongoTemplate);
+            mongoTemplate.insert(new Document("_id", migration.id()).append("appliedAt", new Date()), MIGRATIONS_COLLECTION);
+        } catch (Exception e) {
+            // Later migrations and the index build may depend on this one, so don't carry on.
+            throw new IllegalStateException("Migration " + migration.id() + " failed", e);
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package com.plusone.PlusOneBackend.config;
+
+import com.plusone.PlusOneBackend.model.User;
+import com.plusone.PlusOneBackend.service.InterestNormalizer;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Backfills profile.normalizedInterests from profile.interests for users saved before
+ * the field existed, so indexed interest search finds them.
+ */
+@Component
+public class NormalizedInterestsMigration implements MongoMigration {
+
+    private static final int BATCH_SIZE = 1000;
+
+    @Override
+    public String id() {
+        return "003-normalized-interests";
+    }
+
+    @Override
+    public void apply(MongoTemplate mongoTemplate) {
+        Query query = new Query();
+        query.fields().include("profile.interests", "profile.normalizedInterests");
+
+        BulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, User.class);
+        int pending = 0;
+
+        try (var users = mongoTemplate.stream(query, User.class)) {
+            for (User user : (Iterable<User>) users::iterator) {
+                List<String> normalized = InterestNormalizer.normalizeAll(user.getInterests());
+                if (user.getProfile() != null && normalized.equals(user.getProfile().getNormalizedInterests())) {
+                    continue;
+                }
+                bulk.updateOne(new Query(Criteria.where("_id").is(user.getId())),
+                    Update.update("profile.normalizedInterests", normalized));
+                if (++pending == BATCH_SIZE) {
+                    bulk.execute();
+                    bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, User.class);
+                    pending = 0;
+                }
+            }
+        }
+
+        if (pending > 0) {
+            bulk.execute();
+        }
+    }
+}
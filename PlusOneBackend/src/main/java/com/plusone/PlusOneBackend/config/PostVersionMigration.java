@@ -0,0 +1,30 @@
+package com.plusone.PlusOneBackend.config;
+
+import com.plusone.PlusOneBackend.model.Post;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Component;
+
+/**
+ * Gives posts saved before Post.version existed a version of 0. Without it Spring Data
+ * treats a loaded post with a null version as new, and saving it again fails with a
+ * duplicate _id instead of updating.
+ */
+@Component
+public class PostVersionMigration implements MongoMigration {
+
+    @Override
+    public String id() {
+        return "005-post-version";
+    }
+
+    @Override
+    public void apply(MongoTemplate mongoTemplate) {
+        mongoTemplate.updateMulti(
+            new Query(Criteria.where("version").exists(false)),
+            Update.update("version", 0L),
+            Post.class);
+    }
+}
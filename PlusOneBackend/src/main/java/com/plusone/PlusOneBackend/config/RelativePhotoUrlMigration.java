@@ -0,0 +1,75 @@
+package com.plusone.PlusOneBackend.config;
+
+import com.plusone.PlusOneBackend.model.Post;
+import com.plusone.PlusOneBackend.model.User;
+import org.bson.Document;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Component;
+
+import java.util.regex.Pattern;
+
+/**
+ * Rewrites photo URLs stored with the host that served the upload
+ * ("http://host:8080/api/photos/<id>") to the path alone, as uploads are now returned.
+ */
+@Component
+public class RelativePhotoUrlMigration implements MongoMigration {
+
+    private static final int BATCH_SIZE = 1000;
+    private static final Pattern ABSOLUTE_PHOTO_URL = Pattern.compile("^https?://[^/]+(?=/api/photos/)");
+
+    @Override
+    public String id() {
+        return "007-relative-photo-urls";
+    }
+
+    @Override
+    public void apply(MongoTemplate mongoTemplate) {
+        rewrite(mongoTemplate, User.class, "profile.profilePhoto.url");
+        rewrite(mongoTemplate, Post.class, "imageUrl");
+    }
+
+    private static void rewrite(MongoTemplate mongoTemplate, Class<?> entity, String field) {
+        Query query = new Query(Criteria.where(field).regex(ABSOLUTE_PHOTO_URL.pattern()));
+        query.fields().include(field);
+
+        BulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, entity);
+        int pending = 0;
+
+        String collection = mongoTemplate.getCollectionName(entity);
+        try (var documents = mongoTemplate.stream(query, Document.class, collection)) {
+            for (Document document : (Iterable<Document>) documents::iterator) {
+                String url = valueAt(document, field);
+                if (url == null) {
+                    continue;
+                }
+                bulk.updateOne(new Query(Criteria.where("_id").is(document.get("_id"))),
+                    Update.update(field, ABSOLUTE_PHOTO_URL.matcher(url).replaceFirst("")));
+                if (++pending == BATCH_SIZE) {
+                    bulk.execute();
+                    bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, entity);
+                    pending = 0;
+                }
+            }
+        }
+
+        if (pending > 0) {
+            bulk.execute();
+        }
+    }
+
+    private static String valueAt(Document document, String dottedField) {
+        Object value = document;
+        for (String part : dottedField.split("\\.")) {
+            if (!(value instanceof Document nested)) {
+                return null;
+            }
+            value = nested.get(part);
+        }
+        return value instanceof String url ? url : null;
+    }
+}
@@ -0,0 +1,63 @@
+package com.plusone.PlusOneBackend.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.concurrent.ThreadPoolExecutor;
+
+/**
+ * Enables @Scheduled jobs and defines the thread pools used by background pipelines.
+ */
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+
+    @Bean
+    public ThreadPoolTaskExecutor emailOutboxExecutor(
+            @Value("${plusone.mail.outbox.workers:4}") int workers) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(workers);
+        executor.setMaxPoolSize(workers);
+        executor.setQueueCapacity(workers * 4);
+        executor.setThreadNamePrefix("email-outbox-");
+        executor.initialize();
+        return executor;
+    }
+
+    /**
+     * Timeline fan-out. When the queue is full the posting request runs its own fan-out,
+     * which slows writers down instead of dropping feed entries.
+     */
+    @Bean
+    public ThreadPoolTaskExecutor timelineFanOutExecutor(
+            @Value("${plusone.timeline.workers:2}") int workers,
+            @Value("${plusone.timeline.queue-capacity:1000}") int queueCapacity) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(workers);
+        executor.setMaxPoolSize(workers);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+        executor.setThreadNamePrefix("timeline-fanout-");
+        executor.initialize();
+        return executor;
+    }
+
+    /**
+     * Resizes uploaded photos. Work that does not fit in the queue is dropped; the variant
+     * is requested again the next time someone asks for it.
+     */
+    @Bean
+    public ThreadPoolTaskExecutor photoVariantExecutor(
+            @Value("${plusone.photos.variant-workers:1}") int workers) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(workers);
+        executor.setMaxPoolSize(workers);
+        executor.setQueueCapacity(100);
+        executor.setThreadNamePrefix("photo-variants-");
+        executor.initialize();
+        return executor;
+    }
+}
@@ -1,14 +1,16 @@
 package com.plusone.PlusOneBackend.controller;
 
+import com.plusone.PlusOneBackend.dto.ConnectionGraphStats;
 import com.plusone.PlusOneBackend.dto.ConnectionRequestDto;
 import com.plusone.PlusOneBackend.dto.CreateConnectionRequestDto;
-import com.plusone.PlusOneBackend.dto.UserProfileDto;
+import com.plusone.PlusOneBackend.dto.UserCardDto;
 import com.plusone.PlusOneBackend.service.ConnectionService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
+import java.util.Map;
 
 @RestController
 @RequestMapping("/api/connections")
@@ -22,9 +24,24 @@ public class ConnectionController {
      * Get recent users for homepage display
      */
     @GetMapping("/recent-users")
-    public ResponseEntity<List<UserProfileDto>> getRecentUsers(@RequestParam String currentUserId) {
+    public ResponseEntity<List<UserCardDto>> getRecentUsers(@RequestParam String currentUserId) {
         try {
-            List<UserProfileDto> users = connectionService.getRecentUsers(currentUserId);
+            List<UserCardDto> users = connectionService.getRecentUsers(currentUserId);
+            return ResponseEntity.ok(users);
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    /**
+     * Get "people you may know" suggestions for a user
+     */
+    @GetMapping("/suggestions")
+    public ResponseEntity<List<UserCardDto>> getSuggestedUsers(
+            @RequestParam String userId,
+            @RequestParam(defaultValue = "10") int limit) {
+        try {
+            List<UserCardDto> users = connectionService.getSuggestedUsers(userId, Math.min(Math.max(limit, 1), 20));
             return ResponseEntity.ok(users);
         } catch (Exception e) {
             return ResponseEntity.badRequest().build();
@@ -76,6 +93,21 @@ public class ConnectionController {
         }
     }
 
+    /**
+     * Get connection status between one user and a list of others (up to 500 ids)
+     */
+    @PostMapping("/status/batch")
+    public ResponseEntity<Map<String, String>> getConnectionStatuses(
+            @RequestParam String fromUserId,
+            @RequestBody List<String> toUserIds) {
+        try {
+            Map<String, String> statuses = connectionService.getConnectionStatuses(fromUserId, toUserIds);
+            return ResponseEntity.ok(statuses);
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
     /**
      * Get pending connection requests for a user
      */
@@ -103,4 +135,12 @@ public class ConnectionController {
             return ResponseEntity.badRequest().build();
         }
     }
+
+    /**
+     * Size and estimated heap usage of the in-memory connection graph
+     */
+    @GetMapping("/graph-stats")
+    public ResponseEntity<ConnectionGraphStats> getConnectionGraphStats() {
+        return ResponseEntity.ok(connectionService.getConnectionGraphStats());
+    }
 }
@@ -0,0 +1,101 @@
+package com.plusone.PlusOneBackend.controller;
+
+import com.plusone.PlusOneBackend.dto.PhotoUploadResponse;
+import com.plusone.PlusOneBackend.service.PhotoService;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.core.io.Resource;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.Duration;
+import java.util.Optional;
+
+/**
+ * Photo upload and download on GridFS. Uploads are the raw image bytes as the request
+ * body (Content-Type image/jpeg, image/png, ...), streamed straight into GridFS rather
+ * than parsed as a multipart form. Downloads support Range requests and conditional
+ * GETs against a strong ETag; both are handled by Spring from the Resource and headers.
+ *
+ * Upload responses carry paths relative to the API host, which clients store as is in
+ * Profile.Photo.url and Post.imageUrl, so stored documents do not depend on the host
+ * that happened to serve the upload.
+ */
+@RestController
+@RequestMapping("/api/photos")
+@CrossOrigin(origins = {"http://localhost:5173", "http://localhost:3000"}, allowCredentials = "true")
+public class PhotoController {
+
+    private final PhotoService photoService;
+
+    public PhotoController(PhotoService photoService) {
+        this.photoService = photoService;
+    }
+
+    @PostMapping(consumes = "image/*")
+    public ResponseEntity<PhotoUploadResponse> upload(HttpServletRequest request,
+                                                      @RequestParam(required = false) String filename,
+                                                      @RequestParam(required = false) String ownerId) {
+        try (InputStream body = request.getInputStream()) {
+            PhotoService.StoredPhoto stored = photoService.store(body, filename, request.getContentType(), ownerId);
+            return ResponseEntity.status(HttpStatus.CREATED).body(PhotoUploadResponse.builder()
+                .id(stored.id())
+                .storage(PhotoService.STORAGE)
+                .url(PhotoService.pathOf(stored.id(), null))
+                .thumbnailUrl(PhotoService.pathOf(stored.id(), PhotoService.Variant.THUMB))
+                .contentType(stored.contentType())
+                .length(stored.length())
+                .sha256(stored.sha256())
+                .build());
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.UNSUPPORTED_MEDIA_TYPE).build();
+        } catch (PhotoService.PhotoTooLargeException e) {
+            return ResponseEntity.status(HttpStatus.PAYLOAD_TOO_LARGE).build();
+        } catch (IOException e) {
+            System.err.println("Error storing photo: " + e.getMessage());
+            return ResponseEntity.internalServerError().build();
+        }
+    }
+
+    /**
+     * The original, or a resized variant with size=thumb|medium. A variant that is still
+     * being generated is answered with the original under a short cache lifetime.
+     */
+    @GetMapping("/{id}")
+    public ResponseEntity<Resource> download(@PathVariable String id,
+                                             @RequestParam(required = false) String size) {
+        PhotoService.Variant variant;
+        try {
+            variant = size != null ? PhotoService.Variant.parse(size) : null;
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+
+        Optional<PhotoService.PhotoContent> content = Optional.empty();
+        boolean fallback = false;
+        if (variant != null) {
+            content = photoService.openVariant(id, variant);
+            fallback = content.isEmpty();
+        }
+        if (content.isEmpty()) {
+            content = photoService.open(id);
+        }
+        if (content.isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
+
+        PhotoService.PhotoContent photo = content.get();
+        CacheControl cacheControl = photo.immutable() && !fallback
+            ? CacheControl.maxAge(Duration.ofDays(365)).cachePublic().immutable()
+            : CacheControl.maxAge(Duration.ofMinutes(1));
+        return ResponseEntity.ok()
+            .eTag(fallback ? null : photo.etag())
+            .cacheControl(cacheControl)
+            .contentType(MediaType.parseMediaType(photo.contentType()))
+            .body(photo.resource());
+    }
+}
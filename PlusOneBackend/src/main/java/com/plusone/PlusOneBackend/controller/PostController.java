@@ -1,9 +1,21 @@
 package com.plusone.PlusOneBackend.controller;
 
+import com.plusone.PlusOneBackend.dto.CacheStats;
+import com.plusone.PlusOneBackend.dto.PostPage;
+import com.plusone.PlusOneBackend.dto.PostPatchRequest;
 import com.plusone.PlusOneBackend.model.Post;
 import com.plusone.PlusOneBackend.repository.PostRepository;
+import com.plusone.PlusOneBackend.service.CategoryFeedCache;
+import com.plusone.PlusOneBackend.service.PostService;
+import com.plusone.PlusOneBackend.service.ProfileResponseCache;
+import com.plusone.PlusOneBackend.service.TimelineService;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
-import java.util.List;
+import java.time.Instant;
+import java.util.Optional;
 
 @RestController
 @RequestMapping("/api/posts")
@@ -11,30 +23,155 @@ import java.util.List;
 public class PostController {
 
   private final PostRepository repo;
+  private final PostService postService;
+  private final ProfileResponseCache profileResponseCache;
+  private final TimelineService timelineService;
+  private final CategoryFeedCache categoryFeedCache;
 
-  public PostController(PostRepository repo) {
+  public PostController(PostRepository repo, PostService postService, ProfileResponseCache profileResponseCache,
+                        TimelineService timelineService, CategoryFeedCache categoryFeedCache) {
     this.repo = repo;
+    this.postService = postService;
+    this.profileResponseCache = profileResponseCache;
+    this.timelineService = timelineService;
+    this.categoryFeedCache = categoryFeedCache;
   }
 
+  /** Newest first; pass the previous page's nextCursor to get the next page. */
   @GetMapping
-  public List<Post> list(@RequestParam String userId) {
-    return repo.findByUserIdOrderByCreatedAtDesc(userId);
+  public ResponseEntity<PostPage> list(@RequestParam String userId,
+                                       @RequestParam(required = false) String cursor,
+                                       @RequestParam(defaultValue = "" + PostService.DEFAULT_PAGE_SIZE) int limit) {
+    try {
+      return ResponseEntity.ok(postService.getUserPosts(userId, cursor, limit));
+    } catch (IllegalArgumentException e) {
+      return ResponseEntity.badRequest().build();
+    }
+  }
+
+  /** Posts by the user's connections, newest first; paged like list. */
+  @GetMapping("/feed")
+  public ResponseEntity<PostPage> feed(@RequestParam String userId,
+                                       @RequestParam(required = false) String cursor,
+                                       @RequestParam(defaultValue = "" + PostService.DEFAULT_PAGE_SIZE) int limit) {
+    try {
+      return ResponseEntity.ok(postService.getConnectionsFeed(userId, cursor, limit));
+    } catch (IllegalArgumentException e) {
+      return ResponseEntity.badRequest().build();
+    }
+  }
+
+  /** Posts in one category (Events, Job opportunities, ...), newest first; paged like list. */
+  @GetMapping("/category/{category}")
+  public ResponseEntity<PostPage> byCategory(@PathVariable String category,
+                                             @RequestParam(required = false) String excludeUserId,
+                                             @RequestParam(required = false) String cursor,
+                                             @RequestParam(defaultValue = "" + PostService.DEFAULT_PAGE_SIZE) int limit) {
+    try {
+      return ResponseEntity.ok(postService.getCategoryFeed(category, excludeUserId, cursor, limit));
+    } catch (IllegalArgumentException e) {
+      return ResponseEntity.badRequest().build();
+    }
+  }
+
+  /** Hit/miss/eviction counts of the category first-page cache, for sizing it */
+  @GetMapping("/category-cache/stats")
+  public ResponseEntity<CacheStats> categoryCacheStats() {
+    return ResponseEntity.ok(categoryFeedCache.stats());
   }
 
   @PostMapping
-  public Post create(@RequestBody Post p) {
+  public ResponseEntity<Post> create(@RequestBody Post p) {
+    try {
+      p.setCategory(PostService.canonicalCategory(p.getCategory()));
+    } catch (IllegalArgumentException e) {
+      return ResponseEntity.badRequest().build();
+    }
+    // Server-assigned: a client-sent version would make save() look for an existing
+    // document, and a client-sent createdAt could backdate or pin the post in the feeds
     p.setId(null);
-    return repo.save(p);
+    p.setVersion(null);
+    p.setCreatedAt(Instant.now());
+    Post saved = repo.save(p);
+    profileResponseCache.invalidate(saved.getUserId());
+    categoryFeedCache.invalidate(saved.getCategory());
+    timelineService.onPostCreated(saved);
+    return ResponseEntity.ok(saved);
   }
 
+  /** Full replace. Send the post's version to have a concurrent edit rejected with 409. */
   @PutMapping("/{id}")
-  public Post update(@PathVariable String id, @RequestBody Post p) {
+  public ResponseEntity<Post> update(@PathVariable String id, @RequestBody Post p) {
+    try {
+      p.setCategory(PostService.canonicalCategory(p.getCategory()));
+    } catch (IllegalArgumentException e) {
+      return ResponseEntity.badRequest().build();
+    }
     p.setId(id);
-    return repo.save(p);
+    Optional<Post> existing = repo.findById(id);
+    if (existing.isPresent()) {
+      // Keep the original creation time (the field initializer would reset it) and,
+      // when the client sent no version, replace whatever is current
+      p.setCreatedAt(existing.get().getCreatedAt());
+      Long current = existing.get().getVersion();
+      if (current == null) {
+        current = postService.initVersion(id);  // written before versioning
+      }
+      if (p.getVersion() == null) {
+        p.setVersion(current);
+      }
+    } else {
+      p.setVersion(null);
+      p.setCreatedAt(Instant.now());
+    }
+    Post saved;
+    try {
+      saved = repo.save(p);
+    } catch (OptimisticLockingFailureException | DuplicateKeyException e) {
+      // DuplicateKeyException: the post was created by someone else since we looked
+      return ResponseEntity.status(HttpStatus.CONFLICT).build();
+    }
+    // Invalidate after the write so a concurrent read cannot re-cache the old version
+    existing.ifPresent(old -> {
+      profileResponseCache.invalidate(old.getUserId());
+      categoryFeedCache.invalidate(old.getCategory());
+    });
+    profileResponseCache.invalidate(saved.getUserId());
+    categoryFeedCache.invalidate(saved.getCategory());
+    return ResponseEntity.ok(saved);
+  }
+
+  /** Change only the fields present in the body; 409 if the given version is stale. */
+  @PatchMapping("/{id}")
+  public ResponseEntity<Post> patch(@PathVariable String id, @RequestBody PostPatchRequest patch) {
+    Post updated;
+    try {
+      updated = postService.patchPost(id, patch);
+    } catch (IllegalArgumentException e) {
+      return ResponseEntity.badRequest().build();
+    } catch (OptimisticLockingFailureException e) {
+      return ResponseEntity.status(HttpStatus.CONFLICT).build();
+    }
+    if (updated == null) {
+      return ResponseEntity.notFound().build();
+    }
+    profileResponseCache.invalidate(updated.getUserId());
+    if (patch.getCategory() != null) {
+      categoryFeedCache.invalidateAll();  // the post may have left another category's first page
+    } else {
+      categoryFeedCache.invalidate(updated.getCategory());
+    }
+    return ResponseEntity.ok(updated);
   }
 
   @DeleteMapping("/{id}")
   public void delete(@PathVariable String id) {
+    Optional<Post> existing = repo.findById(id);
     repo.deleteById(id);
+    existing.ifPresent(old -> {
+      profileResponseCache.invalidate(old.getUserId());
+      categoryFeedCache.invalidate(old.getCategory());
+    });
+    timelineService.onPostDeleted(id);
   }
 }
\ No newline at end of file
@@ -1,7 +1,9 @@
 package com.plusone.PlusOneBackend.controller;
 
+import com.plusone.PlusOneBackend.dto.CacheStats;
 import com.plusone.PlusOneBackend.dto.ProfileResponse;
 import com.plusone.PlusOneBackend.dto.ProfileUpdateRequest;
+import com.plusone.PlusOneBackend.service.ProfileResponseCache;
 import com.plusone.PlusOneBackend.service.ProfileService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
@@ -18,6 +20,17 @@ public class ProfileController {
     @Autowired
     private ProfileService profileService;
 
+    @Autowired
+    private ProfileResponseCache profileResponseCache;
+
+    /**
+     * Hit/miss/eviction counts of the profile response cache, for sizing it
+     */
+    @GetMapping("/profile-cache/stats")
+    public ResponseEntity<CacheStats> getProfileCacheStats() {
+        return ResponseEntity.ok(profileResponseCache.stats());
+    }
+
     /**
      * Get user profile with counts
      */
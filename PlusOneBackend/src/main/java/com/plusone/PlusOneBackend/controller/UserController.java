@@ -1,6 +1,16 @@
 package com.plusone.PlusOneBackend.controller;
 
-import com.plusone.PlusOneBackend.model.User;
+import com.plusone.PlusOneBackend.dto.CacheStats;
+import com.plusone.PlusOneBackend.dto.InterestSuggestion;
+import com.plusone.PlusOneBackend.dto.NearbyUsersPage;
+import com.plusone.PlusOneBackend.dto.QueryPlanSummary;
+import com.plusone.PlusOneBackend.dto.SearchFacets;
+import com.plusone.PlusOneBackend.dto.SearchFilters;
+import com.plusone.PlusOneBackend.dto.SimilarUser;
+import com.plusone.PlusOneBackend.dto.UserCardDto;
+import com.plusone.PlusOneBackend.dto.UserSearchPage;
+import com.plusone.PlusOneBackend.service.InterestIndex;
+import com.plusone.PlusOneBackend.service.NearbyUserService;
 import com.plusone.PlusOneBackend.service.UserSearchService;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
@@ -16,21 +26,130 @@ import java.util.List;
 @RequestMapping("/api/users")
 
 public class UserController {
+    private static final int MAX_SUGGESTIONS = 20;
+
     private final UserSearchService userSearchService;
+    private final InterestIndex interestIndex;
+    private final NearbyUserService nearbyUserService;
 
-    public UserController(UserSearchService userSearchService) {
+    public UserController(UserSearchService userSearchService, InterestIndex interestIndex,
+                          NearbyUserService nearbyUserService) {
         this.userSearchService = userSearchService;
+        this.interestIndex = interestIndex;
+        this.nearbyUserService = nearbyUserService;
     }
 
+    /**
+     * Users by interest, in a stable order, optionally narrowed to an exact interest,
+     * company or city. The first page includes facet counts for those filters; pass the
+     * previous page's nextCursor to continue.
+     */
     @GetMapping("/search")
-    public ResponseEntity<List<User>> searchUsers(
+    public ResponseEntity<UserSearchPage> searchUsers(
+            @RequestParam("q") String query,
+            @RequestParam(value = "interest", required = false) String interest,
+            @RequestParam(value = "company", required = false) String company,
+            @RequestParam(value = "city", required = false) String city,
+            @RequestParam(value = "cursor", required = false) String cursor,
+            @RequestParam(value = "limit", defaultValue = "20") int limit) {
+        if (query == null || query.trim().isEmpty()) {
+            return ResponseEntity.ok(new UserSearchPage(List.of(), null, null)); // empty page for empty query
+        }
+
+        try {
+            SearchFilters filters = new SearchFilters(interest, company, city);
+            return ResponseEntity.ok(userSearchService.searchByInterest(query, filters, cursor, limit));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    /**
+     * Hit/miss/eviction counts of the search result cache, for sizing it
+     */
+    @GetMapping("/search-cache/stats")
+    public ResponseEntity<CacheStats> getSearchCacheStats() {
+        return ResponseEntity.ok(userSearchService.cacheStats());
+    }
+
+    /**
+     * Facet counts across all users, e.g. to show the filters before a search.
+     */
+    @GetMapping("/facets")
+    public ResponseEntity<SearchFacets> allFacets() {
+        return ResponseEntity.ok(userSearchService.allFacets());
+    }
+
+    /**
+     * Ranked people search across name, job title, company, city and interests,
+     * e.g. GET /api/users/search/people?q=jane google
+     */
+    @GetMapping("/search/people")
+    public ResponseEntity<List<UserCardDto>> searchPeople(
             @RequestParam("q") String query,
             @RequestParam(value = "limit", defaultValue = "20") int limit) {
         if (query == null || query.trim().isEmpty()) {
-            return ResponseEntity.ok(List.of()); // return empty list for empty query
+            return ResponseEntity.ok(List.of());
+        }
+        return ResponseEntity.ok(userSearchService.searchPeople(query, limit));
+    }
+
+    /**
+     * People within radiusKm of the user's profile location (or of lat/lng when given),
+     * nearest first, optionally sharing an interest. Pass the previous page's nextCursor
+     * to continue, e.g. GET /api/users/nearby?userId=...&radiusKm=10&interest=hiking
+     */
+    @GetMapping("/nearby")
+    public ResponseEntity<NearbyUsersPage> nearbyUsers(
+            @RequestParam String userId,
+            @RequestParam(required = false) Double lat,
+            @RequestParam(required = false) Double lng,
+            @RequestParam(defaultValue = "25") double radiusKm,
+            @RequestParam(required = false) String interest,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "" + NearbyUserService.DEFAULT_PAGE_SIZE) int limit) {
+        try {
+            return ResponseEntity.ok(nearbyUserService.findNearby(userId, lat, lng, radiusKm, interest, cursor, limit));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
         }
+    }
+
+    /**
+     * People whose interests overlap most with the user's, most similar first,
+     * e.g. GET /api/users/{userId}/similar?limit=10
+     */
+    @GetMapping("/{userId}/similar")
+    public ResponseEntity<List<SimilarUser>> similarUsers(
+            @PathVariable String userId,
+            @RequestParam(value = "limit", defaultValue = "10") int limit) {
+        return ResponseEntity.ok(userSearchService.similarUsers(userId, limit));
+    }
+
+    /**
+     * Typeahead for the search box: interests starting with the prefix, most popular
+     * first. Served from memory, e.g. GET /api/users/interests/autocomplete?prefix=hi
+     */
+    @GetMapping("/interests/autocomplete")
+    public ResponseEntity<List<InterestSuggestion>> autocompleteInterests(
+            @RequestParam(value = "prefix", defaultValue = "") String prefix,
+            @RequestParam(value = "limit", defaultValue = "8") int limit) {
+        return ResponseEntity.ok(interestIndex.suggest(prefix, Math.max(1, Math.min(limit, MAX_SUGGESTIONS))));
+    }
 
-        List<User> users = userSearchService.searchByInterest(query, limit);
-        return ResponseEntity.ok(users);
+    /**
+     * Explain plans of the MongoDB interest search, e.g. GET /api/users/search/explain?q=hik;
+     * every plan should have collectionScan false and usesExpectedIndex true.
+     */
+    @GetMapping("/search/explain")
+    public ResponseEntity<List<QueryPlanSummary>> explainSearch(
+            @RequestParam("q") String query,
+            @RequestParam(value = "limit", defaultValue = "20") int limit) {
+        try {
+            return ResponseEntity.ok(userSearchService.explainSearch(query, limit));
+        } catch (Exception e) {
+            System.err.println("Error explaining search for '" + query + "': " + e.getMessage());
+            return ResponseEntity.badRequest().build();
+        }
     }
 }
@@ -0,0 +1,22 @@
+package com.plusone.PlusOneBackend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class CacheStats {
+
+    private long entries;
+    private long weightedBytes;     // estimated size of the cached entries
+    private long maxWeightBytes;
+    private long hits;
+    private long misses;
+    private double hitRate;
+    private long evictions;         // size- and TTL-based removals, not explicit invalidations
+    private long evictedBytes;
+}
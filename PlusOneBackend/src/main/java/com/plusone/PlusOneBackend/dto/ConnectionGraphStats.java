@@ -0,0 +1,19 @@
+package com.plusone.PlusOneBackend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ConnectionGraphStats {
+
+    private boolean loaded;
+    private int users;
+    private long edges;
+    private long estimatedBytes;
+    private double bytesPerEdge;
+}
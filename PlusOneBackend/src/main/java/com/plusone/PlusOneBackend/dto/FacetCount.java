@@ -0,0 +1,16 @@
+package com.plusone.PlusOneBackend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class FacetCount {
+
+    private String value;   // as first entered by a user, e.g. "Nashville"
+    private int users;      // number of matching users with this value
+}
@@ -0,0 +1,16 @@
+package com.plusone.PlusOneBackend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class InterestSuggestion {
+
+    private String interest;    // as first entered by a user, e.g. "Machine Learning"
+    private int users;          // number of users with this interest
+}
@@ -0,0 +1,16 @@
+package com.plusone.PlusOneBackend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class NearbyUser {
+
+    private UserCardDto user;
+    private double distanceKm;
+}
@@ -0,0 +1,18 @@
+package com.plusone.PlusOneBackend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class NearbyUsersPage {
+
+    private List<NearbyUser> users;   // nearest first
+    private String nextCursor;        // null when there are no more users in range
+}
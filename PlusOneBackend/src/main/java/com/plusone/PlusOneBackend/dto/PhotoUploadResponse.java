@@ -0,0 +1,21 @@
+package com.plusone.PlusOneBackend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class PhotoUploadResponse {
+
+    private String id;            // GridFS file id; goes in Profile.Photo.key
+    private String storage;       // "gridfs"
+    private String url;           // original, as a path: /api/photos/<id>
+    private String thumbnailUrl;  // small variant for cards and lists, also a path
+    private String contentType;
+    private long length;
+    private String sha256;
+}
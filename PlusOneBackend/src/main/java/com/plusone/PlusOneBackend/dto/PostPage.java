@@ -0,0 +1,19 @@
+package com.plusone.PlusOneBackend.dto;
+
+import com.plusone.PlusOneBackend.model.Post;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class PostPage {
+
+    private List<Post> posts;
+    private String nextCursor;  // null when there are no more posts
+}
@@ -0,0 +1,17 @@
+package com.plusone.PlusOneBackend.dto;
+
+import lombok.Data;
+
+/**
+ * Partial post update: only non-null fields are changed. An empty imageUrl removes
+ * the image. Send the version the edit was based on to reject it if someone else
+ * changed the post in between; without one the listed fields are overwritten.
+ */
+@Data
+public class PostPatchRequest {
+    private String category;
+    private String title;
+    private String description;
+    private String imageUrl;
+    private Long version;
+}
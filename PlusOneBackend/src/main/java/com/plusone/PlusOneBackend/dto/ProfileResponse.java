@@ -21,7 +21,8 @@ public class ProfileResponse {
     private int connectionsCount;
     private int requestsCount;
     private int postsCount;
-    private List<Post> posts;
+    private List<Post> posts;           // first page only, newest first
+    private String postsNextCursor;     // pass to GET /api/posts for the next page; null if none
     private Profile profile;
     private OnboardingData onboarding;
     
@@ -0,0 +1,26 @@
+package com.plusone.PlusOneBackend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * The parts of a MongoDB explain() winning plan worth checking: which stages run and
+ * which indexes they use.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class QueryPlanSummary {
+
+    private String filter;
+    private List<String> stages;        // e.g. LIMIT, FETCH, IXSCAN, outermost first
+    private List<String> indexes;
+    private boolean collectionScan;     // true if any stage is a COLLSCAN
+    private String expectedIndex;       // the index the query is hinted to use
+    private boolean usesExpectedIndex;  // true if the winning plan scans expectedIndex
+}
@@ -0,0 +1,24 @@
+package com.plusone.PlusOneBackend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Most common values among the matching users, for drill-down filters. Each list is
+ * sorted by count, largest first.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class SearchFacets {
+
+    private int totalUsers;             // all matching users, not just the first page
+    private List<FacetCount> interests;
+    private List<FacetCount> companies;
+    private List<FacetCount> cities;
+}
@@ -0,0 +1,20 @@
+package com.plusone.PlusOneBackend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Facet values a search is narrowed to (case-insensitive); null means no filter.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class SearchFilters {
+
+    private String interest;
+    private String company;
+    private String city;
+}
@@ -0,0 +1,17 @@
+package com.plusone.PlusOneBackend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class SimilarUser {
+
+    private UserCardDto user;
+    private double similarity;      // Jaccard similarity of the two interest sets, 0..1
+    private int sharedInterests;
+}
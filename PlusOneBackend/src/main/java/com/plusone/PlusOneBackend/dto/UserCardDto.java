@@ -0,0 +1,56 @@
+package com.plusone.PlusOneBackend.dto;
+
+import com.plusone.PlusOneBackend.model.Profile;
+import com.plusone.PlusOneBackend.model.User;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * What a user looks like in lists (search results, recent signups, suggestions). Loaded
+ * with {@link com.plusone.PlusOneBackend.repository.UserRepository#CARD_FIELDS} so only
+ * these fields are read from MongoDB.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class UserCardDto {
+
+    private String userId;
+    private String firstName;
+    private String lastName;
+    private String jobTitle;
+    private String company;
+    private String city;
+    private String photoUrl;
+    private List<String> interests;
+
+    public static UserCardDto from(User user) {
+        Profile profile = user.getProfile();
+        return UserCardDto.builder()
+            .userId(user.getId())
+            .firstName(user.getFirstName())
+            .lastName(user.getLastName())
+            .jobTitle(profile != null && profile.getJob() != null ? profile.getJob().getTitle() : null)
+            .company(profile != null && profile.getJob() != null ? profile.getJob().getCompaniesName() : null)
+            .city(profile != null && profile.getLocation() != null ? profile.getLocation().getCity() : null)
+            .photoUrl(profile != null ? cardPhotoUrl(profile.getProfilePhoto()) : null)
+            .interests(user.getInterests())
+            .build();
+    }
+
+    // Cards are small, so GridFS photos point at their thumbnail variant
+    private static String cardPhotoUrl(Profile.Photo photo) {
+        if (photo == null || photo.getUrl() == null) {
+            return null;
+        }
+        if ("gridfs".equals(photo.getStorage()) && !photo.getUrl().contains("?")) {
+            return photo.getUrl() + "?size=thumb";
+        }
+        return photo.getUrl();
+    }
+}
@@ -0,0 +1,19 @@
+package com.plusone.PlusOneBackend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class UserSearchPage {
+
+    private List<UserCardDto> users;  // ascending user id
+    private String nextCursor;        // null when there are no more matches
+    private SearchFacets facets;      // first page only; null while the search indexes load
+}
@@ -3,6 +3,7 @@ package com.plusone.PlusOneBackend.model;
 import java.time.LocalDateTime;
 
 import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.Indexed;
 import org.springframework.data.mongodb.core.mapping.Document;
 
 import lombok.AllArgsConstructor;
@@ -20,10 +21,24 @@ public class Connection {
     @Id
     private String id;
 
+    @Indexed
     private String user1Id;         // First user in the connection
+    @Indexed
     private String user2Id;         // Second user in the connection
     private String connectionRequestId; // Reference to the original request
+
+    @Indexed(unique = true)
+    private String pairKey;         // Order-independent key of the two users, see pairKeyOf
     
     @Builder.Default
     private LocalDateTime connectedAt = LocalDateTime.now();
+
+    /**
+     * Canonical key for a pair of users: the smaller id first, so (a, b) and (b, a) map to the same key.
+     */
+    public static String pairKeyOf(String userIdA, String userIdB) {
+        return userIdA.compareTo(userIdB) <= 0
+            ? userIdA + "_" + userIdB
+            : userIdB + "_" + userIdA;
+    }
 }
@@ -3,6 +3,7 @@ package com.plusone.PlusOneBackend.model;
 import java.time.LocalDateTime;
 
 import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
 import org.springframework.data.mongodb.core.mapping.Document;
 
 import lombok.AllArgsConstructor;
@@ -15,6 +16,10 @@ import lombok.NoArgsConstructor;
 @AllArgsConstructor
 @Builder
 @Document(collection = "connection_requests")
+@CompoundIndex(name = "pending_pair", def = "{ 'pairKey': 1, 'status': 1 }",
+    unique = true, partialFilter = "{ 'status': 'PENDING' }")
+@CompoundIndex(name = "to_status", def = "{ 'toUserId': 1, 'status': 1 }")
+@CompoundIndex(name = "from_to", def = "{ 'fromUserId': 1, 'toUserId': 1 }")
 public class ConnectionRequest {
 
     @Id
@@ -23,7 +28,8 @@ public class ConnectionRequest {
     private String fromUserId;      // User who sent the request
     private String toUserId;        // User who received the request
     private String message;         // Message field (required)
-    private String status;          // "PENDING", "ACCEPTED", "REJECTED"
+    private String status;          // "PENDING", "ACCEPTED", "REJECTED", "SUPERSEDED"
+    private String pairKey;         // Connection.pairKeyOf(fromUserId, toUserId); at most one PENDING per pair
     
     @Builder.Default
     private LocalDateTime createdAt = LocalDateTime.now();
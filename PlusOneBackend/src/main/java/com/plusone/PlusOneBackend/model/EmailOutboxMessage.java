@@ -0,0 +1,51 @@
+package com.plusone.PlusOneBackend.model;
+
+import java.time.LocalDateTime;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * An email waiting to be delivered by the outbox worker. Written in the same request
+ * that triggers the notification, so the HTTP call never waits on SMTP.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Document(collection = "email_outbox")
+@CompoundIndex(name = "status_next_attempt", def = "{ 'status': 1, 'nextAttemptAt': 1 }")
+public class EmailOutboxMessage {
+
+    @Id
+    private String id;
+
+    private String recipient;
+    private String subject;
+    private String body;
+
+    private String status;              // "PENDING", "SENDING", "SENT", "DEAD"
+
+    @Builder.Default
+    private int attempts = 0;
+
+    private String lastError;
+
+    @Builder.Default
+    private LocalDateTime createdAt = LocalDateTime.now();
+
+    @Builder.Default
+    private LocalDateTime nextAttemptAt = LocalDateTime.now();
+
+    private LocalDateTime lockedUntil;  // lease held by the worker while SENDING
+
+    @Indexed(expireAfter = "7d")        // delivered messages are purged after a week
+    private LocalDateTime sentAt;
+}
@@ -1,12 +1,22 @@
 package com.plusone.PlusOneBackend.model;
 
 import org.springframework.data.annotation.Id;
+import org.springframework.data.annotation.Version;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.CompoundIndexes;
 import org.springframework.data.mongodb.core.mapping.Document;
 
 import java.time.Instant;
+import java.util.List;
 
 @Document("posts")
+@CompoundIndexes({
+  @CompoundIndex(name = "user_created", def = "{ 'userId' : 1, 'createdAt' : -1, '_id' : -1 }"),        // keyset paging, see PostService
+  @CompoundIndex(name = "category_created", def = "{ 'category' : 1, 'createdAt' : -1, '_id' : -1 }") // category feeds
+})
 public class Post {
+  public static final List<String> CATEGORIES = List.of("Events", "Job opportunities", "Internships", "Housing");
+
   @Id
   private String id;
 
@@ -18,6 +28,9 @@ public class Post {
 
   private Instant createdAt = Instant.now();
 
+  @Version
+  private Long version;      // bumped on every write; stale saves and patches are rejected
+
   // getters/setters/constructors
   public Post() {}
 
@@ -42,4 +55,7 @@ public class Post {
 
   public Instant getCreatedAt() { return createdAt; }
   public void setCreatedAt(Instant createdAt) { this.createdAt = createdAt; }
+
+  public Long getVersion() { return version; }
+  public void setVersion(Long version) { this.version = version; }
 }
\ No newline at end of file
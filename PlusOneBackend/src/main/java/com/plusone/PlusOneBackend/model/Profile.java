@@ -2,6 +2,11 @@ package com.plusone.PlusOneBackend.model;
 
 import java.util.List;
 
+import org.springframework.data.mongodb.core.geo.GeoJsonPoint;
+import org.springframework.data.mongodb.core.index.Indexed;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
@@ -45,6 +50,11 @@ public class Profile {
         private Double longitude;          // optional
     }
 
+    // GeoJSON copy of location.latitude/longitude for $geoNear (2dsphere index declared on
+    // User). Maintained by ProfileService; null when the profile has no usable coordinates.
+    @JsonIgnore
+    private GeoJsonPoint geoLocation;
+
     // ---- Step 2: job ----
 
     @Builder.Default
@@ -65,6 +75,20 @@ public class Profile {
     @Builder.Default
     private List<String> interests = List.of();
 
+    // Lowercased, trimmed, de-duplicated copy of interests for indexed search (multikey
+    // index on profile.normalizedInterests). Maintained by ProfileService; not part of the API.
+    @JsonIgnore
+    @Indexed
+    @Builder.Default
+    private List<String> normalizedInterests = List.of();
+
+    // Word tails of the normalized interests ("machine learning", "learning"), so an
+    // anchored prefix regex on this multikey index matches any word of an interest.
+    @JsonIgnore
+    @Indexed
+    @Builder.Default
+    private List<String> interestTokens = List.of();
+
     // ---- Step 4: photo ----
 
     @Builder.Default
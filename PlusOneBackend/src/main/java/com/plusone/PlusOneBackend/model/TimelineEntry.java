@@ -0,0 +1,42 @@
+package com.plusone.PlusOneBackend.model;
+
+import java.time.Instant;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.CompoundIndexes;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * A pointer to a post in one reader's materialized feed, written by the timeline
+ * fan-out when a connection posts. Only ids and the sort key are copied; the post
+ * itself is loaded when the feed is read.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Document(collection = "timelines")
+@CompoundIndexes({
+    @CompoundIndex(name = "owner_created", def = "{ 'ownerId' : 1, 'createdAt' : -1, 'postId' : -1 }"), // feed pages
+    @CompoundIndex(name = "owner_post", def = "{ 'ownerId' : 1, 'postId' : 1 }", unique = true)          // idempotent fan-out
+})
+public class TimelineEntry {
+
+    @Id
+    private String id;
+
+    private String ownerId;     // reader whose feed this entry belongs to
+
+    @Indexed
+    private String postId;      // hex of the post's ObjectId, so it sorts like the post _id
+
+    private String authorId;
+    private Instant createdAt;  // copied from the post
+}
@@ -0,0 +1,30 @@
+package com.plusone.PlusOneBackend.model;
+
+import java.time.Instant;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * The newest (createdAt, postId) trimmed from a reader's timeline. Entries at or below
+ * it are ignored when reading, so a late fan-out or backfill of an older post cannot
+ * leave a gap in the feed; those posts are reached by the pull fallback instead.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Document(collection = "timeline_horizons")
+public class TimelineHorizon {
+
+    @Id
+    private String ownerId;
+
+    private Instant createdAt;
+    private String postId;
+}
@@ -0,0 +1,29 @@
+package com.plusone.PlusOneBackend.model;
+
+import java.time.Instant;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * An author whose posts were once skipped by the timeline fan-out for having too many
+ * connections. Those posts are missing from their readers' timelines, so the author
+ * stays pulled at read time even if their connection count later drops.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Document(collection = "timeline_pulled_authors")
+public class TimelinePulledAuthor {
+
+    @Id
+    private String authorId;
+
+    private Instant since;      // first post that was not fanned out
+}
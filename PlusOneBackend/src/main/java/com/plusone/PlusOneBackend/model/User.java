@@ -5,6 +5,8 @@ import java.util.Collections;
 import java.util.List;
 
 import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.IndexDirection;
 import org.springframework.data.mongodb.core.index.Indexed;
 import org.springframework.data.mongodb.core.mapping.Document;
 
@@ -18,6 +20,8 @@ import lombok.NoArgsConstructor;
 @AllArgsConstructor
 @Builder
 @Document(collection = "users")
+// "People near me", optionally narrowed to an interest; users without coordinates are not indexed
+@CompoundIndex(name = "geo_interests", def = "{ 'profile.geoLocation' : '2dsphere', 'profile.normalizedInterests' : 1 }")
 public class User {
 
     @Id
@@ -32,6 +36,7 @@ public class User {
 
     private String lastName;
 
+    @Indexed(direction = IndexDirection.DESCENDING)
     @Builder.Default
     private LocalDateTime createdAt = LocalDateTime.now();
 
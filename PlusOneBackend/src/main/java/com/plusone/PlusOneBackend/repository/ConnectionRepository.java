@@ -5,6 +5,7 @@ import org.springframework.data.mongodb.repository.MongoRepository;
 import org.springframework.data.mongodb.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -14,16 +15,21 @@ public interface ConnectionRepository extends MongoRepository<Connection, String
     // Find all connections for a user
     List<Connection> findByUser1IdOrUser2Id(String user1Id, String user2Id);
     
-    // Check if two users are connected
-    Optional<Connection> findByUser1IdAndUser2IdOrUser1IdAndUser2Id(
-        String user1Id, String user2Id, String user2Id2, String user1Id2);
+    // Point lookup on the unique pair key
+    Optional<Connection> findByPairKey(String pairKey);
+
+    // Same lookup when only existence matters
+    boolean existsByPairKey(String pairKey);
+    
+    // Connections for many pairs in one $in query on the pair key index
+    List<Connection> findByPairKeyIn(Collection<String> pairKeys);
     
     // Find specific connection between two users
     default Optional<Connection> findConnectionBetweenUsers(String userId1, String userId2) {
-        return findByUser1IdAndUser2IdOrUser1IdAndUser2Id(userId1, userId2, userId1, userId2);
+        return findByPairKey(Connection.pairKeyOf(userId1, userId2));
     }
     
     // Count total connections for a user
-    @Query("{ $or: [ { user1Id: ?0 }, { user2Id: ?0 } ] }")
+    @Query(value = "{ $or: [ { user1Id: ?0 }, { user2Id: ?0 } ] }", count = true)
     int countConnectionsForUser(String userId);
 }
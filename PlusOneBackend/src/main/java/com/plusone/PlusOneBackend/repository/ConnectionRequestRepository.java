@@ -2,8 +2,12 @@ package com.plusone.PlusOneBackend.repository;
 
 import com.plusone.PlusOneBackend.model.ConnectionRequest;
 import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.data.mongodb.repository.Query;
+import org.springframework.data.mongodb.repository.Update;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -19,9 +23,20 @@ public interface ConnectionRequestRepository extends MongoRepository<ConnectionR
     // Find specific request between two users
     Optional<ConnectionRequest> findByFromUserIdAndToUserId(String fromUserId, String toUserId);
     
+    // Point lookup of the request with the given status between two users, in either direction
+    Optional<ConnectionRequest> findByPairKeyAndStatus(String pairKey, String status);
+    
+    // Requests with the given status for many pairs in one $in query
+    List<ConnectionRequest> findByPairKeyInAndStatus(Collection<String> pairKeys, String status);
+    
     // Find all requests involving a user
     List<ConnectionRequest> findByFromUserIdOrToUserId(String fromUserId, String toUserId);
     
     // Count pending requests for a user
     int countByToUserIdAndStatus(String toUserId, String status);
+    
+    // Move a request out of PENDING; returns 0 if it was no longer pending (e.g. accepted concurrently)
+    @Query("{ '_id' : ?0, 'status' : 'PENDING' }")
+    @Update("{ '$set' : { 'status' : ?1, 'updatedAt' : ?2 } }")
+    long resolvePendingRequest(String requestId, String status, LocalDateTime updatedAt);
 }
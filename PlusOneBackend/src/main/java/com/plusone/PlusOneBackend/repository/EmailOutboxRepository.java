@@ -0,0 +1,14 @@
+package com.plusone.PlusOneBackend.repository;
+
+import com.plusone.PlusOneBackend.model.EmailOutboxMessage;
+import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface EmailOutboxRepository extends MongoRepository<EmailOutboxMessage, String> {
+
+    // Messages in a given state, e.g. "DEAD" for inspection
+    List<EmailOutboxMessage> findByStatus(String status);
+}
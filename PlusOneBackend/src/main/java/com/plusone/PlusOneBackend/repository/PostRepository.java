@@ -6,4 +6,6 @@ import java.util.List;
 
 public interface PostRepository extends MongoRepository<Post, String> {
   List<Post> findByUserIdOrderByCreatedAtDesc(String userId);
+
+  long countByUserId(String userId);
 }
\ No newline at end of file
@@ -1,19 +1,44 @@
 package com.plusone.PlusOneBackend.repository;
 
 import com.plusone.PlusOneBackend.model.User;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.data.mongodb.repository.Query;
+import org.springframework.data.mongodb.repository.Update;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface UserRepository extends MongoRepository<User, String> {
+
+    // Projection for list views, see UserCardDto
+    String CARD_FIELDS = "{ 'firstName' : 1, 'lastName' : 1, 'profile.job.title' : 1, 'profile.job.companiesName' : 1, "
+        + "'profile.location.city' : 1, 'profile.profilePhoto.url' : 1, 'profile.profilePhoto.storage' : 1, 'profile.interests' : 1 }";
     
     // Find user by email
     Optional<User> findByEmail(String email);
     
     // Check if email exists
     boolean existsByEmail(String email);
-}
 
+    // Newest signups (sort/limit come from the pageable), card fields only
+    @Query(value = "{}", fields = CARD_FIELDS)
+    List<User> findRecentUserCards(Pageable pageable);
+
+    // Load a handful of users by id, card fields only
+    @Query(value = "{ '_id' : { '$in' : ?0 } }", fields = CARD_FIELDS)
+    List<User> findCardsByIdIn(Collection<String> ids);
 
+    // Atomically adjust the denormalized connection counter on the profile
+    @Query("{ '_id' : ?0 }")
+    @Update("{ '$inc' : { 'profile.numConnections' : ?1 } }")
+    long incrementNumConnections(String userId, int delta);
+
+    // Atomically adjust the denormalized pending-request counter on the profile
+    @Query("{ '_id' : ?0 }")
+    @Update("{ '$inc' : { 'profile.numRequests' : ?1 } }")
+    long incrementNumRequests(String userId, int delta);
+}
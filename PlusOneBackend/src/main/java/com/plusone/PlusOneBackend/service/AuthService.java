@@ -20,6 +20,12 @@ public class AuthService {
     @Autowired
     private PasswordEncoder passwordEncoder;
 
+    @Autowired
+    private RecentSignupRing recentSignupRing;
+
+    @Autowired
+    private UserIndexRegistry userIndexRegistry;
+
     private static final String VANDERBILT_EMAIL_DOMAIN = "@vanderbilt.edu";
 
     /**
@@ -64,6 +70,8 @@ public class AuthService {
 
             // Save to database
             User savedUser = userRepository.save(newUser);
+            recentSignupRing.push(savedUser.getId());
+            userIndexRegistry.onUserChanged(savedUser);
 
             // Return success response
             return new AuthResponse(
@@ -0,0 +1,46 @@
+package com.plusone.PlusOneBackend.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.plusone.PlusOneBackend.dto.CacheStats;
+import com.plusone.PlusOneBackend.model.Post;
+
+/**
+ * Shared by the caches bounded by estimated heap size rather than entry count
+ * ({@link ProfileResponseCache}, {@link SearchResultCache}, {@link CategoryFeedCache}):
+ * the size estimates their weighers add up, and their stats for the admin endpoint.
+ */
+final class CacheWeights {
+
+    private CacheWeights() {
+    }
+
+    /**
+     * Rough heap footprint of a string: object and array headers plus two bytes per character.
+     */
+    static long chars(String value) {
+        return value != null ? 40 + 2L * value.length() : 0;
+    }
+
+    static long post(Post post) {
+        return 160 + chars(post.getId()) + chars(post.getUserId()) + chars(post.getCategory())
+            + chars(post.getTitle()) + chars(post.getDescription()) + chars(post.getImageUrl());
+    }
+
+    static int capped(long bytes) {
+        return (int) Math.min(bytes, Integer.MAX_VALUE);
+    }
+
+    static CacheStats statsOf(Cache<?, ?> cache, long maxWeightBytes) {
+        com.github.benmanes.caffeine.cache.stats.CacheStats stats = cache.stats();
+        return CacheStats.builder()
+            .entries(cache.estimatedSize())
+            .weightedBytes(cache.policy().eviction().map(eviction -> eviction.weightedSize().orElse(0L)).orElse(0L))
+            .maxWeightBytes(maxWeightBytes)
+            .hits(stats.hitCount())
+            .misses(stats.missCount())
+            .hitRate(stats.hitRate())
+            .evictions(stats.evictionCount())
+            .evictedBytes(stats.evictionWeight())
+            .build();
+    }
+}
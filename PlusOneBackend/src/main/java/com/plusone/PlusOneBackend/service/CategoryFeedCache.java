@@ -0,0 +1,75 @@
+package com.plusone.PlusOneBackend.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.plusone.PlusOneBackend.dto.CacheStats;
+import com.plusone.PlusOneBackend.model.Post;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * The newest {@value #HOT_ROWS} posts of each category, which is all it takes to serve
+ * the first page of a category feed at any page size, with a few rows to spare for
+ * excluding the viewer's own posts. Nearly every visitor opens that first page, so it
+ * is loaded once (single-flight) and shared.
+ *
+ * Post writes call {@link #invalidate(String)} for the categories they touch; the TTL
+ * is a safety net.
+ */
+@Component
+public class CategoryFeedCache {
+
+    static final int HOT_ROWS = 64;  // MAX_PAGE_SIZE + 1, plus slack for an excluded author
+
+    private final Cache<String, List<Post>> cache;
+    private final long maxWeightBytes;
+
+    public CategoryFeedCache(
+            @Value("${plusone.category-cache.max-bytes:4194304}") long maxWeightBytes,
+            @Value("${plusone.category-cache.ttl:1m}") Duration ttl) {
+        this.maxWeightBytes = maxWeightBytes;
+        this.cache = Caffeine.newBuilder()
+            .maximumWeight(maxWeightBytes)
+            .weigher((String category, List<Post> posts) -> estimateBytes(posts))
+            .expireAfterWrite(ttl)
+            .recordStats()
+            .build();
+    }
+
+    /**
+     * The category's newest posts, newest first; shorter than {@value #HOT_ROWS} only
+     * when the category has fewer posts. Callers must not modify the list.
+     */
+    public List<Post> hotRows(String category, Function<String, List<Post>> loader) {
+        return cache.get(category, loader);
+    }
+
+    public void invalidate(String category) {
+        if (category != null) {
+            cache.invalidate(category);
+        }
+    }
+
+    public void invalidateAll() {
+        cache.invalidateAll();
+    }
+
+    public CacheStats stats() {
+        return CacheWeights.statsOf(cache, maxWeightBytes);
+    }
+
+    /**
+     * Rough heap footprint, in the same spirit as ProfileResponseCache.estimateBytes.
+     */
+    static int estimateBytes(List<Post> posts) {
+        long bytes = 64;
+        for (Post post : posts) {
+            bytes += CacheWeights.post(post);
+        }
+        return CacheWeights.capped(bytes);
+    }
+}
@@ -0,0 +1,320 @@
+package com.plusone.PlusOneBackend.service;
+
+import com.plusone.PlusOneBackend.dto.ConnectionGraphStats;
+import com.plusone.PlusOneBackend.model.Connection;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.annotation.Order;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/**
+ * In-memory copy of the connections collection. Each user (by dense id from
+ * {@link UserIdDictionary}) has a sorted int[] of neighbour ids, so "are these two
+ * connected" is a binary search and a connection count is an array read.
+ *
+ * Loaded on startup, updated when a request is accepted, and reloaded periodically to
+ * pick up connections made through other instances. Until the first load finishes,
+ * {@link #isLoaded()} is false and callers should fall back to MongoDB.
+ */
+@Component
+public class ConnectionGraph {
+
+    private static final int INITIAL_NEIGHBOUR_CAPACITY = 4;
+    private static final int[] NO_NEIGHBOURS = new int[0];
+    private static final Logger log = LoggerFactory.getLogger(ConnectionGraph.class);
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Autowired
+    private UserIdDictionary userIdDictionary;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    // Guarded by lock
+    private Adjacency adjacency = new Adjacency();
+    private List<int[]> addedDuringReload = null;
+
+    private volatile boolean loaded = false;
+
+    private final List<Listener> listeners = new CopyOnWriteArrayList<>();
+
+    /**
+     * Notified after the graph changes, outside the graph lock.
+     */
+    public interface Listener {
+        void onGraphReloaded();
+
+        void onEdgeAdded(int a, int b);
+    }
+
+    public void addListener(Listener listener) {
+        listeners.add(listener);
+    }
+
+    public boolean isLoaded() {
+        return loaded;
+    }
+
+    public boolean areConnected(String userId1, String userId2) {
+        int a = userIdDictionary.find(userId1);
+        int b = userIdDictionary.find(userId2);
+        if (a < 0 || b < 0) {
+            return false;
+        }
+        return areConnected(a, b);
+    }
+
+    public boolean areConnected(int a, int b) {
+        lock.readLock().lock();
+        try {
+            return adjacency.contains(a, b);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int degreeOf(String userId) {
+        return degreeOf(userIdDictionary.find(userId));
+    }
+
+    public int degreeOf(int denseId) {
+        lock.readLock().lock();
+        try {
+            return adjacency.degreeOf(denseId);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Sorted copy of the user's neighbour ids.
+     */
+    public int[] neighboursOf(int denseId) {
+        lock.readLock().lock();
+        try {
+            int degree = adjacency.degreeOf(denseId);
+            return degree > 0 ? Arrays.copyOf(adjacency.neighbours[denseId], degree) : NO_NEIGHBOURS;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * User ids of everyone the user is connected to. Read from the graph once it is
+     * loaded, from the connections collection before that.
+     */
+    public List<String> connectionIdsOf(String userId) {
+        List<String> userIds = new ArrayList<>();
+        if (loaded) {
+            int user = userIdDictionary.find(userId);
+            if (user >= 0) {
+                for (int neighbour : neighboursOf(user)) {
+                    userIds.add(userIdDictionary.userIdOf(neighbour));
+                }
+            }
+            return userIds;
+        }
+        Query query = new Query(new Criteria().orOperator(
+            Criteria.where("user1Id").is(userId), Criteria.where("user2Id").is(userId)));
+        query.fields().include("user1Id", "user2Id").exclude("_id");
+        for (Connection connection : mongoTemplate.find(query, Connection.class)) {
+            userIds.add(userId.equals(connection.getUser1Id()) ? connection.getUser2Id() : connection.getUser1Id());
+        }
+        return userIds;
+    }
+
+    /**
+     * Record a new connection. Safe to call for an edge that already exists.
+     */
+    public void addEdge(String userId1, String userId2) {
+        int a = userIdDictionary.idFor(userId1);
+        int b = userIdDictionary.idFor(userId2);
+        if (a == b) {
+            return;
+        }
+        boolean added;
+        lock.writeLock().lock();
+        try {
+            if (addedDuringReload != null) {
+                addedDuringReload.add(new int[] {a, b});
+            }
+            added = adjacency.insertEdge(a, b);
+        } finally {
+            lock.writeLock().unlock();
+        }
+        if (added) {
+            notifyListeners(listener -> listener.onEdgeAdded(a, b));
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Order(10)
+    public void loadOnStartup() {
+        reload();
+    }
+
+    @Scheduled(initialDelayString = "${plusone.graph.reload-interval-ms:900000}",
+               fixedDelayString = "${plusone.graph.reload-interval-ms:900000}")
+    public void reload() {
+        try {
+            long start = System.nanoTime();
+            Query query = new Query();
+            query.fields().include("user1Id", "user2Id").exclude("_id");
+
+            lock.writeLock().lock();
+            try {
+                addedDuringReload = new ArrayList<>();
+            } finally {
+                lock.writeLock().unlock();
+            }
+
+            Adjacency fresh = new Adjacency();
+            try (Stream<Connection> connections = mongoTemplate.stream(query, Connection.class)) {
+                connections.forEach(connection -> {
+                    int a = userIdDictionary.idFor(connection.getUser1Id());
+                    int b = userIdDictionary.idFor(connection.getUser2Id());
+                    if (a != b) {
+                        fresh.insertEdge(a, b);
+                    }
+                });
+            }
+
+            lock.writeLock().lock();
+            try {
+                for (int[] edge : addedDuringReload) {
+                    fresh.insertEdge(edge[0], edge[1]);
+                }
+                adjacency = fresh;
+                addedDuringReload = null;
+            } finally {
+                lock.writeLock().unlock();
+            }
+            loaded = true;
+            notifyListeners(Listener::onGraphReloaded);
+
+            ConnectionGraphStats stats = stats();
+            log.info("Connection graph loaded in {} ms: {} edges, {} users, ~{} KiB",
+                (System.nanoTime() - start) / 1_000_000, stats.getEdges(), stats.getUsers(), stats.getEstimatedBytes() / 1024);
+        } catch (Exception e) {
+            lock.writeLock().lock();
+            try {
+                addedDuringReload = null;
+            } finally {
+                lock.writeLock().unlock();
+            }
+            System.err.println("Error loading connection graph: " + e.getMessage());
+        }
+    }
+
+    private void notifyListeners(Consumer<Listener> event) {
+        for (Listener listener : listeners) {
+            try {
+                event.accept(listener);
+            } catch (Exception e) {
+                System.err.println("Connection graph listener failed: " + e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Size of the graph and an estimate of the heap it occupies (array headers, slack
+     * capacity included; the id dictionary is not counted).
+     */
+    public ConnectionGraphStats stats() {
+        lock.readLock().lock();
+        try {
+            long bytes = arrayBytes(8, adjacency.neighbours.length) + arrayBytes(4, adjacency.degrees.length);
+            for (int[] list : adjacency.neighbours) {
+                if (list != NO_NEIGHBOURS) {
+                    bytes += arrayBytes(4, list.length);
+                }
+            }
+            long edges = adjacency.edgeCount;
+            return ConnectionGraphStats.builder()
+                .loaded(loaded)
+                .users(userIdDictionary.size())
+                .edges(edges)
+                .estimatedBytes(bytes)
+                .bytesPerEdge(edges > 0 ? (double) bytes / edges : 0)
+                .build();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private static long arrayBytes(int elementSize, int length) {
+        return 16 + (((long) elementSize * length + 7) & ~7L);
+    }
+
+    /**
+     * Sorted neighbour arrays indexed by dense id. Not thread-safe on its own.
+     */
+    private static class Adjacency {
+        private int[][] neighbours = new int[0][];
+        private int[] degrees = new int[0];
+        private long edgeCount = 0;
+
+        int degreeOf(int denseId) {
+            return denseId >= 0 && denseId < degrees.length ? degrees[denseId] : 0;
+        }
+
+        boolean contains(int a, int b) {
+            return a < degrees.length && Arrays.binarySearch(neighbours[a], 0, degrees[a], b) >= 0;
+        }
+
+        boolean insertEdge(int a, int b) {
+            if (!insertNeighbour(a, b)) {
+                return false;
+            }
+            insertNeighbour(b, a);
+            edgeCount++;
+            return true;
+        }
+
+        private boolean insertNeighbour(int from, int to) {
+            ensureCapacity(from);
+            int[] list = neighbours[from];
+            int degree = degrees[from];
+            int pos = Arrays.binarySearch(list, 0, degree, to);
+            if (pos >= 0) {
+                return false;
+            }
+            pos = -pos - 1;
+            if (degree == list.length) {
+                list = Arrays.copyOf(list, Math.max(INITIAL_NEIGHBOUR_CAPACITY, degree + (degree >> 1)));
+                neighbours[from] = list;
+            }
+            System.arraycopy(list, pos, list, pos + 1, degree - pos);
+            list[pos] = to;
+            degrees[from] = degree + 1;
+            return true;
+        }
+
+        private void ensureCapacity(int denseId) {
+            if (denseId < degrees.length) {
+                return;
+            }
+            int newLength = Math.max(denseId + 1, degrees.length + (degrees.length >> 1) + 16);
+            int oldLength = neighbours.length;
+            neighbours = Arrays.copyOf(neighbours, newLength);
+            Arrays.fill(neighbours, oldLength, newLength, NO_NEIGHBOURS);
+            degrees = Arrays.copyOf(degrees, newLength);
+        }
+    }
+}
@@ -1,8 +1,9 @@
 package com.plusone.PlusOneBackend.service;
 
+import com.plusone.PlusOneBackend.dto.ConnectionGraphStats;
 import com.plusone.PlusOneBackend.dto.ConnectionRequestDto;
 import com.plusone.PlusOneBackend.dto.CreateConnectionRequestDto;
-import com.plusone.PlusOneBackend.dto.UserProfileDto;
+import com.plusone.PlusOneBackend.dto.UserCardDto;
 import com.plusone.PlusOneBackend.model.Connection;
 import com.plusone.PlusOneBackend.model.ConnectionRequest;
 import com.plusone.PlusOneBackend.model.User;
@@ -10,11 +11,21 @@ import com.plusone.PlusOneBackend.repository.ConnectionRepository;
 import com.plusone.PlusOneBackend.repository.ConnectionRequestRepository;
 import com.plusone.PlusOneBackend.repository.UserRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 
+import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
@@ -32,19 +43,96 @@ public class ConnectionService {
     @Autowired
     private EmailService emailService;
 
+    @Autowired
+    private RecentSignupRing recentSignupRing;
+
+    @Autowired
+    private ConnectionGraph connectionGraph;
+
+    @Autowired
+    private PeopleYouMayKnowService peopleYouMayKnowService;
+
+    @Autowired
+    private ProfileResponseCache profileResponseCache;
+
+    private static final int RECENT_USERS_LIMIT = 3;
+    private static final int MAX_STATUS_BATCH_SIZE = 500;
+
     /**
-     * Retrieves 3 users from recent signups; arbitrary for now
+     * Retrieves the 3 newest signups, excluding the current user.
+     * Ids come from the in-memory ring; only those few users are loaded (by _id, card fields only).
      */
-    public List<UserProfileDto> getRecentUsers(String currentUserId) {
-        List<User> users = userRepository.findAll()
+    public List<UserCardDto> getRecentUsers(String currentUserId) {
+        if (!recentSignupRing.isSeeded()) {
+            seedRecentSignupRing();
+        }
+
+        List<String> recentIds = recentSignupRing.newestFirst()
             .stream()
-            .filter(user -> !user.getId().equals(currentUserId)) // Exclude current user
-            .sorted((u1, u2) -> u2.getCreatedAt().compareTo(u1.getCreatedAt())) // (arbitrary decision)
-            .limit(3)
+            .filter(id -> !id.equals(currentUserId)) // Exclude current user
+            .limit(RECENT_USERS_LIMIT)
             .collect(Collectors.toList());
 
+        Map<String, User> usersById = userRepository.findCardsByIdIn(recentIds)
+            .stream()
+            .collect(Collectors.toMap(User::getId, Function.identity()));
+
+        List<User> users = recentIds.stream()
+            .map(usersById::get)
+            .filter(Objects::nonNull)
+            .collect(Collectors.toList());
+
+        // Ring is short (tiny database, deleted users): fall back to the createdAt index
+        if (users.size() < RECENT_USERS_LIMIT) {
+            users = findRecentUsersFromIndex(RECENT_USERS_LIMIT + 1)
+                .stream()
+                .filter(user -> !user.getId().equals(currentUserId))
+                .limit(RECENT_USERS_LIMIT)
+                .collect(Collectors.toList());
+        }
+
         return users.stream()
-            .map(this::convertToUserProfileDto)
+            .map(UserCardDto::from)
+            .collect(Collectors.toList());
+    }
+
+    private void seedRecentSignupRing() {
+        List<String> newestIds = findRecentUsersFromIndex(RecentSignupRing.CAPACITY)
+            .stream()
+            .map(User::getId)
+            .collect(Collectors.toList());
+        recentSignupRing.seed(newestIds);
+    }
+
+    private List<User> findRecentUsersFromIndex(int limit) {
+        return userRepository.findRecentUserCards(PageRequest.of(0, limit, Sort.by(Sort.Direction.DESC, "createdAt")));
+    }
+
+    /**
+     * "People you may know" for the homepage: second-degree connections ranked by mutual
+     * connections and shared interests, without anyone the user already has a pending request with.
+     * Falls back to recent signups when the user has no second-degree network yet.
+     */
+    public List<UserCardDto> getSuggestedUsers(String userId, int limit) {
+        List<String> candidateIds = peopleYouMayKnowService.suggestionsFor(userId, limit * 2);
+        if (candidateIds.isEmpty()) {
+            return getRecentUsers(userId);
+        }
+
+        Map<String, String> statuses = getConnectionStatuses(userId, candidateIds);
+        List<String> suggestedIds = candidateIds.stream()
+            .filter(id -> "CONNECT".equals(statuses.get(id)))
+            .limit(limit)
+            .collect(Collectors.toList());
+
+        Map<String, User> usersById = userRepository.findCardsByIdIn(suggestedIds)
+            .stream()
+            .collect(Collectors.toMap(User::getId, Function.identity()));
+
+        return suggestedIds.stream()
+            .map(usersById::get)
+            .filter(Objects::nonNull)
+            .map(UserCardDto::from)
             .collect(Collectors.toList());
     }
 
@@ -60,16 +148,17 @@ public class ConnectionService {
             throw new RuntimeException("User not found");
         }
 
-        // Check if users are already connected
-        if (areUsersConnected(fromUserId, request.getToUserId())) {
+        // Check if users are already connected. The graph is per instance and may not have
+        // seen an edge another instance just wrote, so only its "connected" is final and a
+        // "not connected" is confirmed on the pair key index.
+        String pairKey = Connection.pairKeyOf(fromUserId, request.getToUserId());
+        boolean connected = connectionGraph.isLoaded() && connectionGraph.areConnected(fromUserId, request.getToUserId());
+        if (connected || connectionRepository.existsByPairKey(pairKey)) {
             throw new RuntimeException("Users are already connected");
         }
 
-        // Check if there's already a pending request
-        Optional<ConnectionRequest> existingRequest = connectionRequestRepository
-            .findByFromUserIdAndToUserId(fromUserId, request.getToUserId());
-        
-        if (existingRequest.isPresent() && "PENDING".equals(existingRequest.get().getStatus())) {
+        // Check if there's already a pending request (in either direction)
+        if (findPendingRequest(pairKey).isPresent()) {
             throw new RuntimeException("Connection request already pending");
         }
 
@@ -79,9 +168,17 @@ public class ConnectionService {
             .toUserId(request.getToUserId())
             .message(request.getMessage())
             .status("PENDING")
+            .pairKey(pairKey)
             .build();
 
-        ConnectionRequest savedRequest = connectionRequestRepository.save(connectionRequest);
+        ConnectionRequest savedRequest;
+        try {
+            savedRequest = connectionRequestRepository.save(connectionRequest);
+        } catch (DuplicateKeyException e) {
+            // Lost a race against a concurrent request for the same pair
+            throw new RuntimeException("Connection request already pending");
+        }
+        adjustCounter(request.getToUserId(), () -> userRepository.incrementNumRequests(request.getToUserId(), 1));
 
         // Send email notification to the recipient
         emailService.sendConnectionRequestNotification(
@@ -115,18 +212,31 @@ public class ConnectionService {
             throw new RuntimeException("Request is not pending");
         }
 
-        // Update request status
+        // Update request status (only if nobody resolved it in the meantime)
+        LocalDateTime now = LocalDateTime.now();
+        if (connectionRequestRepository.resolvePendingRequest(requestId, "ACCEPTED", now) == 0) {
+            throw new RuntimeException("Request is not pending");
+        }
         request.setStatus("ACCEPTED");
-        ConnectionRequest savedRequest = connectionRequestRepository.save(request);
+        request.setUpdatedAt(now);
+        adjustCounter(request.getToUserId(), () -> userRepository.incrementNumRequests(request.getToUserId(), -1));
 
         // Create connection
         Connection connection = Connection.builder()
             .user1Id(request.getFromUserId())
             .user2Id(request.getToUserId())
             .connectionRequestId(requestId)
+            .pairKey(Connection.pairKeyOf(request.getFromUserId(), request.getToUserId()))
             .build();
         
-        connectionRepository.save(connection);
+        try {
+            connectionRepository.save(connection);
+            adjustCounter(request.getFromUserId(), () -> userRepository.incrementNumConnections(request.getFromUserId(), 1));
+            adjustCounter(request.getToUserId(), () -> userRepository.incrementNumConnections(request.getToUserId(), 1));
+        } catch (DuplicateKeyException e) {
+            // Users were already connected; the unique pair key kept us from storing a second edge
+        }
+        connectionGraph.addEdge(request.getFromUserId(), request.getToUserId());
 
         // Send email notification to the requester of connection acceptance
         Optional<User> fromUser = userRepository.findById(request.getFromUserId());
@@ -140,14 +250,26 @@ public class ConnectionService {
             );
         }
 
-        return convertToConnectionRequestDto(savedRequest);
+        return convertToConnectionRequestDto(request);
     }
 
     /**
-     * Check if two users are connected
+     * Check if two users are connected. As in createConnectionRequest, only the graph's
+     * "connected" is final: an accept handled by another instance reaches this graph at
+     * its next reload, so "not connected" is confirmed on the pair key index.
      */
     public boolean areUsersConnected(String userId1, String userId2) {
-        return connectionRepository.findConnectionBetweenUsers(userId1, userId2).isPresent();
+        if (connectionGraph.isLoaded() && connectionGraph.areConnected(userId1, userId2)) {
+            return true;
+        }
+        return connectionRepository.existsByPairKey(Connection.pairKeyOf(userId1, userId2));
+    }
+
+    /**
+     * Size and memory footprint of the in-memory connection graph
+     */
+    public ConnectionGraphStats getConnectionGraphStats() {
+        return connectionGraph.stats();
     }
 
     /**
@@ -159,17 +281,69 @@ public class ConnectionService {
             return "FRIENDS";
         }
 
-        // Check if there's a pending request
-        Optional<ConnectionRequest> request = connectionRequestRepository
-            .findByFromUserIdAndToUserId(fromUserId, toUserId);
-        
-        if (request.isPresent() && "PENDING".equals(request.get().getStatus())) {
+        // Check if there's a pending request (in either direction)
+        if (findPendingRequest(Connection.pairKeyOf(fromUserId, toUserId)).isPresent()) {
             return "PENDING";
         }
 
         return "CONNECT";
     }
 
+    /**
+     * Connection status between one user and many others ("FRIENDS", "PENDING" or "CONNECT"),
+     * keyed by target id in request order. Uses at most two $in queries for the whole list:
+     * targets the graph does not show as friends are confirmed on the pair key index, as in
+     * {@link #areUsersConnected}, then checked for pending requests.
+     */
+    public Map<String, String> getConnectionStatuses(String fromUserId, List<String> toUserIds) {
+        if (toUserIds.size() > MAX_STATUS_BATCH_SIZE) {
+            throw new IllegalArgumentException("At most " + MAX_STATUS_BATCH_SIZE + " users per status request");
+        }
+
+        Map<String, String> pairKeyToTarget = new LinkedHashMap<>();
+        for (String toUserId : toUserIds) {
+            pairKeyToTarget.put(Connection.pairKeyOf(fromUserId, toUserId), toUserId);
+        }
+
+        Set<String> friends = new HashSet<>();
+        if (connectionGraph.isLoaded()) {
+            for (String toUserId : pairKeyToTarget.values()) {
+                if (connectionGraph.areConnected(fromUserId, toUserId)) {
+                    friends.add(toUserId);
+                }
+            }
+        }
+        List<String> unconfirmedPairKeys = pairKeyToTarget.entrySet().stream()
+            .filter(entry -> !friends.contains(entry.getValue()))
+            .map(Map.Entry::getKey)
+            .collect(Collectors.toList());
+        if (!unconfirmedPairKeys.isEmpty()) {
+            connectionRepository.findByPairKeyIn(unconfirmedPairKeys)
+                .forEach(connection -> friends.add(pairKeyToTarget.get(connection.getPairKey())));
+        }
+
+        Set<String> pending = new HashSet<>();
+        List<String> unresolvedPairKeys = pairKeyToTarget.entrySet().stream()
+            .filter(entry -> !friends.contains(entry.getValue()))
+            .map(Map.Entry::getKey)
+            .collect(Collectors.toList());
+        if (!unresolvedPairKeys.isEmpty()) {
+            connectionRequestRepository.findByPairKeyInAndStatus(unresolvedPairKeys, "PENDING")
+                .forEach(request -> pending.add(pairKeyToTarget.get(request.getPairKey())));
+        }
+
+        Map<String, String> statuses = new LinkedHashMap<>();
+        for (String toUserId : toUserIds) {
+            statuses.put(toUserId,
+                friends.contains(toUserId) ? "FRIENDS" : pending.contains(toUserId) ? "PENDING" : "CONNECT");
+        }
+        return statuses;
+    }
+
+    private Optional<ConnectionRequest> findPendingRequest(String pairKey) {
+        return connectionRequestRepository.findByPairKeyAndStatus(pairKey, "PENDING");
+    }
+
     /**
      * Get pending connection requests for a user
      */
@@ -203,22 +377,30 @@ public class ConnectionService {
             throw new RuntimeException("Request is not pending");
         }
 
-        // Update request status
+        // Update request status (only if nobody resolved it in the meantime)
+        LocalDateTime now = LocalDateTime.now();
+        if (connectionRequestRepository.resolvePendingRequest(requestId, "REJECTED", now) == 0) {
+            throw new RuntimeException("Request is not pending");
+        }
         request.setStatus("REJECTED");
-        ConnectionRequest savedRequest = connectionRequestRepository.save(request);
+        request.setUpdatedAt(now);
+        adjustCounter(request.getToUserId(), () -> userRepository.incrementNumRequests(request.getToUserId(), -1));
 
-        return convertToConnectionRequestDto(savedRequest);
+        return convertToConnectionRequestDto(request);
     }
 
-    private UserProfileDto convertToUserProfileDto(User user) {
-        return UserProfileDto.builder()
-            .userId(user.getId())
-            .firstName(user.getFirstName())
-            .lastName(user.getLastName())
-            .email(user.getEmail())
-            .profile(user.getProfile())
-            .createdAt(user.getCreatedAt().format(DateTimeFormatter.ISO_LOCAL_DATE_TIME))
-            .build();
+    /**
+     * Apply a $inc to a profile counter and drop the user's cached profile. A failure
+     * must not fail the request; ProfileCounterReconciler repairs any drift.
+     */
+    private void adjustCounter(String userId, Runnable increment) {
+        try {
+            increment.run();
+        } catch (Exception e) {
+            System.err.println("Failed to update profile counter: " + e.getMessage());
+        } finally {
+            profileResponseCache.invalidate(userId);
+        }
     }
 
     private ConnectionRequestDto convertToConnectionRequestDto(ConnectionRequest request) {
@@ -0,0 +1,204 @@
+package com.plusone.PlusOneBackend.service;
+
+import com.plusone.PlusOneBackend.model.EmailOutboxMessage;
+import jakarta.mail.internet.MimeMessage;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.mail.MailException;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.mail.javamail.MimeMessageHelper;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Drains the email outbox in the background. Each poll claims due messages with an
+ * atomic findAndModify (so several instances can share the outbox), sends them in
+ * batches over one SMTP connection per batch on the worker pool, then marks them
+ * SENT, reschedules them with exponential backoff, or dead-letters them after
+ * too many attempts.
+ *
+ * Without SMTP settings (spring.mail.host) there is no JavaMailSender; messages then
+ * stay PENDING until the backend is started with a mail server configured.
+ */
+@Component
+public class EmailOutboxWorker {
+
+    private final MongoTemplate mongoTemplate;
+    private final JavaMailSender mailSender;  // null when no SMTP server is configured
+    private final Executor executor;
+    private final int batchSize;
+    private final int workers;
+    private final int maxAttempts;
+    private final Duration baseBackoff;
+    private final Duration maxBackoff;
+    private final Duration lease;
+
+    public EmailOutboxWorker(
+            MongoTemplate mongoTemplate,
+            ObjectProvider<JavaMailSender> mailSender,
+            @Qualifier("emailOutboxExecutor") Executor executor,
+            @Value("${plusone.mail.outbox.batch-size:20}") int batchSize,
+            @Value("${plusone.mail.outbox.workers:4}") int workers,
+            @Value("${plusone.mail.outbox.max-attempts:6}") int maxAttempts,
+            @Value("${plusone.mail.outbox.base-backoff:30s}") Duration baseBackoff,
+            @Value("${plusone.mail.outbox.max-backoff:1h}") Duration maxBackoff,
+            @Value("${plusone.mail.outbox.lease:5m}") Duration lease) {
+        this.mongoTemplate = mongoTemplate;
+        this.mailSender = mailSender.getIfAvailable();
+        this.executor = executor;
+        this.batchSize = batchSize;
+        this.workers = workers;
+        this.maxAttempts = maxAttempts;
+        this.baseBackoff = baseBackoff;
+        this.maxBackoff = maxBackoff;
+        this.lease = lease;
+    }
+
+    /**
+     * Claim due messages and deliver them on the worker pool; waits for the batches so
+     * polls never pile up on each other.
+     */
+    @Scheduled(fixedDelayString = "${plusone.mail.outbox.poll-interval-ms:2000}")
+    public void drain() {
+        if (mailSender == null) {
+            return;
+        }
+        try {
+            List<EmailOutboxMessage> claimed = claimDueMessages(batchSize * workers);
+            if (claimed.isEmpty()) {
+                return;
+            }
+
+            List<CompletableFuture<Void>> batches = new ArrayList<>();
+            for (int from = 0; from < claimed.size(); from += batchSize) {
+                List<EmailOutboxMessage> batch = claimed.subList(from, Math.min(from + batchSize, claimed.size()));
+                batches.add(CompletableFuture.runAsync(() -> recordOutcome(batch, deliver(batch)), executor));
+            }
+            CompletableFuture.allOf(batches.toArray(new CompletableFuture[0])).join();
+        } catch (Exception e) {
+            System.err.println("Email outbox drain failed: " + e.getMessage());
+        }
+    }
+
+    private List<EmailOutboxMessage> claimDueMessages(int limit) {
+        LocalDateTime now = LocalDateTime.now();
+        Query due = new Query(new Criteria().orOperator(
+                Criteria.where("status").is("PENDING").and("nextAttemptAt").lte(now),
+                Criteria.where("status").is("SENDING").and("lockedUntil").lt(now) // worker died mid-send
+            ))
+            .with(Sort.by(Sort.Direction.ASC, "nextAttemptAt"));
+        Update claim = new Update()
+            .set("status", "SENDING")
+            .set("lockedUntil", now.plus(lease))
+            .inc("attempts", 1);
+
+        List<EmailOutboxMessage> claimed = new ArrayList<>();
+        while (claimed.size() < limit) {
+            EmailOutboxMessage message = mongoTemplate.findAndModify(
+                due, claim, FindAndModifyOptions.options().returnNew(true), EmailOutboxMessage.class);
+            if (message == null) {
+                break;
+            }
+            claimed.add(message);
+        }
+        return claimed;
+    }
+
+    /**
+     * Send one batch over a single SMTP connection. Returns the error message for every
+     * message that failed, keyed by outbox id; messages not in the map were sent.
+     */
+    Map<String, String> deliver(List<EmailOutboxMessage> batch) {
+        Map<MimeMessage, EmailOutboxMessage> byMimeMessage = new IdentityHashMap<>();
+        Map<String, String> failures = new HashMap<>();
+
+        for (EmailOutboxMessage message : batch) {
+            try {
+                MimeMessage mimeMessage = mailSender.createMimeMessage();
+                MimeMessageHelper helper = new MimeMessageHelper(mimeMessage, "UTF-8");
+                helper.setTo(message.getRecipient());
+                helper.setSubject(message.getSubject());
+                helper.setText(message.getBody());
+                byMimeMessage.put(mimeMessage, message);
+            } catch (Exception e) {
+                failures.put(message.getId(), "Invalid message: " + e.getMessage());
+            }
+        }
+        if (byMimeMessage.isEmpty()) {
+            return failures;
+        }
+
+        try {
+            mailSender.send(byMimeMessage.keySet().toArray(new MimeMessage[0]));
+        } catch (MailSendException e) {
+            Map<Object, Exception> failedMessages = e.getFailedMessages();
+            if (failedMessages.isEmpty()) {
+                byMimeMessage.values().forEach(message -> failures.put(message.getId(), e.getMessage()));
+            }
+            failedMessages.forEach((mimeMessage, cause) -> {
+                EmailOutboxMessage message = byMimeMessage.get(mimeMessage);
+                if (message != null) {
+                    failures.put(message.getId(), cause.getMessage());
+                }
+            });
+        } catch (MailException e) {
+            byMimeMessage.values().forEach(message -> failures.put(message.getId(), e.getMessage()));
+        }
+        return failures;
+    }
+
+    private void recordOutcome(List<EmailOutboxMessage> batch, Map<String, String> failures) {
+        LocalDateTime now = LocalDateTime.now();
+        BulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, EmailOutboxMessage.class);
+
+        for (EmailOutboxMessage message : batch) {
+            Query byId = new Query(Criteria.where("_id").is(message.getId()));
+            String error = failures.get(message.getId());
+            Update update = new Update().unset("lockedUntil");
+
+            if (error == null) {
+                update.set("status", "SENT").set("sentAt", now).unset("lastError");
+            } else if (message.getAttempts() >= maxAttempts) {
+                update.set("status", "DEAD").set("lastError", error);
+                System.err.println("Email to " + message.getRecipient() + " dead-lettered after "
+                    + message.getAttempts() + " attempts: " + error);
+            } else {
+                update.set("status", "PENDING")
+                    .set("lastError", error)
+                    .set("nextAttemptAt", now.plus(backoffFor(message.getAttempts())));
+            }
+            bulk.updateOne(byId, update);
+        }
+        bulk.execute();
+    }
+
+    /**
+     * Exponential backoff with +/-20% jitter: base, 2x base, 4x base, ... capped at max.
+     */
+    Duration backoffFor(int attempts) {
+        int doublings = Math.max(0, Math.min(attempts - 1, 20));
+        long millis = Math.min(baseBackoff.toMillis() << doublings, maxBackoff.toMillis());
+        double jitter = 0.8 + ThreadLocalRandom.current().nextDouble() * 0.4;
+        return Duration.ofMillis((long) (millis * jitter));
+    }
+}
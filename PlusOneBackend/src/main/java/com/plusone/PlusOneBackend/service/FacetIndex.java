@@ -0,0 +1,247 @@
+package com.plusone.PlusOneBackend.service;
+
+import com.plusone.PlusOneBackend.dto.FacetCount;
+import com.plusone.PlusOneBackend.dto.SearchFacets;
+import com.plusone.PlusOneBackend.dto.SearchFilters;
+import com.plusone.PlusOneBackend.model.Profile;
+import com.plusone.PlusOneBackend.model.User;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Facet values (interest, company, city) per user, for counting and filtering search
+ * results without a $group per request.
+ *
+ * Each facet keeps a dictionary of normalized values, a count table of users per value
+ * and each user's value ids, all updated incrementally as users are indexed. Counting a
+ * result set is one pass over the matching users incrementing int[] slots; filtering
+ * is a lookup in the user's value ids. The count tables alone answer the unfiltered
+ * "everyone" facets.
+ */
+@Component
+public class FacetIndex implements UserIndexer {
+
+    private static final int[] NONE = new int[0];
+
+    enum Facet {
+        INTEREST,
+        COMPANY,
+        CITY
+    }
+
+    private static final Facet[] FACETS = Facet.values();
+
+    @Autowired
+    private UserIdDictionary userIdDictionary;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    // Guarded by lock
+    private final Values[] values = new Values[FACETS.length];
+    private int[][][] valuesByUser = new int[FACETS.length][0][];   // [facet][dense user] -> sorted value ids
+
+    /**
+     * Distinct values of one facet and how many users have each.
+     */
+    private static final class Values {
+        final Map<String, Integer> ids = new HashMap<>();
+        final List<String> displayNames = new ArrayList<>();
+        int[] counts = new int[16];
+
+        int idFor(String normalized, String displayName) {
+            Integer existing = ids.get(normalized);
+            if (existing != null) {
+                return existing;
+            }
+            int id = displayNames.size();
+            ids.put(normalized, id);
+            displayNames.add(displayName.trim().replaceAll("\\s+", " "));
+            if (id == counts.length) {
+                counts = Arrays.copyOf(counts, id + (id >> 1));
+            }
+            return id;
+        }
+    }
+
+    public FacetIndex() {
+        Arrays.setAll(values, i -> new Values());
+    }
+
+    @Override
+    public void clear() {
+        lock.writeLock().lock();
+        try {
+            Arrays.setAll(values, i -> new Values());
+            valuesByUser = new int[FACETS.length][0][];
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void index(User user) {
+        int denseId = userIdDictionary.idFor(user.getId());
+        Profile profile = user.getProfile();
+        List<List<String>> raw = List.of(
+            user.getInterests(),
+            profile != null && profile.getJob() != null ? single(profile.getJob().getCompaniesName()) : List.of(),
+            profile != null && profile.getLocation() != null ? single(profile.getLocation().getCity()) : List.of());
+
+        lock.writeLock().lock();
+        try {
+            for (Facet facet : FACETS) {
+                Values facetValues = values[facet.ordinal()];
+                int[] ids = raw.get(facet.ordinal()).stream()
+                    .filter(value -> value != null && !InterestNormalizer.normalize(value).isEmpty())
+                    .mapToInt(value -> facetValues.idFor(InterestNormalizer.normalize(value), value))
+                    .distinct()
+                    .sorted()
+                    .toArray();
+
+                int[][] byUser = valuesByUser[facet.ordinal()];
+                if (denseId >= byUser.length) {
+                    byUser = Arrays.copyOf(byUser, Math.max(denseId + 1, byUser.length + (byUser.length >> 1) + 16));
+                    valuesByUser[facet.ordinal()] = byUser;
+                }
+                for (int id : byUser[denseId] != null ? byUser[denseId] : NONE) {
+                    facetValues.counts[id]--;
+                }
+                for (int id : ids) {
+                    facetValues.counts[id]++;
+                }
+                byUser[denseId] = ids;
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Clear every user in the set that does not have all of the filter values.
+     */
+    public void retainMatching(BitSet users, SearchFilters filters) {
+        if (filters == null) {
+            return;
+        }
+        lock.readLock().lock();
+        try {
+            retain(users, Facet.INTEREST, filters.getInterest());
+            retain(users, Facet.COMPANY, filters.getCompany());
+            retain(users, Facet.CITY, filters.getCity());
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * The top values of each facet among the given users.
+     */
+    public SearchFacets count(BitSet users, int topValues) {
+        lock.readLock().lock();
+        try {
+            int[][] tallies = new int[FACETS.length][];
+            for (Facet facet : FACETS) {
+                tallies[facet.ordinal()] = new int[values[facet.ordinal()].displayNames.size()];
+            }
+            for (int user = users.nextSetBit(0); user >= 0; user = users.nextSetBit(user + 1)) {
+                for (Facet facet : FACETS) {
+                    int[][] byUser = valuesByUser[facet.ordinal()];
+                    if (user < byUser.length && byUser[user] != null) {
+                        for (int id : byUser[user]) {
+                            tallies[facet.ordinal()][id]++;
+                        }
+                    }
+                }
+            }
+            return facets(users.cardinality(), tallies, topValues);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * The top values of each facet across all users, straight from the count tables.
+     */
+    public SearchFacets countAll(int topValues) {
+        lock.readLock().lock();
+        try {
+            int[][] tallies = new int[FACETS.length][];
+            for (Facet facet : FACETS) {
+                Values facetValues = values[facet.ordinal()];
+                tallies[facet.ordinal()] = Arrays.copyOf(facetValues.counts, facetValues.displayNames.size());
+            }
+            int indexedUsers = 0;
+            for (int[] userValues : valuesByUser[Facet.INTEREST.ordinal()]) {
+                if (userValues != null) {
+                    indexedUsers++;
+                }
+            }
+            return facets(indexedUsers, tallies, topValues);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // ---- internals (callers hold a lock) ----
+
+    private void retain(BitSet users, Facet facet, String value) {
+        String normalized = InterestNormalizer.normalize(value);
+        if (normalized.isEmpty()) {
+            return;
+        }
+        Integer id = values[facet.ordinal()].ids.get(normalized);
+        if (id == null) {
+            users.clear();
+            return;
+        }
+        int[][] byUser = valuesByUser[facet.ordinal()];
+        for (int user = users.nextSetBit(0); user >= 0; user = users.nextSetBit(user + 1)) {
+            if (user >= byUser.length || byUser[user] == null || Arrays.binarySearch(byUser[user], id) < 0) {
+                users.clear(user);
+            }
+        }
+    }
+
+    private SearchFacets facets(int totalUsers, int[][] tallies, int topValues) {
+        return SearchFacets.builder()
+            .totalUsers(totalUsers)
+            .interests(top(Facet.INTEREST, tallies[Facet.INTEREST.ordinal()], topValues))
+            .companies(top(Facet.COMPANY, tallies[Facet.COMPANY.ordinal()], topValues))
+            .cities(top(Facet.CITY, tallies[Facet.CITY.ordinal()], topValues))
+            .build();
+    }
+
+    private List<FacetCount> top(Facet facet, int[] tally, int limit) {
+        // Min-heap of (count << 32 | value id); the weakest of the current top values is on top
+        PriorityQueue<Long> best = new PriorityQueue<>(limit + 1);
+        for (int id = 0; id < tally.length; id++) {
+            if (tally[id] > 0) {
+                best.add((long) tally[id] << 32 | (0xFFFFFFFFL - id));  // equal counts: earlier value wins
+                if (best.size() > limit) {
+                    best.poll();
+                }
+            }
+        }
+        FacetCount[] result = new FacetCount[best.size()];
+        List<String> displayNames = values[facet.ordinal()].displayNames;
+        for (int i = result.length - 1; i >= 0; i--) {
+            long entry = best.poll();
+            int id = (int) (0xFFFFFFFFL - (entry & 0xFFFFFFFFL));
+            result[i] = new FacetCount(displayNames.get(id), (int) (entry >>> 32));
+        }
+        return Arrays.asList(result);
+    }
+
+    private static List<String> single(String value) {
+        return value != null ? List.of(value) : List.of();
+    }
+}
@@ -0,0 +1,154 @@
+package com.plusone.PlusOneBackend.service;
+
+import java.util.Arrays;
+
+/**
+ * Minimal open-addressing map from non-negative int keys to int values, used by the
+ * in-memory indexes to avoid boxing. Not thread-safe.
+ */
+class IntIntHashMap {
+
+    private static final int EMPTY = -1;
+
+    private int[] keys;
+    private int[] values;
+    private int size = 0;
+
+    IntIntHashMap() {
+        this(8);
+    }
+
+    IntIntHashMap(int expectedSize) {
+        int capacity = Integer.highestOneBit(Math.max(4, expectedSize * 2 - 1)) << 1;
+        keys = new int[capacity];
+        values = new int[capacity];
+        Arrays.fill(keys, EMPTY);
+    }
+
+    int size() {
+        return size;
+    }
+
+    int get(int key) {
+        int slot = find(key);
+        return keys[slot] == key ? values[slot] : 0;
+    }
+
+    /**
+     * Add delta to the value for key (missing keys count as 0); entries reaching 0 are removed.
+     */
+    int addTo(int key, int delta) {
+        int slot = find(key);
+        if (keys[slot] == key) {
+            int value = values[slot] + delta;
+            if (value == 0) {
+                removeSlot(slot);
+            } else {
+                values[slot] = value;
+            }
+            return value;
+        }
+        if (delta == 0) {
+            return 0;
+        }
+        keys[slot] = key;
+        values[slot] = delta;
+        if (++size * 4 > keys.length * 3) {
+            rehash(keys.length << 1);
+        }
+        return delta;
+    }
+
+    void remove(int key) {
+        int slot = find(key);
+        if (keys[slot] == key) {
+            removeSlot(slot);
+        }
+    }
+
+    interface Visitor {
+        void visit(int key, int value);
+    }
+
+    void forEach(Visitor visitor) {
+        for (int i = 0; i < keys.length; i++) {
+            if (keys[i] != EMPTY) {
+                visitor.visit(keys[i], values[i]);
+            }
+        }
+    }
+
+    /**
+     * Whether both maps hold the same entries; null counts as empty.
+     */
+    static boolean sameEntries(IntIntHashMap a, IntIntHashMap b) {
+        int sizeA = a == null ? 0 : a.size;
+        int sizeB = b == null ? 0 : b.size;
+        if (sizeA != sizeB) {
+            return false;
+        }
+        if (sizeA == 0) {
+            return true;
+        }
+        for (int i = 0; i < a.keys.length; i++) {
+            if (a.keys[i] != EMPTY && b.get(a.keys[i]) != a.values[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Approximate heap footprint in bytes.
+     */
+    long estimatedBytes() {
+        return 32 + 2L * (16 + 4L * keys.length);
+    }
+
+    private int find(int key) {
+        int mask = keys.length - 1;
+        int slot = mix(key) & mask;
+        while (keys[slot] != EMPTY && keys[slot] != key) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    // Backward-shift deletion keeps probe sequences intact without tombstones
+    private void removeSlot(int slot) {
+        int mask = keys.length - 1;
+        int gap = slot;
+        int next = (gap + 1) & mask;
+        while (keys[next] != EMPTY) {
+            int home = mix(keys[next]) & mask;
+            if (((next - home) & mask) >= ((next - gap) & mask)) {
+                keys[gap] = keys[next];
+                values[gap] = values[next];
+                gap = next;
+            }
+            next = (next + 1) & mask;
+        }
+        keys[gap] = EMPTY;
+        size--;
+    }
+
+    private void rehash(int capacity) {
+        int[] oldKeys = keys;
+        int[] oldValues = values;
+        keys = new int[capacity];
+        values = new int[capacity];
+        Arrays.fill(keys, EMPTY);
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] != EMPTY) {
+                int slot = find(oldKeys[i]);
+                keys[slot] = oldKeys[i];
+                values[slot] = oldValues[i];
+            }
+        }
+    }
+
+    private static int mix(int key) {
+        int h = key * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+}
@@ -0,0 +1,219 @@
+package com.plusone.PlusOneBackend.service;
+
+import com.plusone.PlusOneBackend.dto.InterestSuggestion;
+import com.plusone.PlusOneBackend.model.User;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Inverted index from normalized interests to the users who have them. Each distinct
+ * interest (a "term") has a sorted int[] posting list of dense user ids from
+ * {@link UserIdDictionary}.
+ *
+ * A query is matched against the vocabulary of distinct interests, which is small next
+ * to the number of users (a few thousand terms at most), so queries like "hik" or
+ * "learning" cost a scan of the vocabulary plus a pass over the matching posting lists,
+ * never a scan of the users collection. A query matches an interest when some word of
+ * it starts with the query ({@link InterestNormalizer#matchesWordPrefix}), the same as
+ * the indexed MongoDB search over word tails that stands in while this index loads. An {@link InterestTrie}
+ * over the same vocabulary, weighted by posting list size, answers autocomplete.
+ */
+@Component
+public class InterestIndex implements UserIndexer {
+
+    private static final int[] EMPTY = new int[0];
+
+    @Autowired
+    private UserIdDictionary userIdDictionary;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    // Guarded by lock
+    private final Map<String, Integer> termIds = new HashMap<>();
+    private final List<String> terms = new ArrayList<>();
+    private final List<String> displayNames = new ArrayList<>();  // first spelling seen, e.g. "Machine Learning"
+    private InterestTrie trie = new InterestTrie();
+    private int[][] postings = new int[0][];
+    private int[] postingSizes = new int[0];
+    private int[][] termsByUser = new int[0][];   // so a re-index can remove the old postings
+
+    @Override
+    public void clear() {
+        lock.writeLock().lock();
+        try {
+            termIds.clear();
+            terms.clear();
+            displayNames.clear();
+            trie = new InterestTrie();
+            postings = new int[0][];
+            postingSizes = new int[0];
+            termsByUser = new int[0][];
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void index(User user) {
+        int denseId = userIdDictionary.idFor(user.getId());
+        List<String> interests = user.getInterests() != null ? user.getInterests() : List.of();
+
+        lock.writeLock().lock();
+        try {
+            int[] newTerms = new int[interests.size()];
+            int termCount = 0;
+            for (String interest : interests) {
+                String normalized = InterestNormalizer.normalize(interest);
+                if (!normalized.isEmpty()) {
+                    newTerms[termCount++] = termIdFor(normalized, interest);
+                }
+            }
+            newTerms = Arrays.stream(newTerms, 0, termCount).distinct().toArray();
+            Arrays.sort(newTerms);
+
+            int[] oldTerms = denseId < termsByUser.length && termsByUser[denseId] != null ? termsByUser[denseId] : EMPTY;
+            if (Arrays.equals(oldTerms, newTerms)) {
+                return;
+            }
+            for (int term : oldTerms) {
+                if (Arrays.binarySearch(newTerms, term) < 0) {
+                    removePosting(term, denseId);
+                }
+            }
+            for (int term : newTerms) {
+                if (Arrays.binarySearch(oldTerms, term) < 0) {
+                    addPosting(term, denseId);
+                }
+            }
+
+            if (denseId >= termsByUser.length) {
+                termsByUser = Arrays.copyOf(termsByUser, Math.max(denseId + 1, termsByUser.length + (termsByUser.length >> 1) + 16));
+            }
+            termsByUser[denseId] = newTerms;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Dense ids of every user with an interest that has a word starting with the query
+     * (case-insensitive), so "learn" finds "Machine Learning": the union of the matching
+     * posting lists.
+     */
+    public BitSet matching(String query) {
+        String needle = InterestNormalizer.normalize(query);
+        BitSet users = new BitSet();
+        if (needle.isEmpty()) {
+            return users;
+        }
+
+        lock.readLock().lock();
+        try {
+            for (int term = 0; term < terms.size(); term++) {
+                if (postingSizes[term] > 0 && InterestNormalizer.matchesWordPrefix(terms.get(term), needle)) {
+                    int[] list = postings[term];
+                    for (int i = 0; i < postingSizes[term]; i++) {
+                        users.set(list[i]);
+                    }
+                }
+            }
+            return users;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Up to limit interests starting with the prefix (case-insensitive), held by the most
+     * users first. A blank prefix gives the most popular interests overall.
+     */
+    public List<InterestSuggestion> suggest(String prefix, int limit) {
+        String normalized = InterestNormalizer.normalize(prefix);
+        lock.readLock().lock();
+        try {
+            List<InterestSuggestion> suggestions = new ArrayList<>();
+            for (int term : trie.topTerms(normalized, limit)) {
+                suggestions.add(new InterestSuggestion(displayNames.get(term), postingSizes[term]));
+            }
+            return suggestions;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Number of distinct interests that currently have at least one user.
+     */
+    public int vocabularySize() {
+        lock.readLock().lock();
+        try {
+            int count = 0;
+            for (int term = 0; term < terms.size(); term++) {
+                if (postingSizes[term] > 0) {
+                    count++;
+                }
+            }
+            return count;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // ---- internals (callers hold the write lock unless noted) ----
+
+    private int termIdFor(String interest, String displayName) {
+        Integer existing = termIds.get(interest);
+        if (existing != null) {
+            return existing;
+        }
+        int term = terms.size();
+        terms.add(interest);
+        displayNames.add(displayName.trim().replaceAll("\\s+", " "));
+        termIds.put(interest, term);
+        if (term == postings.length) {
+            int length = term + (term >> 1) + 16;
+            postings = Arrays.copyOf(postings, length);
+            postingSizes = Arrays.copyOf(postingSizes, length);
+        }
+        postings[term] = EMPTY;
+        return term;
+    }
+
+    private void addPosting(int term, int denseId) {
+        int[] list = postings[term];
+        int size = postingSizes[term];
+        int pos = Arrays.binarySearch(list, 0, size, denseId);
+        if (pos >= 0) {
+            return;
+        }
+        pos = -pos - 1;
+        if (size == list.length) {
+            list = Arrays.copyOf(list, Math.max(4, size + (size >> 1)));
+            postings[term] = list;
+        }
+        System.arraycopy(list, pos, list, pos + 1, size - pos);
+        list[pos] = denseId;
+        postingSizes[term] = size + 1;
+        trie.adjust(terms.get(term), term, 1);
+    }
+
+    private void removePosting(int term, int denseId) {
+        int[] list = postings[term];
+        int size = postingSizes[term];
+        int pos = Arrays.binarySearch(list, 0, size, denseId);
+        if (pos < 0) {
+            return;
+        }
+        System.arraycopy(list, pos + 1, list, pos, size - pos - 1);
+        postingSizes[term] = size - 1;
+        trie.adjust(terms.get(term), term, -1);
+    }
+}
@@ -0,0 +1,78 @@
+package com.plusone.PlusOneBackend.service;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Canonical form of interest strings, shared by every interest lookup so "Hiking ",
+ * "hiking" and "HIKING" are the same interest.
+ */
+public final class InterestNormalizer {
+
+    private InterestNormalizer() {
+    }
+
+    /**
+     * Trimmed, lowercased interest with inner whitespace collapsed; empty for blank input.
+     */
+    public static String normalize(String interest) {
+        if (interest == null) {
+            return "";
+        }
+        return interest.trim().replaceAll("\\s+", " ").toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Normalized, de-duplicated interests in their original order, blanks dropped.
+     */
+    public static List<String> normalizeAll(List<String> interests) {
+        if (interests == null || interests.isEmpty()) {
+            return new ArrayList<>();
+        }
+        Set<String> normalized = new LinkedHashSet<>();
+        for (String interest : interests) {
+            String value = normalize(interest);
+            if (!value.isEmpty()) {
+                normalized.add(value);
+            }
+        }
+        return new ArrayList<>(normalized);
+    }
+
+    /**
+     * Every tail of the interests that starts at a word, normalized and de-duplicated:
+     * "Machine Learning" gives "machine learning" and "learning". Interest search is a
+     * prefix match against these, so "learn" and "machine lea" both find it.
+     */
+    public static List<String> wordTails(List<String> interests) {
+        Set<String> tails = new LinkedHashSet<>();
+        for (String interest : normalizeAll(interests)) {
+            for (int i = 0; i < interest.length(); i++) {
+                if (isWordStart(interest, i)) {
+                    tails.add(interest.substring(i));
+                }
+            }
+        }
+        return new ArrayList<>(tails);
+    }
+
+    /**
+     * Whether a normalized query is a prefix of one of the normalized interest's word
+     * tails; the in-memory form of the match {@link #wordTails} serves in MongoDB.
+     */
+    public static boolean matchesWordPrefix(String interest, String query) {
+        for (int i = 0; i + query.length() <= interest.length(); i++) {
+            if (isWordStart(interest, i) && interest.startsWith(query, i)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean isWordStart(String interest, int i) {
+        return i == 0 || (Character.isLetterOrDigit(interest.charAt(i)) && !Character.isLetterOrDigit(interest.charAt(i - 1)));
+    }
+}
@@ -0,0 +1,136 @@
+package com.plusone.PlusOneBackend.service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.PriorityQueue;
+
+/**
+ * Character trie over normalized interests, stored as parallel primitive arrays
+ * (first-child / next-sibling links) rather than node objects. Each node keeps the
+ * number of users holding the interest ending there and the largest such number in
+ * its subtree, so the top-K completions of a prefix come out of a best-first walk that
+ * only visits branches able to beat what has been found.
+ *
+ * Not thread-safe; {@link InterestIndex} guards it with its own lock.
+ */
+class InterestTrie {
+
+    private static final int ROOT = 0;
+    private static final int NONE = -1;
+
+    private char[] labels = new char[64];
+    private int[] firstChild = new int[64];
+    private int[] nextSibling = new int[64];
+    private int[] counts = new int[64];       // users holding the interest ending at this node
+    private int[] subtreeMax = new int[64];   // max of counts over this node and its descendants
+    private int[] terms = new int[64];        // term id of the interest ending here, or NONE
+    private int size = 1;
+
+    InterestTrie() {
+        firstChild[ROOT] = NONE;
+        nextSibling[ROOT] = NONE;
+        terms[ROOT] = NONE;
+    }
+
+    /**
+     * Change the number of users holding the interest (a normalized string) by delta.
+     */
+    void adjust(String interest, int term, int delta) {
+        int[] path = new int[interest.length() + 1];
+        path[0] = ROOT;
+        int node = ROOT;
+        for (int i = 0; i < interest.length(); i++) {
+            node = childOrCreate(node, interest.charAt(i));
+            path[i + 1] = node;
+        }
+        counts[node] = Math.max(0, counts[node] + delta);
+        terms[node] = term;
+
+        for (int i = path.length - 1; i >= 0; i--) {
+            int n = path[i];
+            int max = counts[n];
+            for (int child = firstChild[n]; child != NONE; child = nextSibling[child]) {
+                max = Math.max(max, subtreeMax[child]);
+            }
+            subtreeMax[n] = max;
+        }
+    }
+
+    /**
+     * Term ids of up to limit interests starting with prefix, most users first.
+     */
+    List<Integer> topTerms(String prefix, int limit) {
+        int node = ROOT;
+        for (int i = 0; i < prefix.length() && node != NONE; i++) {
+            node = child(node, prefix.charAt(i));
+        }
+        if (node == NONE || subtreeMax[node] == 0 || limit <= 0) {
+            return Collections.emptyList();
+        }
+
+        // Entries are (bound << 32 | node << 1 | isTerminal), largest bound first. A node
+        // entry's bound is its subtreeMax; a terminal entry's bound is its exact count.
+        PriorityQueue<Long> frontier = new PriorityQueue<>(Collections.reverseOrder());
+        frontier.add(entry(subtreeMax[node], node, false));
+        List<Integer> result = new ArrayList<>(limit);
+        while (!frontier.isEmpty() && result.size() < limit) {
+            long top = frontier.poll();
+            int n = (int) ((top & 0xFFFFFFFFL) >>> 1);
+            if ((top & 1) == 1) {
+                result.add(terms[n]);
+                continue;
+            }
+            if (counts[n] > 0) {
+                frontier.add(entry(counts[n], n, true));
+            }
+            for (int child = firstChild[n]; child != NONE; child = nextSibling[child]) {
+                if (subtreeMax[child] > 0) {
+                    frontier.add(entry(subtreeMax[child], child, false));
+                }
+            }
+        }
+        return result;
+    }
+
+    int nodeCount() {
+        return size;
+    }
+
+    private static long entry(int bound, int node, boolean terminal) {
+        return (long) bound << 32 | (long) node << 1 | (terminal ? 1 : 0);
+    }
+
+    private int child(int node, char label) {
+        for (int child = firstChild[node]; child != NONE; child = nextSibling[child]) {
+            if (labels[child] == label) {
+                return child;
+            }
+        }
+        return NONE;
+    }
+
+    private int childOrCreate(int node, char label) {
+        int existing = child(node, label);
+        if (existing != NONE) {
+            return existing;
+        }
+        if (size == labels.length) {
+            int length = size + (size >> 1);
+            labels = Arrays.copyOf(labels, length);
+            firstChild = Arrays.copyOf(firstChild, length);
+            nextSibling = Arrays.copyOf(nextSibling, length);
+            counts = Arrays.copyOf(counts, length);
+            subtreeMax = Arrays.copyOf(subtreeMax, length);
+            terms = Arrays.copyOf(terms, length);
+        }
+        int created = size++;
+        labels[created] = label;
+        firstChild[created] = NONE;
+        nextSibling[created] = firstChild[node];
+        firstChild[node] = created;
+        terms[created] = NONE;
+        return created;
+    }
+}
@@ -0,0 +1,195 @@
+package com.plusone.PlusOneBackend.service;
+
+import com.plusone.PlusOneBackend.dto.NearbyUser;
+import com.plusone.PlusOneBackend.dto.NearbyUsersPage;
+import com.plusone.PlusOneBackend.dto.UserCardDto;
+import com.plusone.PlusOneBackend.model.Profile;
+import com.plusone.PlusOneBackend.model.User;
+import com.plusone.PlusOneBackend.repository.UserRepository;
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.geo.Distance;
+import org.springframework.data.geo.Metrics;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.geo.GeoJsonPoint;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.NearQuery;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.List;
+
+/**
+ * "People near me": users within a radius, nearest first, optionally sharing an interest.
+ * Runs as a $geoNear on the geo_interests index (profile.geoLocation 2dsphere,
+ * profile.normalizedInterests), so MongoDB walks outward from the centre and stops after
+ * one page instead of the JVM computing distances to everyone.
+ *
+ * Pages use a keyset cursor on distance: the next page starts at the last distance seen
+ * (minDistance), skipping the users already returned at that distance, so deep
+ * pages cost the same as the first.
+ */
+@Service
+public class NearbyUserService {
+
+    public static final int DEFAULT_PAGE_SIZE = 20;
+    public static final int MAX_PAGE_SIZE = 50;
+    public static final double MAX_RADIUS_KM = 500;
+
+    private static final String GEO_FIELD = "profile.geoLocation";
+    private static final String DISTANCE_FIELD = "distance";
+    // Distances round-trip km -> meters -> km through the server; anything this close counts as a tie
+    private static final double TIE_TOLERANCE_KM = 1e-9;
+    // Card fields plus the distance, keeping nested paths (Aggregation.project would flatten them)
+    private static final Document CARD_PROJECTION = Document.parse(UserRepository.CARD_FIELDS).append(DISTANCE_FIELD, 1);
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    /**
+     * GeoJSON point for the profile's coordinates, or null if they are missing or out of range.
+     */
+    public static GeoJsonPoint pointOf(Profile.Location location) {
+        if (location == null || location.getLatitude() == null || location.getLongitude() == null) {
+            return null;
+        }
+        double latitude = location.getLatitude();
+        double longitude = location.getLongitude();
+        if (!validCoordinates(latitude, longitude)) {
+            return null;
+        }
+        return new GeoJsonPoint(longitude, latitude);  // GeoJSON order is (x = longitude, y = latitude)
+    }
+
+    /**
+     * One page of users within radiusKm of the given coordinates, or of the user's own
+     * profile location when they are omitted. The user is never included.
+     */
+    public NearbyUsersPage findNearby(String userId, Double latitude, Double longitude, double radiusKm,
+                                      String interest, String cursor, int limit) {
+        if (radiusKm <= 0 || radiusKm > MAX_RADIUS_KM) {
+            throw new IllegalArgumentException("radiusKm must be between 0 and " + MAX_RADIUS_KM);
+        }
+        int pageSize = Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+        GeoJsonPoint center = centerFor(userId, latitude, longitude);
+        Position after = cursor != null && !cursor.isBlank() ? decodeCursor(cursor) : null;
+
+        List<String> excluded = new ArrayList<>();
+        excluded.add(userId);
+        Criteria filter = new Criteria();
+        String normalizedInterest = InterestNormalizer.normalize(interest);
+        if (!normalizedInterest.isEmpty()) {
+            filter = filter.and("profile.normalizedInterests").is(normalizedInterest);
+        }
+        if (after != null) {
+            excluded.addAll(after.tiedIds());
+        }
+        filter = filter.and("_id").nin(excluded);
+
+        // Spring sends the bounds in meters and has the server report distances in km
+        NearQuery near = NearQuery.near(center)
+            .spherical(true)
+            .maxDistance(new Distance(radiusKm, Metrics.KILOMETERS))
+            .query(new Query(filter));
+        if (after != null) {
+            near.minDistance(new Distance(after.minDistanceKm(), Metrics.KILOMETERS));
+        }
+
+        Aggregation aggregation = Aggregation.newAggregation(
+            Aggregation.geoNear(near, DISTANCE_FIELD).useIndex(GEO_FIELD),
+            Aggregation.limit(pageSize + 1),  // one extra row tells us whether another page exists
+            Aggregation.stage(new Document("$project", CARD_PROJECTION)));
+        List<Document> rows = mongoTemplate.aggregate(aggregation, User.class, Document.class).getMappedResults();
+
+        List<NearbyUser> users = new ArrayList<>(Math.min(rows.size(), pageSize));
+        for (int i = 0; i < rows.size() && i < pageSize; i++) {
+            Document row = rows.get(i);
+            users.add(NearbyUser.builder()
+                .user(UserCardDto.from(mongoTemplate.getConverter().read(User.class, row)))
+                .distanceKm(distanceOf(row))
+                .build());
+        }
+
+        String nextCursor = null;
+        if (rows.size() > pageSize) {
+            nextCursor = encodeCursor(rows.subList(0, pageSize), after);
+        }
+        return NearbyUsersPage.builder()
+            .users(users)
+            .nextCursor(nextCursor)
+            .build();
+    }
+
+    private GeoJsonPoint centerFor(String userId, Double latitude, Double longitude) {
+        if (latitude != null || longitude != null) {
+            if (latitude == null || longitude == null || !validCoordinates(latitude, longitude)) {
+                throw new IllegalArgumentException("Invalid coordinates");
+            }
+            return new GeoJsonPoint(longitude, latitude);
+        }
+        Query query = new Query(Criteria.where("_id").is(userId));
+        query.fields().include(GEO_FIELD);
+        User user = mongoTemplate.findOne(query, User.class);
+        if (user == null) {
+            throw new IllegalArgumentException("User not found");
+        }
+        if (user.getProfile() == null || user.getProfile().getGeoLocation() == null) {
+            throw new IllegalArgumentException("No location on profile");
+        }
+        return user.getProfile().getGeoLocation();
+    }
+
+    private static boolean validCoordinates(double latitude, double longitude) {
+        return latitude >= -90 && latitude <= 90 && longitude >= -180 && longitude <= 180;
+    }
+
+    private static double distanceOf(Document row) {
+        return row.get(DISTANCE_FIELD, Number.class).doubleValue();
+    }
+
+    // Distance of the last row, and every user already returned at (about) that distance
+    record Position(double distanceKm, List<String> tiedIds) {
+
+        // Where the next page's $geoNear starts; the tied users are excluded by id
+        double minDistanceKm() {
+            return Math.max(0, distanceKm - TIE_TOLERANCE_KM);
+        }
+    }
+
+    // Opaque to clients: base64url of "<distance km>:<id>,<id>,..."
+    static String encodeCursor(List<Document> page, Position previous) {
+        double last = distanceOf(page.get(page.size() - 1));
+        List<String> tied = new ArrayList<>();
+        if (previous != null && previous.distanceKm() >= last - TIE_TOLERANCE_KM) {
+            tied.addAll(previous.tiedIds());
+        }
+        for (Document row : page) {
+            if (distanceOf(row) >= last - TIE_TOLERANCE_KM) {
+                tied.add(row.getObjectId("_id").toHexString());
+            }
+        }
+        String raw = last + ":" + String.join(",", tied);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    static Position decodeCursor(String cursor) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separator = raw.indexOf(':');
+            double distance = Double.parseDouble(raw.substring(0, separator));
+            List<String> tied = Arrays.asList(raw.substring(separator + 1).split(","));
+            if (!(distance >= 0) || tied.stream().anyMatch(id -> !ObjectId.isValid(id))) {
+                throw new IllegalArgumentException();
+            }
+            return new Position(distance, tied);
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+    }
+}
@@ -0,0 +1,411 @@
+package com.plusone.PlusOneBackend.service;
+
+import com.plusone.PlusOneBackend.model.Profile;
+import com.plusone.PlusOneBackend.model.User;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Full-text people search over names, job title, company, city and interests, ranked
+ * with BM25F: a term's frequency in each field is length-normalized and weighted by
+ * field (a name match counts for more than a city match), summed, then saturated and
+ * scaled by the term's rarity.
+ *
+ * Each term has a posting list of (dense user id, weighted frequency) sorted by user id,
+ * plus the largest frequency in the list, which bounds what the term can add to any
+ * score. Top-K retrieval uses MaxScore: once K results are held, terms whose bounds
+ * together cannot beat the K-th score are only probed for users that other terms
+ * already matched, so common terms stop driving the scan and latency tracks the rare
+ * terms rather than the user count.
+ *
+ * Field lengths are normalized against the averages at the time a user is indexed; the
+ * averages drift slowly, and every startup rebuild re-normalizes everyone.
+ */
+@Component
+public class PeopleSearchIndex implements UserIndexer {
+
+    private static final float K1 = 1.2f;
+    private static final int MAX_PREFIX_EXPANSIONS = 16;
+    private static final int[] NO_TERMS = new int[0];
+
+    enum Field {
+        FIRST_NAME(3.0f, 0.5f),
+        LAST_NAME(3.0f, 0.5f),
+        JOB_TITLE(2.0f, 0.75f),
+        COMPANY(1.5f, 0.75f),
+        CITY(1.0f, 0.5f),
+        INTERESTS(1.5f, 0.75f);
+
+        final float weight;
+        final float lengthNormalization;   // BM25 b: 0 ignores field length, 1 fully normalizes
+
+        Field(float weight, float lengthNormalization) {
+            this.weight = weight;
+            this.lengthNormalization = lengthNormalization;
+        }
+    }
+
+    private static final Field[] FIELDS = Field.values();
+
+    @Autowired
+    private UserIdDictionary userIdDictionary;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    // Guarded by lock
+    private final TreeMap<String, Integer> termIds = new TreeMap<>();   // sorted, for prefix expansion
+    private final List<Postings> postings = new ArrayList<>();
+    private int[][] termsByUser = new int[0][];
+    private int[][] fieldLengthsByUser = new int[0][];
+    private final long[] fieldLengthSums = new long[FIELDS.length];
+    private int indexedUsers = 0;
+
+    /**
+     * Sorted (user, weight) pairs for one term.
+     */
+    private static final class Postings {
+        int[] users = new int[4];
+        float[] weights = new float[4];
+        int size = 0;
+        float maxWeight = 0;   // only ever raised, so it stays a valid upper bound after removals
+
+        int find(int user, int from) {
+            return Arrays.binarySearch(users, from, size, user);
+        }
+
+        void put(int user, float weight) {
+            int pos = find(user, 0);
+            if (pos >= 0) {
+                weights[pos] = weight;
+            } else {
+                pos = -pos - 1;
+                if (size == users.length) {
+                    users = Arrays.copyOf(users, size + (size >> 1));
+                    weights = Arrays.copyOf(weights, users.length);
+                }
+                System.arraycopy(users, pos, users, pos + 1, size - pos);
+                System.arraycopy(weights, pos, weights, pos + 1, size - pos);
+                users[pos] = user;
+                weights[pos] = weight;
+                size++;
+            }
+            maxWeight = Math.max(maxWeight, weight);
+        }
+
+        void remove(int user) {
+            int pos = find(user, 0);
+            if (pos >= 0) {
+                System.arraycopy(users, pos + 1, users, pos, size - pos - 1);
+                System.arraycopy(weights, pos + 1, weights, pos, size - pos - 1);
+                size--;
+            }
+        }
+    }
+
+    @Override
+    public void clear() {
+        lock.writeLock().lock();
+        try {
+            termIds.clear();
+            postings.clear();
+            termsByUser = new int[0][];
+            fieldLengthsByUser = new int[0][];
+            Arrays.fill(fieldLengthSums, 0);
+            indexedUsers = 0;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void index(User user) {
+        int denseId = userIdDictionary.idFor(user.getId());
+        List<List<String>> tokensByField = tokenizeFields(user);
+
+        lock.writeLock().lock();
+        try {
+            ensureCapacity(denseId);
+            int[] oldLengths = fieldLengthsByUser[denseId];
+            if (oldLengths != null) {
+                for (int f = 0; f < FIELDS.length; f++) {
+                    fieldLengthSums[f] -= oldLengths[f];
+                }
+                indexedUsers--;
+            }
+            for (int term : termsByUser[denseId] != null ? termsByUser[denseId] : NO_TERMS) {
+                postings.get(term).remove(denseId);
+            }
+
+            int[] lengths = new int[FIELDS.length];
+            for (int f = 0; f < FIELDS.length; f++) {
+                lengths[f] = tokensByField.get(f).size();
+                fieldLengthSums[f] += lengths[f];
+            }
+            indexedUsers++;
+            fieldLengthsByUser[denseId] = lengths;
+
+            // BM25F: sum of weighted, length-normalized term frequencies across fields
+            Map<String, Float> weights = new LinkedHashMap<>();
+            for (int f = 0; f < FIELDS.length; f++) {
+                Field field = FIELDS[f];
+                double averageLength = Math.max(1.0, (double) fieldLengthSums[f] / indexedUsers);
+                double norm = 1 - field.lengthNormalization + field.lengthNormalization * lengths[f] / averageLength;
+                for (String token : tokensByField.get(f)) {
+                    weights.merge(token, (float) (field.weight / norm), Float::sum);
+                }
+            }
+
+            int[] terms = new int[weights.size()];
+            int i = 0;
+            for (Map.Entry<String, Float> entry : weights.entrySet()) {
+                int term = termIdFor(entry.getKey());
+                postings.get(term).put(denseId, entry.getValue());
+                terms[i++] = term;
+            }
+            termsByUser[denseId] = terms;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Ids of the best-matching users, best first. Every query word must be a whole word in
+     * some field, except the last, which also matches as a prefix ("software eng").
+     * Matching any word is enough; matching more, rarer or better-placed words ranks higher.
+     */
+    public List<String> search(String query, int limit) {
+        List<String> tokens = tokenize(query);
+        if (tokens.isEmpty() || limit <= 0) {
+            return List.of();
+        }
+
+        int[] results;
+        lock.readLock().lock();
+        try {
+            results = topK(queryTerms(tokens), limit);
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        List<String> userIds = new ArrayList<>(results.length);
+        for (int denseId : results) {
+            userIds.add(userIdDictionary.userIdOf(denseId));
+        }
+        return userIds;
+    }
+
+    // ---- query evaluation (callers hold the read lock) ----
+
+    private static final class QueryTerm {
+        final Postings postings;
+        final float idf;
+        final float bound;
+        int cursor = 0;
+
+        QueryTerm(Postings postings, float idf) {
+            this.postings = postings;
+            this.idf = idf;
+            this.bound = score(postings.maxWeight);
+        }
+
+        float score(float weight) {
+            return idf * weight * (K1 + 1) / (K1 + weight);
+        }
+
+        int currentUser() {
+            return cursor < postings.size ? postings.users[cursor] : Integer.MAX_VALUE;
+        }
+    }
+
+    private List<QueryTerm> queryTerms(List<String> tokens) {
+        Map<Integer, QueryTerm> terms = new HashMap<>();
+        for (int i = 0; i < tokens.size(); i++) {
+            String token = tokens.get(i);
+            List<Integer> matches = new ArrayList<>();
+            Integer exact = termIds.get(token);
+            if (exact != null) {
+                matches.add(exact);
+            }
+            if (i == tokens.size() - 1) {
+                matches.addAll(prefixExpansions(token));
+            }
+            for (int term : matches) {
+                Postings list = postings.get(term);
+                if (list.size > 0 && !terms.containsKey(term)) {
+                    terms.put(term, new QueryTerm(list, idf(list.size)));
+                }
+            }
+        }
+        List<QueryTerm> sorted = new ArrayList<>(terms.values());
+        sorted.sort(Comparator.comparingDouble(term -> term.bound));
+        return sorted;
+    }
+
+    // The most common longer terms starting with the token
+    private List<Integer> prefixExpansions(String token) {
+        List<Integer> candidates = new ArrayList<>();
+        for (Map.Entry<String, Integer> entry : termIds.tailMap(token, false).entrySet()) {
+            if (!entry.getKey().startsWith(token)) {
+                break;
+            }
+            if (postings.get(entry.getValue()).size > 0) {
+                candidates.add(entry.getValue());
+            }
+        }
+        if (candidates.size() > MAX_PREFIX_EXPANSIONS) {
+            candidates.sort(Comparator.comparingInt((Integer term) -> postings.get(term).size).reversed());
+            return candidates.subList(0, MAX_PREFIX_EXPANSIONS);
+        }
+        return candidates;
+    }
+
+    private float idf(int documentFrequency) {
+        return (float) Math.log(1 + (indexedUsers - documentFrequency + 0.5) / (documentFrequency + 0.5));
+    }
+
+    // A scored user in the top-K heap; the id stays an int (a float only holds ids up to 2^24 exactly)
+    private record Hit(float score, int user) {
+    }
+
+    /**
+     * MaxScore over the query terms (sorted by ascending bound). Terms below
+     * firstEssential are "non-essential": their bounds summed cannot beat the current
+     * K-th score, so they never introduce candidates and are only probed for users the
+     * essential terms found, and only while the probe could still change the outcome.
+     */
+    private static int[] topK(List<QueryTerm> terms, int k) {
+        int n = terms.size();
+        if (n == 0) {
+            return new int[0];
+        }
+        float[] boundPrefix = new float[n];   // sum of bounds of terms[0..i]
+        for (int i = 0; i < n; i++) {
+            boundPrefix[i] = terms.get(i).bound + (i > 0 ? boundPrefix[i - 1] : 0);
+        }
+
+        // Min-heap on score (then on larger id, so ties favour older accounts)
+        PriorityQueue<Hit> best = new PriorityQueue<>(k + 1,
+            (a, b) -> a.score() != b.score() ? Float.compare(a.score(), b.score()) : Integer.compare(b.user(), a.user()));
+        float threshold = 0;
+        int firstEssential = 0;
+
+        while (firstEssential < n) {
+            int user = Integer.MAX_VALUE;
+            for (int i = firstEssential; i < n; i++) {
+                user = Math.min(user, terms.get(i).currentUser());
+            }
+            if (user == Integer.MAX_VALUE) {
+                break;
+            }
+
+            float score = 0;
+            for (int i = firstEssential; i < n; i++) {
+                QueryTerm term = terms.get(i);
+                if (term.currentUser() == user) {
+                    score += term.score(term.postings.weights[term.cursor]);
+                    term.cursor++;
+                }
+            }
+            for (int i = firstEssential - 1; i >= 0 && score + boundPrefix[i] > threshold; i--) {
+                QueryTerm term = terms.get(i);
+                int pos = term.postings.find(user, term.cursor);
+                if (pos >= 0) {
+                    score += term.score(term.postings.weights[pos]);
+                    term.cursor = pos + 1;
+                } else {
+                    term.cursor = -pos - 1;
+                }
+            }
+
+            if (best.size() < k) {
+                best.add(new Hit(score, user));
+            } else if (score > threshold) {
+                best.poll();
+                best.add(new Hit(score, user));
+            } else {
+                continue;
+            }
+            if (best.size() == k) {
+                threshold = best.peek().score();
+                while (firstEssential < n && boundPrefix[firstEssential] <= threshold) {
+                    firstEssential++;
+                }
+            }
+        }
+
+        int[] result = new int[best.size()];
+        for (int i = result.length - 1; i >= 0; i--) {
+            result[i] = best.poll().user();
+        }
+        return result;
+    }
+
+    // ---- indexing internals ----
+
+    private int termIdFor(String token) {
+        Integer existing = termIds.get(token);
+        if (existing != null) {
+            return existing;
+        }
+        int term = postings.size();
+        postings.add(new Postings());
+        termIds.put(token, term);
+        return term;
+    }
+
+    private void ensureCapacity(int denseId) {
+        if (denseId < termsByUser.length) {
+            return;
+        }
+        int length = Math.max(denseId + 1, termsByUser.length + (termsByUser.length >> 1) + 16);
+        termsByUser = Arrays.copyOf(termsByUser, length);
+        fieldLengthsByUser = Arrays.copyOf(fieldLengthsByUser, length);
+    }
+
+    private static List<List<String>> tokenizeFields(User user) {
+        Profile profile = user.getProfile();
+        Profile.Job job = profile != null ? profile.getJob() : null;
+        Profile.Location location = profile != null ? profile.getLocation() : null;
+
+        List<List<String>> tokens = new ArrayList<>(FIELDS.length);
+        tokens.add(tokenize(user.getFirstName()));
+        tokens.add(tokenize(user.getLastName()));
+        tokens.add(tokenize(job != null ? job.getTitle() : null));
+        tokens.add(tokenize(job != null ? job.getCompaniesName() : null));
+        tokens.add(tokenize(location != null ? location.getCity() : null));
+        tokens.add(tokenize(String.join(" ", user.getInterests())));
+        return tokens;
+    }
+
+    /**
+     * Lowercased words with accents stripped, split on anything that is not a letter or digit.
+     */
+    static List<String> tokenize(String text) {
+        if (text == null || text.isBlank()) {
+            return List.of();
+        }
+        String folded = Normalizer.normalize(text, Normalizer.Form.NFD)
+            .replaceAll("\\p{M}+", "")
+            .toLowerCase(Locale.ROOT);
+        List<String> tokens = new ArrayList<>();
+        for (String token : folded.split("[^\\p{L}\\p{N}]+")) {
+            if (!token.isEmpty()) {
+                tokens.add(token);
+            }
+        }
+        return tokens;
+    }
+}
@@ -0,0 +1,340 @@
+package com.plusone.PlusOneBackend.service;
+
+import com.plusone.PlusOneBackend.model.User;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+
+/**
+ * "People you may know": second-degree connections ranked by mutual connections, then
+ * by shared interests.
+ *
+ * Mutual-connection counts are kept per user and updated incrementally from
+ * {@link ConnectionGraph} edge events (a new edge a-b gives b one more mutual friend
+ * with each of a's neighbours, and vice versa). Each user's top {@value #TOP_N} list is
+ * precomputed; changes only mark users dirty and a background job recomputes their lists,
+ * so reads are an array lookup.
+ */
+@Service
+public class PeopleYouMayKnowService implements UserIndexer, ConnectionGraph.Listener {
+
+    static final int TOP_N = 20;
+    private static final int MUTUAL_WEIGHT = 4;  // one mutual connection outweighs a few shared interests
+    private static final int[] NONE = new int[0];
+    private static final Logger log = LoggerFactory.getLogger(PeopleYouMayKnowService.class);
+
+    @Autowired
+    private ConnectionGraph connectionGraph;
+
+    @Autowired
+    private UserIdDictionary userIdDictionary;
+
+    private final Object lock = new Object();
+
+    // Guarded by lock
+    private final Map<String, Integer> interestIds = new HashMap<>();
+    private int[][] interestsByUser = new int[0][];          // sorted interest ids per dense user
+    private IntIntHashMap[] mutualCounts = new IntIntHashMap[0]; // candidate -> number of mutual connections
+    private int[][] topCandidates = new int[0][];            // best first; null until first computed
+    private final BitSet dirty = new BitSet();
+    private List<int[]> edgesDuringRecount;                  // non-null while onGraphReloaded counts
+
+    @PostConstruct
+    void registerWithGraph() {
+        connectionGraph.addListener(this);
+    }
+
+    /**
+     * Up to limit suggested user ids for the user, best first.
+     */
+    public List<String> suggestionsFor(String userId, int limit) {
+        int user = userIdDictionary.find(userId);
+        if (user < 0 || !connectionGraph.isLoaded()) {
+            return List.of();
+        }
+
+        int[] candidates;
+        synchronized (lock) {
+            ensureCapacity(user);
+            if (topCandidates[user] == null) {
+                topCandidates[user] = computeTopCandidates(user);
+                dirty.clear(user);
+            }
+            candidates = topCandidates[user];
+        }
+
+        List<String> userIds = new ArrayList<>(Math.min(limit, candidates.length));
+        for (int i = 0; i < candidates.length && userIds.size() < limit; i++) {
+            userIds.add(userIdDictionary.userIdOf(candidates[i]));
+        }
+        return userIds;
+    }
+
+    @Scheduled(fixedDelayString = "${plusone.suggestions.refresh-interval-ms:5000}")
+    public void refreshDirtyUsers() {
+        int[] users;
+        synchronized (lock) {
+            users = dirty.stream().toArray();
+            dirty.clear();
+        }
+        for (int user : users) {
+            synchronized (lock) {
+                topCandidates[user] = computeTopCandidates(user);
+            }
+        }
+    }
+
+    // ---- UserIndexer: interests ----
+
+    @Override
+    public void clear() {
+        synchronized (lock) {
+            interestIds.clear();
+            Arrays.fill(interestsByUser, null);
+            Arrays.fill(topCandidates, null);  // ranked on the old interests; recomputed on next read
+        }
+    }
+
+    @Override
+    public void index(User user) {
+        int denseId = userIdDictionary.idFor(user.getId());
+        List<String> interests = InterestNormalizer.normalizeAll(user.getInterests());
+
+        synchronized (lock) {
+            ensureCapacity(denseId);
+            int[] ids = new int[interests.size()];
+            for (int i = 0; i < ids.length; i++) {
+                ids[i] = interestIds.computeIfAbsent(interests.get(i), key -> interestIds.size());
+            }
+            Arrays.sort(ids);
+            if (Arrays.equals(ids, interestsByUser[denseId])) {
+                return;
+            }
+            interestsByUser[denseId] = ids;
+
+            // Everyone who has this user as a candidate sees a different score now
+            dirty.set(denseId);
+            IntIntHashMap candidates = mutualCounts[denseId];
+            if (candidates != null) {
+                candidates.forEach((candidate, mutual) -> dirty.set(candidate));
+            }
+        }
+    }
+
+    // ---- ConnectionGraph.Listener: mutual connections ----
+
+    @Override
+    public void onEdgeAdded(int a, int b) {
+        int[] neighboursOfA = connectionGraph.neighboursOf(a);
+        int[] neighboursOfB = connectionGraph.neighboursOf(b);
+
+        synchronized (lock) {
+            ensureCapacity(Math.max(a, b));
+            // Pairs that are already connected are never candidates (as in onGraphReloaded)
+            for (int n : neighboursOfA) {
+                if (n != b && !connectionGraph.areConnected(b, n)) {
+                    addMutual(b, n);
+                    dirty.set(n);
+                }
+            }
+            for (int n : neighboursOfB) {
+                if (n != a && !connectionGraph.areConnected(a, n)) {
+                    addMutual(a, n);
+                    dirty.set(n);
+                }
+            }
+            // Now directly connected, so no longer candidates for each other
+            if (mutualCounts[a] != null) {
+                mutualCounts[a].remove(b);
+            }
+            if (mutualCounts[b] != null) {
+                mutualCounts[b].remove(a);
+            }
+            dirty.set(a);
+            dirty.set(b);
+            if (edgesDuringRecount != null) {
+                edgesDuringRecount.add(new int[] {a, b});
+            }
+        }
+    }
+
+    /**
+     * Recount mutual connections from scratch: every pair of a user's neighbours that are
+     * not connected themselves shares that user. Cost is the sum of squared degrees, so the
+     * count runs without the lock and reads carry on against the old counts meanwhile. Only
+     * users whose counts changed are marked dirty.
+     */
+    @Override
+    public void onGraphReloaded() {
+        long start = System.nanoTime();
+        synchronized (lock) {
+            edgesDuringRecount = new ArrayList<>();
+        }
+
+        IntIntHashMap[] fresh = new IntIntHashMap[userIdDictionary.size()];
+        for (int user = 0; user < fresh.length; user++) {
+            int[] neighbours = connectionGraph.neighboursOf(user);
+            for (int i = 0; i < neighbours.length; i++) {
+                for (int j = i + 1; j < neighbours.length; j++) {
+                    if (!connectionGraph.areConnected(neighbours[i], neighbours[j])) {
+                        fresh = addMutual(fresh, neighbours[i], neighbours[j]);
+                    }
+                }
+            }
+        }
+
+        int changed = 0;
+        synchronized (lock) {
+            ensureCapacity(fresh.length - 1);
+            fresh = Arrays.copyOf(fresh, mutualCounts.length);
+            // The count may or may not have seen these edges; set the pairs they touch exactly
+            for (int[] edge : edgesDuringRecount) {
+                recountAround(fresh, edge[0], edge[1]);
+            }
+            edgesDuringRecount = null;
+
+            for (int user = 0; user < fresh.length; user++) {
+                if (!IntIntHashMap.sameEntries(mutualCounts[user], fresh[user])) {
+                    dirty.set(user);
+                    changed++;
+                }
+            }
+            mutualCounts = fresh;
+        }
+        log.info("Recomputed mutual connections in {} ms, {} users changed",
+            (System.nanoTime() - start) / 1_000_000, changed);
+    }
+
+    // ---- internals (callers hold lock) ----
+
+    private void addMutual(int x, int y) {
+        if (x == y) {
+            return;
+        }
+        ensureCapacity(Math.max(x, y));
+        countsFor(x).addTo(y, 1);
+        countsFor(y).addTo(x, 1);
+    }
+
+    // Outside the lock: counts is not shared yet and may grow as new users appear
+    private static IntIntHashMap[] addMutual(IntIntHashMap[] counts, int x, int y) {
+        if (x == y) {
+            return counts;
+        }
+        if (Math.max(x, y) >= counts.length) {
+            counts = Arrays.copyOf(counts, Math.max(x, y) + 1);
+        }
+        addTo(counts, x, y, 1);
+        addTo(counts, y, x, 1);
+        return counts;
+    }
+
+    // Exact counts for every pair whose mutual connections edge a-b changes
+    private void recountAround(IntIntHashMap[] counts, int a, int b) {
+        for (int n : connectionGraph.neighboursOf(a)) {
+            if (n != b) {
+                setMutual(counts, b, n);
+            }
+        }
+        for (int n : connectionGraph.neighboursOf(b)) {
+            if (n != a) {
+                setMutual(counts, a, n);
+            }
+        }
+        setMutual(counts, a, b);
+    }
+
+    private void setMutual(IntIntHashMap[] counts, int x, int y) {
+        int mutual = connectionGraph.areConnected(x, y)
+            ? 0 : sharedCount(connectionGraph.neighboursOf(x), connectionGraph.neighboursOf(y));
+        addTo(counts, x, y, mutual - (counts[x] == null ? 0 : counts[x].get(y)));
+        addTo(counts, y, x, mutual - (counts[y] == null ? 0 : counts[y].get(x)));
+    }
+
+    private static void addTo(IntIntHashMap[] counts, int user, int candidate, int delta) {
+        if (counts[user] == null) {
+            counts[user] = new IntIntHashMap();
+        }
+        counts[user].addTo(candidate, delta);
+    }
+
+    private IntIntHashMap countsFor(int user) {
+        if (mutualCounts[user] == null) {
+            mutualCounts[user] = new IntIntHashMap();
+        }
+        return mutualCounts[user];
+    }
+
+    private int[] computeTopCandidates(int user) {
+        IntIntHashMap candidates = mutualCounts[user];
+        if (candidates == null || candidates.size() == 0) {
+            return NONE;
+        }
+
+        // Min-heap of (score << 32 | candidate); the weakest of the current top N is on top
+        PriorityQueue<Long> best = new PriorityQueue<>(TOP_N + 1);
+        candidates.forEach((candidate, mutual) -> {
+            if (candidate == user || connectionGraph.areConnected(user, candidate)) {
+                return;
+            }
+            long score = (long) mutual * MUTUAL_WEIGHT + sharedInterests(user, candidate);
+            best.add(score << 32 | candidate);
+            if (best.size() > TOP_N) {
+                best.poll();
+            }
+        });
+
+        int[] result = new int[best.size()];
+        for (int i = result.length - 1; i >= 0; i--) {
+            result[i] = (int) (best.poll() & 0xFFFFFFFFL);
+        }
+        return result;
+    }
+
+    private int sharedInterests(int a, int b) {
+        int[] x = interestsByUser[a];
+        int[] y = interestsByUser[b];
+        if (x == null || y == null) {
+            return 0;
+        }
+        return sharedCount(x, y);
+    }
+
+    // Size of the intersection of two sorted arrays
+    private static int sharedCount(int[] x, int[] y) {
+        int shared = 0;
+        for (int i = 0, j = 0; i < x.length && j < y.length; ) {
+            if (x[i] == y[j]) {
+                shared++;
+                i++;
+                j++;
+            } else if (x[i] < y[j]) {
+                i++;
+            } else {
+                j++;
+            }
+        }
+        return shared;
+    }
+
+    private void ensureCapacity(int denseId) {
+        if (denseId < interestsByUser.length) {
+            return;
+        }
+        int length = Math.max(denseId + 1, interestsByUser.length + (interestsByUser.length >> 1) + 16);
+        interestsByUser = Arrays.copyOf(interestsByUser, length);
+        mutualCounts = Arrays.copyOf(mutualCounts, length);
+        topCandidates = Arrays.copyOf(topCandidates, length);
+    }
+}
@@ -0,0 +1,464 @@
+package com.plusone.PlusOneBackend.service;
+
+import com.mongodb.MongoException;
+import com.mongodb.MongoGridFSException;
+import com.mongodb.client.gridfs.model.GridFSFile;
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.AbstractResource;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.data.mongodb.gridfs.GridFsTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.stream.ImageInputStream;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HexFormat;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.stream.Stream;
+
+/**
+ * Photos stored in GridFS ({@link com.plusone.PlusOneBackend.model.Profile.Photo}
+ * storage "gridfs", key = file id). Uploads are streamed into GridFS chunk by chunk while
+ * a SHA-256 of the bytes is computed, which becomes the photo's strong ETag; downloads
+ * stream from GridFS and can be re-opened per byte range.
+ *
+ * Resized JPEG variants are made in the background after upload (or on first request)
+ * and kept in a size-bounded directory on local disk, so lists and feeds load a few KiB
+ * instead of the original. Until a variant exists the original is served, and a photo
+ * that cannot be decoded is marked as such so it is not retried on every request.
+ */
+@Service
+public class PhotoService {
+
+    public static final String STORAGE = "gridfs";
+    // Only formats the JDK's ImageIO can decode, so every upload can get variants
+    private static final Set<String> CONTENT_TYPES = Set.of("image/jpeg", "image/png", "image/gif");
+    // Larger sources are refused outright (decompression bombs); smaller ones are subsampled while decoding
+    private static final long MAX_SOURCE_PIXELS = 100_000_000L;
+    private static final String SHA256_FIELD = "metadata.sha256";
+
+    /**
+     * Resized versions of a photo, by longest side in pixels.
+     */
+    public enum Variant {
+        THUMB(160),
+        MEDIUM(640);
+
+        private final int maxSide;
+
+        Variant(int maxSide) {
+            this.maxSide = maxSide;
+        }
+
+        public String param() {
+            return name().toLowerCase(Locale.ROOT);
+        }
+
+        /**
+         * @throws IllegalArgumentException for an unknown size name
+         */
+        public static Variant parse(String size) {
+            return valueOf(size.trim().toUpperCase(Locale.ROOT));
+        }
+    }
+
+    /**
+     * A photo or variant ready to stream. Variants and originals never change once
+     * written, so immutable content may be cached by clients indefinitely.
+     */
+    public record PhotoContent(Resource resource, String contentType, String etag, boolean immutable) {
+    }
+
+    public record StoredPhoto(String id, String contentType, long length, String sha256) {
+    }
+
+    private final GridFsTemplate gridFsTemplate;
+    private final MongoTemplate mongoTemplate;
+    private final Executor executor;
+    private final Path variantDir;
+    private final long maxVariantBytes;
+    private final long maxUploadBytes;
+
+    // Photo ids with variant generation queued or running
+    private final Set<String> inFlight = ConcurrentHashMap.newKeySet();
+
+    public PhotoService(
+            GridFsTemplate gridFsTemplate,
+            MongoTemplate mongoTemplate,
+            @Qualifier("photoVariantExecutor") Executor executor,
+            @Value("${plusone.photos.variant-dir:${java.io.tmpdir}/plusone-photo-variants}") Path variantDir,
+            @Value("${plusone.photos.variant-cache.max-bytes:536870912}") long maxVariantBytes,
+            @Value("${plusone.photos.max-upload-bytes:10485760}") long maxUploadBytes) throws IOException {
+        this.gridFsTemplate = gridFsTemplate;
+        this.mongoTemplate = mongoTemplate;
+        this.executor = executor;
+        this.variantDir = Files.createDirectories(variantDir);
+        this.maxVariantBytes = maxVariantBytes;
+        this.maxUploadBytes = maxUploadBytes;
+    }
+
+    /**
+     * Stream an upload into GridFS and queue its variants.
+     *
+     * @throws IllegalArgumentException if the content type is not a supported image
+     * @throws PhotoTooLargeException   if the upload exceeds the configured maximum
+     */
+    public StoredPhoto store(InputStream body, String filename, String contentType, String ownerId) throws IOException {
+        String type = contentType != null ? contentType.split(";")[0].trim().toLowerCase(Locale.ROOT) : "";
+        if (!CONTENT_TYPES.contains(type)) {
+            throw new IllegalArgumentException("Unsupported photo type");
+        }
+
+        MessageDigest sha256 = newSha256();
+        Document metadata = new Document("ownerId", ownerId);
+        ObjectId id;
+        try {
+            id = gridFsTemplate.store(
+                new DigestInputStream(new LimitedInputStream(body, maxUploadBytes), sha256),
+                filename != null && !filename.isBlank() ? filename : "photo", type, metadata);
+        } catch (MongoGridFSException e) {
+            // GridFS has already aborted the upload and removed its chunks
+            if (e.getCause() instanceof IOException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+
+        String hash = HexFormat.of().formatHex(sha256.digest());
+        mongoTemplate.updateFirst(new Query(Criteria.where("_id").is(id)),
+            Update.update(SHA256_FIELD, hash), "fs.files");
+
+        GridFSFile file = gridFsTemplate.findOne(new Query(Criteria.where("_id").is(id)));
+        requestVariants(id.toHexString());
+        return new StoredPhoto(id.toHexString(), type, file != null ? file.getLength() : 0, hash);
+    }
+
+    /**
+     * The original upload, or empty if there is no such photo.
+     */
+    public Optional<PhotoContent> open(String id) {
+        GridFSFile file = find(id);
+        if (file == null) {
+            return Optional.empty();
+        }
+        Document metadata = file.getMetadata();
+        String contentType = metadata != null ? metadata.getString("_contentType") : null;
+        return Optional.of(new PhotoContent(new GridFsPhotoResource(file),
+            contentType != null ? contentType : "application/octet-stream", etagOf(file, null), true));
+    }
+
+    /**
+     * The variant from the disk cache. If it is not there yet, generating it is queued
+     * and the result is empty; callers fall back to the original.
+     */
+    public Optional<PhotoContent> openVariant(String id, Variant variant) {
+        // Only queue work for photos that exist and have not already failed to decode
+        GridFSFile file = find(id);
+        if (file == null || Files.exists(failedMarkerPath(id))) {
+            return Optional.empty();
+        }
+        Path path = variantPath(id, variant);
+        if (!Files.exists(path)) {
+            requestVariants(id);
+            return Optional.empty();
+        }
+        try {
+            // Recency for the disk cache's eviction
+            Files.setLastModifiedTime(path, FileTime.fromMillis(System.currentTimeMillis()));
+        } catch (IOException e) {
+            // Still servable; it just looks older to the pruner
+        }
+        return Optional.of(new PhotoContent(new FileSystemResource(path), "image/jpeg", etagOf(file, variant), true));
+    }
+
+    /**
+     * Path for a photo id as stored in Profile.Photo.url / Post.imageUrl, under /api.
+     */
+    public static String pathOf(String id, Variant variant) {
+        return "/api/photos/" + id + (variant != null ? "?size=" + variant.param() : "");
+    }
+
+    private void requestVariants(String id) {
+        if (!inFlight.add(id)) {
+            return;
+        }
+        try {
+            executor.execute(() -> {
+                try {
+                    generateVariants(id);
+                } finally {
+                    inFlight.remove(id);
+                }
+            });
+        } catch (RuntimeException e) {
+            // Queue full: the next request for a variant tries again
+            inFlight.remove(id);
+        }
+    }
+
+    // Decodes the original once and writes every missing variant
+    private void generateVariants(String id) {
+        try {
+            GridFSFile file = find(id);
+            if (file == null) {
+                return;
+            }
+            BufferedImage original;
+            try (InputStream in = gridFsTemplate.getResource(file).getInputStream()) {
+                original = decode(in);
+            }
+            if (original == null) {
+                System.err.println("Cannot decode photo " + id + "; serving the original only");
+                Files.write(failedMarkerPath(id), new byte[0]);  // the original never changes, so neither will this
+                return;
+            }
+            for (Variant variant : Variant.values()) {
+                Path path = variantPath(id, variant);
+                if (Files.exists(path)) {
+                    continue;
+                }
+                Path temp = Files.createTempFile(variantDir, id, ".part");
+                try {
+                    ImageIO.write(resize(original, variant.maxSide), "jpg", temp.toFile());
+                    Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+                } finally {
+                    Files.deleteIfExists(temp);
+                }
+            }
+        } catch (Exception e) {
+            System.err.println("Error generating variants for photo " + id + ": " + e.getMessage());
+        }
+    }
+
+    /**
+     * Decodes an image after checking its dimensions from the header, reading only every
+     * n-th pixel of large sources so memory stays bounded by the largest variant rather than
+     * the upload. Returns null if the format is unknown, the data is corrupt or it is too large.
+     */
+    private static BufferedImage decode(InputStream in) throws IOException {
+        try (ImageInputStream input = ImageIO.createImageInputStream(in)) {
+            Iterator<ImageReader> readers = input != null ? ImageIO.getImageReaders(input) : null;
+            if (readers == null || !readers.hasNext()) {
+                return null;
+            }
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(input, true, true);
+                int width = reader.getWidth(0);
+                int height = reader.getHeight(0);
+                if ((long) width * height > MAX_SOURCE_PIXELS) {
+                    return null;
+                }
+                // Keep at least twice the largest variant's resolution for a clean downscale
+                int step = Math.max(1, Math.max(width, height) / (2 * Variant.MEDIUM.maxSide));
+                ImageReadParam param = reader.getDefaultReadParam();
+                param.setSourceSubsampling(step, step, 0, 0);
+                return reader.read(0, param);
+            } catch (MongoException e) {
+                throw e;  // reading from GridFS failed; worth another try later
+            } catch (IOException | RuntimeException e) {
+                return null;  // corrupt or truncated: retrying will not help
+            } finally {
+                reader.dispose();
+            }
+        }
+    }
+
+    // Fits within maxSide x maxSide, never upscales, flattens transparency onto white for JPEG
+    private static BufferedImage resize(BufferedImage source, int maxSide) {
+        double scale = Math.min(1.0, (double) maxSide / Math.max(source.getWidth(), source.getHeight()));
+        int width = Math.max(1, (int) Math.round(source.getWidth() * scale));
+        int height = Math.max(1, (int) Math.round(source.getHeight() * scale));
+
+        BufferedImage target = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        Graphics2D g = target.createGraphics();
+        try {
+            g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            g.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+            g.setColor(Color.WHITE);
+            g.fillRect(0, 0, width, height);
+            g.drawImage(source, 0, 0, width, height, null);
+        } finally {
+            g.dispose();
+        }
+        return target;
+    }
+
+    /**
+     * Keep the variant directory under its byte budget by deleting the least recently
+     * served files; evicted variants are regenerated on their next request.
+     */
+    @Scheduled(fixedDelayString = "${plusone.photos.variant-cache.prune-interval-ms:300000}")
+    public void pruneVariantCache() {
+        try {
+            List<Path> files = new ArrayList<>();
+            long total = 0;
+            try (Stream<Path> listing = Files.list(variantDir)) {
+                for (Path path : (Iterable<Path>) listing::iterator) {
+                    if (path.getFileName().toString().endsWith(".jpg")) {
+                        files.add(path);
+                        total += Files.size(path);
+                    }
+                }
+            }
+            if (total <= maxVariantBytes) {
+                return;
+            }
+            files.sort(Comparator.comparing(PhotoService::lastModified));
+            long target = maxVariantBytes - maxVariantBytes / 10;  // some headroom so we do not prune every run
+            for (Path path : files) {
+                if (total <= target) {
+                    break;
+                }
+                long size = Files.size(path);
+                if (Files.deleteIfExists(path)) {
+                    total -= size;
+                }
+            }
+        } catch (IOException e) {
+            System.err.println("Error pruning photo variant cache: " + e.getMessage());
+        }
+    }
+
+    private static FileTime lastModified(Path path) {
+        try {
+            return Files.getLastModifiedTime(path);
+        } catch (IOException e) {
+            return FileTime.fromMillis(0);
+        }
+    }
+
+    private GridFSFile find(String id) {
+        if (!ObjectId.isValid(id)) {
+            return null;
+        }
+        return gridFsTemplate.findOne(new Query(Criteria.where("_id").is(new ObjectId(id))));
+    }
+
+    private Path variantPath(String id, Variant variant) {
+        return variantDir.resolve(id + "-" + variant.param() + ".jpg");
+    }
+
+    // Empty file recording that the photo could not be decoded; not touched by the pruner
+    private Path failedMarkerPath(String id) {
+        return variantDir.resolve(id + ".failed");
+    }
+
+    // Strong: the content hash, plus the variant (whose bytes derive only from it)
+    private static String etagOf(GridFSFile file, Variant variant) {
+        Document metadata = file.getMetadata();
+        String hash = metadata != null ? metadata.getString("sha256") : null;
+        String base = hash != null ? hash : file.getObjectId().toHexString();
+        return "\"" + base + (variant != null ? "-" + variant.param() : "") + "\"";
+    }
+
+    private static MessageDigest newSha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    public static class PhotoTooLargeException extends IOException {
+        PhotoTooLargeException() {
+            super("Photo too large");
+        }
+    }
+
+    private static final class LimitedInputStream extends FilterInputStream {
+        private long remaining;
+
+        LimitedInputStream(InputStream in, long limit) {
+            super(in);
+            this.remaining = limit;
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = super.read();
+            if (b >= 0 && --remaining < 0) {
+                throw new PhotoTooLargeException();
+            }
+            return b;
+        }
+
+        @Override
+        public int read(byte[] buffer, int offset, int length) throws IOException {
+            int n = super.read(buffer, offset, length);
+            if (n > 0 && (remaining -= n) < 0) {
+                throw new PhotoTooLargeException();
+            }
+            return n;
+        }
+    }
+
+    /**
+     * A GridFS file that opens a fresh download stream on every read, so Spring can
+     * serve it once per requested byte range.
+     */
+    private final class GridFsPhotoResource extends AbstractResource {
+        private final GridFSFile file;
+
+        GridFsPhotoResource(GridFSFile file) {
+            this.file = file;
+        }
+
+        @Override
+        public InputStream getInputStream() throws IOException {
+            return gridFsTemplate.getResource(file).getInputStream();
+        }
+
+        @Override
+        public long contentLength() {
+            return file.getLength();
+        }
+
+        @Override
+        public long lastModified() {
+            return file.getUploadDate().getTime();
+        }
+
+        @Override
+        public String getFilename() {
+            return file.getFilename();
+        }
+
+        @Override
+        public String getDescription() {
+            return "GridFS photo " + file.getObjectId().toHexString();
+        }
+    }
+}
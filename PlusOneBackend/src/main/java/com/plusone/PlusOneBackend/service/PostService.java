@@ -0,0 +1,314 @@
+package com.plusone.PlusOneBackend.service;
+
+import com.plusone.PlusOneBackend.dto.PostPage;
+import com.plusone.PlusOneBackend.dto.PostPatchRequest;
+import com.plusone.PlusOneBackend.model.Post;
+import com.plusone.PlusOneBackend.model.TimelineEntry;
+import com.plusone.PlusOneBackend.repository.PostRepository;
+import org.bson.types.ObjectId;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Pages through a user's posts newest first with a keyset cursor on (createdAt, _id),
+ * served by the user_created index on Post. Unlike skip/limit, each page costs the
+ * same no matter how deep it is, and posts created between requests do not shift
+ * later pages.
+ *
+ * The connections feed uses the same cursor over one $in query on the viewer's
+ * connection ids. Each author is a descending range of the user_created index, so the
+ * server merges those ranges by (createdAt, _id) instead of sorting: a page fetches at
+ * most limit + 1 posts however many connections the viewer has, and no query is issued
+ * per connection.
+ *
+ * Category feeds page the same way over the category_created index. Their first page,
+ * which nearly every visitor loads, is served from {@link CategoryFeedCache}.
+ *
+ * With timeline fan-out enabled (see {@link TimelineService}) the feed is instead the
+ * reader's materialized timeline merged with a pull of the few highly connected
+ * connections that are not fanned out.
+ */
+@Service
+public class PostService {
+
+    public static final int DEFAULT_PAGE_SIZE = 10;
+    public static final int MAX_PAGE_SIZE = 50;
+
+    private static final Comparator<Post> NEWEST_FIRST =
+        Comparator.comparing(Post::getCreatedAt).thenComparing(Post::getId).reversed();
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Autowired
+    private PostRepository postRepository;
+
+    @Autowired
+    private ConnectionGraph connectionGraph;
+
+    @Autowired
+    private TimelineService timelineService;
+
+    @Autowired
+    private CategoryFeedCache categoryFeedCache;
+
+    /**
+     * One page of the user's posts. Pass the previous page's nextCursor to continue;
+     * a null or blank cursor starts from the newest post.
+     */
+    public PostPage getUserPosts(String userId, String cursor, int limit) {
+        int pageSize = pageSize(limit);
+        return toPage(findPage(Criteria.where("userId").is(userId), positionOf(cursor), pageSize + 1), pageSize);
+    }
+
+    /**
+     * One page of posts by the user's connections, newest first, with the same cursor
+     * semantics as {@link #getUserPosts}. The user's own posts are not included.
+     */
+    public PostPage getConnectionsFeed(String userId, String cursor, int limit) {
+        int pageSize = pageSize(limit);
+        Position after = positionOf(cursor);
+        List<String> authorIds = connectionGraph.connectionIdsOf(userId);
+        if (authorIds.isEmpty()) {
+            return PostPage.builder().posts(List.of()).build();
+        }
+        List<Post> rows = timelineService.isEnabled() && connectionGraph.isLoaded()
+            ? findTimelinePage(userId, authorIds, after, pageSize + 1)
+            : findPage(Criteria.where("userId").in(authorIds), after, pageSize + 1);
+        return toPage(rows, pageSize);
+    }
+
+    /**
+     * One page of a category's posts, newest first, optionally leaving out one author
+     * (usually the viewer). The category is matched case-insensitively.
+     *
+     * @throws IllegalArgumentException for an unknown category or malformed cursor
+     */
+    public PostPage getCategoryFeed(String category, String excludeUserId, String cursor, int limit) {
+        String canonical = canonicalCategory(category);
+        if (canonical == null) {
+            throw new IllegalArgumentException("Unknown category");
+        }
+        int pageSize = pageSize(limit);
+        Position after = positionOf(cursor);
+        String excluded = excludeUserId != null && !excludeUserId.isBlank() ? excludeUserId : null;
+
+        if (after == null) {
+            List<Post> hot = categoryFeedCache.hotRows(canonical,
+                key -> findPage(Criteria.where("category").is(key), null, CategoryFeedCache.HOT_ROWS));
+            List<Post> rows = hot.stream()
+                .filter(post -> excluded == null || !excluded.equals(post.getUserId()))
+                .limit(pageSize + 1)
+                .toList();
+            // Short only if the excluded author used up the spare rows; then ask MongoDB
+            if (rows.size() > pageSize || hot.size() < CategoryFeedCache.HOT_ROWS) {
+                return toPage(rows, pageSize);
+            }
+        }
+
+        Criteria criteria = Criteria.where("category").is(canonical);
+        if (excluded != null) {
+            criteria = criteria.and("userId").ne(excluded);
+        }
+        return toPage(findPage(criteria, after, pageSize + 1), pageSize);
+    }
+
+    /**
+     * The stored spelling of a category, or null for no (or a blank) category.
+     *
+     * @throws IllegalArgumentException if the category is not one of {@link Post#CATEGORIES}
+     */
+    public static String canonicalCategory(String category) {
+        if (category == null || category.isBlank()) {
+            return null;
+        }
+        for (String known : Post.CATEGORIES) {
+            if (known.equalsIgnoreCase(category.trim())) {
+                return known;
+            }
+        }
+        throw new IllegalArgumentException("Unknown category");
+    }
+
+    /**
+     * Hybrid feed: timeline entries for fanned-out authors, a pull query for the rest.
+     * The timeline is only complete above the reader's horizon, so once its entries run
+     * out the fanned-out authors are pulled too, from the oldest entry down.
+     */
+    private List<Post> findTimelinePage(String userId, List<String> authorIds, Position after, int rows) {
+        List<String> pushedAuthors = new ArrayList<>();
+        List<String> pulledAuthors = new ArrayList<>();
+        for (String authorId : authorIds) {
+            (timelineService.isPulled(authorId, connectionGraph.degreeOf(authorId)) ? pulledAuthors : pushedAuthors).add(authorId);
+        }
+
+        List<TimelineEntry> entries = timelineService.entriesBefore(userId,
+            after != null ? after.createdAt() : null, after != null ? after.id().toHexString() : null, rows);
+        List<Post> candidates = new ArrayList<>(findByIds(entries));  // deleted posts drop out here
+        if (!pulledAuthors.isEmpty()) {
+            candidates.addAll(findPage(Criteria.where("userId").in(pulledAuthors), after, rows));
+        }
+        if (entries.size() < rows && !pushedAuthors.isEmpty()) {
+            TimelineEntry oldest = entries.isEmpty() ? null : entries.get(entries.size() - 1);
+            Position tail = oldest == null ? after : new Position(oldest.getCreatedAt(), new ObjectId(oldest.getPostId()));
+            candidates.addAll(findPage(Criteria.where("userId").in(pushedAuthors), tail, rows));
+        }
+
+        // An author who crossed the fan-out threshold can show up from both sides
+        Map<String, Post> unique = new LinkedHashMap<>();
+        for (Post post : candidates) {
+            unique.putIfAbsent(post.getId(), post);
+        }
+        return unique.values().stream()
+            .sorted(NEWEST_FIRST)
+            .limit(rows)
+            .toList();
+    }
+
+    private List<Post> findByIds(List<TimelineEntry> entries) {
+        if (entries.isEmpty()) {
+            return List.of();
+        }
+        List<ObjectId> ids = entries.stream().map(entry -> new ObjectId(entry.getPostId())).toList();
+        return mongoTemplate.find(new Query(Criteria.where("_id").in(ids)), Post.class);
+    }
+
+    private List<Post> findPage(Criteria filter, Position after, int rows) {
+        Criteria criteria = filter;
+        if (after != null) {
+            criteria = criteria.orOperator(
+                Criteria.where("createdAt").lt(after.createdAt()),
+                Criteria.where("createdAt").is(after.createdAt()).and("_id").lt(after.id())
+            );
+        }
+
+        Query query = new Query(criteria)
+            .with(Sort.by(Sort.Direction.DESC, "createdAt", "_id"))
+            .limit(rows);
+        return mongoTemplate.find(query, Post.class);
+    }
+
+    // rows holds one extra post, which tells us whether another page exists
+    private static PostPage toPage(List<Post> rows, int pageSize) {
+        List<Post> posts = new ArrayList<>(rows);
+        String nextCursor = null;
+        if (posts.size() > pageSize) {
+            posts = new ArrayList<>(posts.subList(0, pageSize));
+            nextCursor = encodeCursor(posts.get(pageSize - 1));
+        }
+
+        return PostPage.builder()
+            .posts(posts)
+            .nextCursor(nextCursor)
+            .build();
+    }
+
+    private static int pageSize(int limit) {
+        return Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+    }
+
+    /**
+     * Give a post written before versioning (see PostVersionMigration) version 0 so that a
+     * full save updates it instead of attempting an insert.
+     *
+     * @return the version the post now has unless someone else wrote it in between
+     */
+    public long initVersion(String id) {
+        mongoTemplate.updateFirst(
+            new Query(Criteria.where("_id").is(id).and("version").exists(false)),
+            Update.update("version", 0L),
+            Post.class);
+        return 0L;
+    }
+
+    /**
+     * Apply a partial update in one findAndModify: a $set of the changed fields (never
+     * userId or createdAt) plus a version bump, matched on the expected version when the
+     * request carries one.
+     *
+     * @return the updated post, or null if there is no post with that id
+     * @throws IllegalArgumentException if nothing would change or the category is unknown
+     * @throws OptimisticLockingFailureException if the post changed since that version
+     */
+    public Post patchPost(String id, PostPatchRequest patch) {
+        Update update = new Update();
+        if (patch.getCategory() != null) {
+            update.set("category", canonicalCategory(patch.getCategory()));
+        }
+        if (patch.getTitle() != null) {
+            update.set("title", patch.getTitle());
+        }
+        if (patch.getDescription() != null) {
+            update.set("description", patch.getDescription());
+        }
+        if (patch.getImageUrl() != null) {
+            if (patch.getImageUrl().isEmpty()) {
+                update.unset("imageUrl");
+            } else {
+                update.set("imageUrl", patch.getImageUrl());
+            }
+        }
+        if (update.getUpdateObject().isEmpty()) {
+            throw new IllegalArgumentException("Nothing to update");
+        }
+        update.inc("version", 1);
+
+        Criteria criteria = Criteria.where("_id").is(id);
+        if (patch.getVersion() != null) {
+            criteria = criteria.and("version").is(patch.getVersion());
+        }
+        Post updated = mongoTemplate.findAndModify(new Query(criteria), update,
+            FindAndModifyOptions.options().returnNew(true), Post.class);
+
+        // Only a miss needs the extra read, to tell a stale version from a missing post
+        if (updated == null && patch.getVersion() != null && postRepository.existsById(id)) {
+            throw new OptimisticLockingFailureException("Post " + id + " was modified since version " + patch.getVersion());
+        }
+        return updated;
+    }
+
+    public long countUserPosts(String userId) {
+        return postRepository.countByUserId(userId);
+    }
+
+    record Position(Instant createdAt, ObjectId id) {
+    }
+
+    // Opaque to clients: base64url of "<createdAt epoch millis>:<post id>"
+    static String encodeCursor(Post post) {
+        String raw = post.getCreatedAt().toEpochMilli() + ":" + post.getId();
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static Position positionOf(String cursor) {
+        return cursor != null && !cursor.isBlank() ? decodeCursor(cursor) : null;
+    }
+
+    static Position decodeCursor(String cursor) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separator = raw.indexOf(':');
+            return new Position(
+                Instant.ofEpochMilli(Long.parseLong(raw.substring(0, separator))),
+                new ObjectId(raw.substring(separator + 1)));
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+    }
+}
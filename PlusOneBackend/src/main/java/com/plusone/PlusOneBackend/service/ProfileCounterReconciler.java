@@ -0,0 +1,154 @@
+package com.plusone.PlusOneBackend.service;
+
+import com.plusone.PlusOneBackend.model.Connection;
+import com.plusone.PlusOneBackend.model.ConnectionRequest;
+import com.plusone.PlusOneBackend.model.User;
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+/**
+ * Periodically recounts connections and pending requests and repairs
+ * profile.numConnections / profile.numRequests where they drifted (failed $inc,
+ * manual data fixes, documents written before the counters existed).
+ */
+@Component
+public class ProfileCounterReconciler {
+
+    private static final Logger log = LoggerFactory.getLogger(ProfileCounterReconciler.class);
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Autowired
+    private ProfileResponseCache profileResponseCache;
+
+    @Scheduled(initialDelayString = "${plusone.counters.reconcile-initial-delay-ms:30000}",
+               fixedDelayString = "${plusone.counters.reconcile-interval-ms:3600000}")
+    public void reconcile() {
+        try {
+            Map<String, Integer> connections = countConnectionsPerUser();
+            Map<String, Integer> pendingRequests = countPendingRequestsPerUser();
+
+            Query query = new Query();
+            query.fields().include("profile.numConnections", "profile.numRequests");
+
+            List<String> drifted = new ArrayList<>();
+            try (Stream<User> users = mongoTemplate.stream(query, User.class)) {
+                for (User user : (Iterable<User>) users::iterator) {
+                    int expectedConnections = connections.getOrDefault(user.getId(), 0);
+                    int expectedRequests = pendingRequests.getOrDefault(user.getId(), 0);
+                    if (user.getNumConnections() != expectedConnections || user.getNumRequests() != expectedRequests) {
+                        drifted.add(user.getId());
+                    }
+                }
+            }
+
+            // The aggregation above may be older than the counters it is compared with, so
+            // each candidate is recounted and only written if its counters are unchanged
+            // since we read them; a concurrent $inc makes the write miss and the next run retries.
+            BulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, User.class);
+            List<String> repaired = new ArrayList<>();
+            for (String userId : drifted) {
+                Repair repair = repairFor(userId);
+                if (repair != null) {
+                    bulk.updateOne(repair.ifUnchanged(), repair.update());
+                    repaired.add(userId);
+                }
+            }
+
+            if (!repaired.isEmpty()) {
+                int modified = bulk.execute().getModifiedCount();
+                profileResponseCache.invalidateAll(repaired);
+                log.info("Repaired profile counters for {} users ({} changed concurrently, retrying next run)",
+                    modified, repaired.size() - modified);
+            }
+        } catch (Exception e) {
+            System.err.println("Profile counter reconciliation failed: " + e.getMessage());
+        }
+    }
+
+    /** A counter fix, applied only while the counters still hold the values it was computed from. */
+    private record Repair(Query ifUnchanged, Update update) {}
+
+    /**
+     * Reads the user's counters as stored right now and recounts their connections and
+     * pending requests. Returns null if they already agree or the user is gone.
+     */
+    private Repair repairFor(String userId) {
+        // Read raw so a counter that was never written shows up as missing rather than 0
+        Query current = new Query(Criteria.where("_id").is(ObjectId.isValid(userId) ? new ObjectId(userId) : userId));
+        current.fields().include("profile.numConnections", "profile.numRequests");
+        Document user = mongoTemplate.findOne(current, Document.class, mongoTemplate.getCollectionName(User.class));
+        if (user == null) {
+            return null;
+        }
+        Document profile = user.get("profile", Document.class);
+        Object numConnections = profile != null ? profile.get("numConnections") : null;
+        Object numRequests = profile != null ? profile.get("numRequests") : null;
+
+        long expectedConnections = mongoTemplate.count(new Query(new Criteria().orOperator(
+            Criteria.where("user1Id").is(userId), Criteria.where("user2Id").is(userId))), Connection.class);
+        long expectedRequests = mongoTemplate.count(new Query(
+            Criteria.where("toUserId").is(userId).and("status").is("PENDING")), ConnectionRequest.class);
+        if (numConnections instanceof Number c && c.longValue() == expectedConnections
+                && numRequests instanceof Number r && r.longValue() == expectedRequests) {
+            return null;
+        }
+
+        Query ifUnchanged = new Query(Criteria.where("_id").is(userId)
+            .andOperator(hasValue("profile.numConnections", numConnections), hasValue("profile.numRequests", numRequests)));
+        return new Repair(ifUnchanged, new Update()
+            .set("profile.numConnections", (int) expectedConnections)
+            .set("profile.numRequests", (int) expectedRequests));
+    }
+
+    private static Criteria hasValue(String field, Object value) {
+        return value == null ? Criteria.where(field).exists(false) : Criteria.where(field).is(value);
+    }
+
+    private Map<String, Integer> countConnectionsPerUser() {
+        Map<String, Integer> counts = new HashMap<>();
+        for (String side : new String[] {"user1Id", "user2Id"}) {
+            Aggregation aggregation = Aggregation.newAggregation(Aggregation.group(side).count().as("count"));
+            toCountMap(mongoTemplate.aggregate(aggregation, Connection.class, Document.class).getMappedResults())
+                .forEach((userId, count) -> counts.merge(userId, count, Integer::sum));
+        }
+        return counts;
+    }
+
+    private Map<String, Integer> countPendingRequestsPerUser() {
+        Aggregation aggregation = Aggregation.newAggregation(
+            Aggregation.match(Criteria.where("status").is("PENDING")),
+            Aggregation.group("toUserId").count().as("count")
+        );
+        return toCountMap(mongoTemplate.aggregate(aggregation, ConnectionRequest.class, Document.class).getMappedResults());
+    }
+
+    private Map<String, Integer> toCountMap(Iterable<Document> results) {
+        Map<String, Integer> counts = new HashMap<>();
+        for (Document result : results) {
+            Object id = result.get("_id");
+            if (id != null) {
+                counts.put(id.toString(), ((Number) result.get("count")).intValue());
+            }
+        }
+        return counts;
+    }
+}
@@ -0,0 +1,98 @@
+package com.plusone.PlusOneBackend.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.plusone.PlusOneBackend.dto.CacheStats;
+import com.plusone.PlusOneBackend.dto.ProfileResponse;
+import com.plusone.PlusOneBackend.model.Post;
+import com.plusone.PlusOneBackend.model.Profile;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.function.Function;
+
+import static com.plusone.PlusOneBackend.service.CacheWeights.chars;
+
+/**
+ * Assembled profile responses by userId. Bounded by an estimate of their heap size
+ * rather than an entry count, since a profile with a page of long posts is many times
+ * larger than an empty one. Caffeine evicts with W-TinyLFU (recency plus frequency).
+ *
+ * Entries expire after a TTL as a safety net, but every write that changes what a
+ * profile shows (profile edits, posts, connection requests, counter repairs) must
+ * call {@link #invalidate(String)} for the affected users.
+ */
+@Component
+public class ProfileResponseCache {
+
+    private final Cache<String, ProfileResponse> cache;
+    private final long maxWeightBytes;
+
+    public ProfileResponseCache(
+            @Value("${plusone.profile-cache.max-bytes:33554432}") long maxWeightBytes,
+            @Value("${plusone.profile-cache.ttl:10m}") Duration ttl) {
+        this.maxWeightBytes = maxWeightBytes;
+        this.cache = Caffeine.newBuilder()
+            .maximumWeight(maxWeightBytes)
+            .weigher((String userId, ProfileResponse response) -> estimateBytes(response))
+            .expireAfterWrite(ttl)
+            .recordStats()
+            .build();
+    }
+
+    public ProfileResponse get(String userId, Function<String, ProfileResponse> loader) {
+        return cache.get(userId, loader);
+    }
+
+    public void invalidate(String userId) {
+        if (userId != null) {
+            cache.invalidate(userId);
+        }
+    }
+
+    public void invalidateAll(Iterable<String> userIds) {
+        cache.invalidateAll(userIds);
+    }
+
+    public CacheStats stats() {
+        return CacheWeights.statsOf(cache, maxWeightBytes);
+    }
+
+    /**
+     * Rough heap footprint: a fixed allowance for the object graph plus two bytes per
+     * character of every string in it.
+     */
+    static int estimateBytes(ProfileResponse response) {
+        long bytes = 512 + chars(response.getUserId()) + chars(response.getFirstName()) + chars(response.getLastName());
+
+        Profile profile = response.getProfile();
+        if (profile != null) {
+            bytes += 256;
+            if (profile.getLocation() != null) {
+                bytes += chars(profile.getLocation().getCity()) + chars(profile.getLocation().getState())
+                    + chars(profile.getLocation().getCountry());
+            }
+            if (profile.getJob() != null) {
+                bytes += chars(profile.getJob().getTitle()) + chars(profile.getJob().getCompaniesName());
+            }
+            if (profile.getProfilePhoto() != null) {
+                bytes += chars(profile.getProfilePhoto().getUrl());
+            }
+            if (profile.getInterests() != null) {
+                for (String interest : profile.getInterests()) {
+                    bytes += 48 + chars(interest);
+                }
+            }
+        }
+
+        if (response.getPosts() != null) {
+            for (Post post : response.getPosts()) {
+                bytes += CacheWeights.post(post);
+            }
+        }
+        bytes += chars(response.getPostsNextCursor());
+
+        return CacheWeights.capped(bytes);
+    }
+}
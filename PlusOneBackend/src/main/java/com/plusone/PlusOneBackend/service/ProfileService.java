@@ -1,20 +1,20 @@
 package com.plusone.PlusOneBackend.service;
 
+import com.plusone.PlusOneBackend.dto.PostPage;
 import com.plusone.PlusOneBackend.dto.ProfileResponse;
 import com.plusone.PlusOneBackend.dto.ProfileUpdateRequest;
-import com.plusone.PlusOneBackend.model.Post;
 import com.plusone.PlusOneBackend.model.Profile;
 import com.plusone.PlusOneBackend.model.User;
-import com.plusone.PlusOneBackend.repository.ConnectionRepository;
-import com.plusone.PlusOneBackend.repository.ConnectionRequestRepository;
-import com.plusone.PlusOneBackend.repository.PostRepository;
 import com.plusone.PlusOneBackend.repository.UserRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
 import org.springframework.stereotype.Service;
 
 import java.time.LocalDateTime;
 import java.util.ArrayList;
-import java.util.List;
 import java.util.Optional;
 
 @Service
@@ -27,26 +27,34 @@ public class ProfileService {
     private UserRepository userRepository;
 
     @Autowired
-    private ConnectionRepository connectionRepository;
+    private MongoTemplate mongoTemplate;
 
     @Autowired
-    private ConnectionRequestRepository connectionRequestRepository;
+    private PostService postService;
 
     @Autowired
-    private PostRepository postRepository;
+    private UserIndexRegistry userIndexRegistry;
+
+    @Autowired
+    private ProfileResponseCache profileResponseCache;
+
+    @Autowired
+    private SearchResultCache searchResultCache;
 
     /**
-     * Get user profile with counts.
+     * Get user profile with counts and the first page of posts. Connection and request
+     * counts come from the counters kept on the profile (see ConnectionService and
+     * ProfileCounterReconciler); later pages of posts come from GET /api/posts.
+     * Served from {@link ProfileResponseCache} when possible.
      */
     public ProfileResponse getProfile(String userId) {
-        User user = findUserOrThrow(userId);
-
-        int connectionsCount = getConnectionsCount(userId);
-        int requestsCount = getPendingRequestsCount(userId);
+        return profileResponseCache.get(userId, this::loadProfile);
+    }
 
-        List<Post> posts = getUserPosts(userId);
+    private ProfileResponse loadProfile(String userId) {
+        User user = findUserOrThrow(userId);
 
-        return buildProfileResponse(user, connectionsCount, requestsCount, posts);
+        return buildProfileResponse(user, getFirstPostPage(userId), countPosts(userId));
     }
 
     /**
@@ -58,23 +66,56 @@ public class ProfileService {
         }
 
         User user = findUserOrThrow(userId);
+        Profile previousProfile = user.getProfile();
 
         if (updateRequest.getProfile() != null) {
             Profile sanitizedProfile = sanitizeProfile(updateRequest.getProfile());
+            // Counters are maintained server-side; never take them from the client
+            sanitizedProfile.setNumConnections(user.getNumConnections());
+            sanitizedProfile.setNumRequests(user.getNumRequests());
             user.setProfile(sanitizedProfile);
         }
 
         applyOnboardingUpdates(user, updateRequest.getStep(), updateRequest.getCompleted());
 
         user.setUpdatedAt(LocalDateTime.now());
-        userRepository.save(user);
-
-        int connectionsCount = getConnectionsCount(userId);
-        int requestsCount = getPendingRequestsCount(userId);
+        saveProfileAndOnboarding(user, updateRequest.getProfile() != null);
+        userIndexRegistry.onUserChanged(user);
+        if (updateRequest.getProfile() != null) {
+            // After re-indexing: pages cached from the old index are dropped here, and a search
+            // still running against it is discarded by the cache when it finishes
+            searchResultCache.onProfileChanged(previousProfile, user.getProfile());
+        }
 
-        List<Post> posts = getUserPosts(userId);
+        // Not cached: the counters were read before the $set, and a concurrent $inc may
+        // already have invalidated the entry. The next read loads fresh counts.
+        profileResponseCache.invalidate(userId);
+        return buildProfileResponse(user, getFirstPostPage(userId), countPosts(userId));
+    }
 
-        return buildProfileResponse(user, connectionsCount, requestsCount, posts);
+    /**
+     * Write the editable profile fields with $set rather than saving the whole document,
+     * so concurrent $inc updates to the profile counters are not overwritten.
+     */
+    private void saveProfileAndOnboarding(User user, boolean profileChanged) {
+        Update update = new Update()
+            .set("onboarding", user.getOnboarding())
+            .set("updatedAt", user.getUpdatedAt());
+
+        if (profileChanged) {
+            Profile profile = user.getProfile();
+            update.set("profile.gender", profile.getGender())
+                .set("profile.age", profile.getAge())
+                .set("profile.location", profile.getLocation())
+                .set("profile.geoLocation", profile.getGeoLocation())
+                .set("profile.job", profile.getJob())
+                .set("profile.interests", profile.getInterests())
+                .set("profile.normalizedInterests", profile.getNormalizedInterests())
+                .set("profile.interestTokens", profile.getInterestTokens())
+                .set("profile.profilePhoto", profile.getProfilePhoto());
+        }
+
+        mongoTemplate.updateFirst(new Query(Criteria.where("_id").is(user.getId())), update, User.class);
     }
 
     private User findUserOrThrow(String userId) {
@@ -113,6 +154,9 @@ public class ProfileService {
         } else {
             sanitized.setInterests(new ArrayList<>(sanitized.getInterests()));
         }
+        sanitized.setNormalizedInterests(InterestNormalizer.normalizeAll(sanitized.getInterests()));
+        sanitized.setInterestTokens(InterestNormalizer.wordTails(sanitized.getInterests()));
+        sanitized.setGeoLocation(NearbyUserService.pointOf(sanitized.getLocation()));
 
         if (sanitized.getNumConnections() < 0) {
             sanitized.setNumConnections(0);
@@ -149,34 +193,25 @@ public class ProfileService {
         user.setOnboarding(onboarding);
     }
 
-    private int getConnectionsCount(String userId) {
+    private PostPage getFirstPostPage(String userId) {
         try {
-            return connectionRepository.countConnectionsForUser(userId);
+            return postService.getUserPosts(userId, null, PostService.DEFAULT_PAGE_SIZE);
         } catch (Exception e) {
-            System.err.println("Error counting connections for user " + userId + ": " + e.getMessage());
-            return 0;
+            System.err.println("Error fetching posts for user " + userId + ": " + e.getMessage());
+            return new PostPage(new ArrayList<>(), null);
         }
     }
 
-    private int getPendingRequestsCount(String userId) {
+    private int countPosts(String userId) {
         try {
-            return connectionRequestRepository.countByToUserIdAndStatus(userId, "PENDING");
+            return (int) postService.countUserPosts(userId);
         } catch (Exception e) {
-            System.err.println("Error counting requests for user " + userId + ": " + e.getMessage());
+            System.err.println("Error counting posts for user " + userId + ": " + e.getMessage());
             return 0;
         }
     }
 
-    private List<Post> getUserPosts(String userId) {
-        try {
-            return postRepository.findByUserIdOrderByCreatedAtDesc(userId);
-        } catch (Exception e) {
-            System.err.println("Error fetching posts for user " + userId + ": " + e.getMessage());
-            return new ArrayList<>();
-        }
-    }
-
-    private ProfileResponse buildProfileResponse(User user, int connectionsCount, int requestsCount, List<Post> posts) {
+    private ProfileResponse buildProfileResponse(User user, PostPage posts, int postsCount) {
         Profile profile = user.getProfile() != null ? user.getProfile() : new Profile();
         User.Onboarding onboarding = user.getOnboarding();
         if (onboarding == null) {
@@ -187,10 +222,11 @@ public class ProfileService {
             .userId(user.getId())
             .firstName(user.getFirstName())
             .lastName(user.getLastName())
-            .connectionsCount(connectionsCount)
-            .requestsCount(requestsCount)
-            .postsCount(posts != null ? posts.size() : 0)
-            .posts(posts != null ? posts : new ArrayList<>())
+            .connectionsCount(Math.max(0, profile.getNumConnections()))
+            .requestsCount(Math.max(0, profile.getNumRequests()))
+            .postsCount(postsCount)
+            .posts(posts.getPosts())
+            .postsNextCursor(posts.getNextCursor())
             .profile(profile)
             .onboarding(ProfileResponse.OnboardingData.builder()
                 .completed(onboarding.isCompleted())
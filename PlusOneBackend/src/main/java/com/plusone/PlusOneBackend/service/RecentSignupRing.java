@@ -0,0 +1,85 @@
+package com.plusone.PlusOneBackend.service;
+
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Small in-process ring holding the ids of the newest signups, newest first.
+ * AuthService pushes every new user; the first homepage call seeds it from the
+ * createdAt index. Only ids are kept, so profile edits are always read fresh.
+ * Signups handled by other instances only show up after the next seed.
+ */
+@Component
+public class RecentSignupRing {
+
+    public static final int CAPACITY = 16;
+
+    private final String[] ids = new String[CAPACITY];
+    private int head = 0;   // slot the next push writes to
+    private int size = 0;
+    private boolean seeded = false;
+
+    /**
+     * Record a new signup as the newest entry.
+     */
+    public synchronized void push(String userId) {
+        if (userId == null) {
+            return;
+        }
+        remove(userId);
+        ids[head] = userId;
+        head = (head + 1) % CAPACITY;
+        size = Math.min(size + 1, CAPACITY);
+    }
+
+    /**
+     * Fill the ring from the database (newest first). Signups pushed before seeding stay on top.
+     */
+    public synchronized void seed(List<String> newestFirst) {
+        List<String> pushedSinceStart = snapshot();
+        head = 0;
+        size = 0;
+        for (int i = newestFirst.size() - 1; i >= 0; i--) {
+            push(newestFirst.get(i));
+        }
+        for (int i = pushedSinceStart.size() - 1; i >= 0; i--) {
+            push(pushedSinceStart.get(i));
+        }
+        seeded = true;
+    }
+
+    public synchronized boolean isSeeded() {
+        return seeded;
+    }
+
+    /**
+     * Ids currently held, newest first.
+     */
+    public synchronized List<String> newestFirst() {
+        return snapshot();
+    }
+
+    private List<String> snapshot() {
+        List<String> result = new ArrayList<>(size);
+        for (int i = 1; i <= size; i++) {
+            result.add(ids[Math.floorMod(head - i, CAPACITY)]);
+        }
+        return result;
+    }
+
+    private void remove(String userId) {
+        List<String> kept = snapshot();
+        if (!kept.remove(userId)) {
+            return;
+        }
+        head = 0;
+        size = 0;
+        for (int i = kept.size() - 1; i >= 0; i--) {
+            ids[head] = kept.get(i);
+            head = (head + 1) % CAPACITY;
+            size++;
+        }
+    }
+}
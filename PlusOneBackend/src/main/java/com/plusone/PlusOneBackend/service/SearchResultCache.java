@@ -0,0 +1,167 @@
+package com.plusone.PlusOneBackend.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.plusone.PlusOneBackend.dto.CacheStats;
+import com.plusone.PlusOneBackend.dto.FacetCount;
+import com.plusone.PlusOneBackend.dto.SearchFacets;
+import com.plusone.PlusOneBackend.dto.SearchFilters;
+import com.plusone.PlusOneBackend.dto.UserCardDto;
+import com.plusone.PlusOneBackend.dto.UserSearchPage;
+import com.plusone.PlusOneBackend.model.Profile;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+import static com.plusone.PlusOneBackend.service.CacheWeights.chars;
+
+/**
+ * Interest search result pages by normalized query, filters, cursor and page size, so
+ * popular searches ("running", "hiking") are answered without touching the index or
+ * MongoDB. Bounded by estimated heap size and a short TTL.
+ *
+ * Loads are single-flight: concurrent requests for the same key wait for one lookup
+ * instead of each running it. Profile edits that change a user's interests, company or
+ * city call {@link #onProfileChanged} to drop the pages that user could appear in.
+ */
+@Component
+public class SearchResultCache {
+
+    /**
+     * Everything a result page depends on, normalized so "Hiking " and "hiking" share an entry.
+     */
+    public record Key(String query, String interest, String company, String city, String afterUserId, int limit) {
+
+        public static Key of(String query, SearchFilters filters, String afterUserId, int limit) {
+            return new Key(
+                InterestNormalizer.normalize(query),
+                filters != null ? InterestNormalizer.normalize(filters.getInterest()) : "",
+                filters != null ? InterestNormalizer.normalize(filters.getCompany()) : "",
+                filters != null ? InterestNormalizer.normalize(filters.getCity()) : "",
+                afterUserId,
+                limit);
+        }
+    }
+
+    private final Cache<Key, UserSearchPage> cache;
+    private final long maxWeightBytes;
+    // Bumped by onProfileChanged; a load that overlapped a bump may have read the old index
+    private final AtomicLong profileChanges = new AtomicLong();
+
+    public SearchResultCache(
+            @Value("${plusone.search-cache.max-bytes:16777216}") long maxWeightBytes,
+            @Value("${plusone.search-cache.ttl:30s}") Duration ttl) {
+        this.maxWeightBytes = maxWeightBytes;
+        this.cache = Caffeine.newBuilder()
+            .maximumWeight(maxWeightBytes)
+            .weigher((Key key, UserSearchPage page) -> estimateBytes(page))
+            .expireAfterWrite(ttl)
+            .recordStats()
+            .build();
+    }
+
+    public UserSearchPage get(Key key, Function<Key, UserSearchPage> loader) {
+        long[] loadStartedAt = {-1};
+        UserSearchPage page = cache.get(key, k -> {
+            loadStartedAt[0] = profileChanges.get();
+            return loader.apply(k);
+        });
+        // onProfileChanged only sees finished entries, so drop one whose load it raced with
+        if (loadStartedAt[0] >= 0 && profileChanges.get() != loadStartedAt[0]) {
+            cache.invalidate(key);
+        }
+        return page;
+    }
+
+    public void invalidate(Key key) {
+        cache.invalidate(key);
+    }
+
+    /**
+     * Drop every page the user could have been (or now be) part of. Interest search
+     * matches word prefixes, so a page is affected when its query matches an interest
+     * that was added or removed, or in any of the user's interests when their
+     * company or city (which show up in facets and filters) changed.
+     */
+    public void onProfileChanged(Profile before, Profile after) {
+        Set<String> oldInterests = new HashSet<>(InterestNormalizer.normalizeAll(interestsOf(before)));
+        Set<String> newInterests = new HashSet<>(InterestNormalizer.normalizeAll(interestsOf(after)));
+
+        Set<String> affected = new HashSet<>();
+        boolean facetsChanged = !Objects.equals(companyOf(before), companyOf(after))
+            || !Objects.equals(cityOf(before), cityOf(after));
+        if (facetsChanged) {
+            affected.addAll(oldInterests);
+            affected.addAll(newInterests);
+        } else {
+            for (String interest : oldInterests) {
+                if (!newInterests.contains(interest)) {
+                    affected.add(interest);
+                }
+            }
+            for (String interest : newInterests) {
+                if (!oldInterests.contains(interest)) {
+                    affected.add(interest);
+                }
+            }
+        }
+        if (affected.isEmpty()) {
+            return;
+        }
+
+        profileChanges.incrementAndGet();
+        cache.asMap().keySet().removeIf(key -> affected.contains(key.interest())
+            || affected.stream().anyMatch(interest -> InterestNormalizer.matchesWordPrefix(interest, key.query())));
+    }
+
+    public CacheStats stats() {
+        return CacheWeights.statsOf(cache, maxWeightBytes);
+    }
+
+    private static List<String> interestsOf(Profile profile) {
+        return profile != null ? profile.getInterests() : null;
+    }
+
+    private static String companyOf(Profile profile) {
+        return profile != null && profile.getJob() != null ? InterestNormalizer.normalize(profile.getJob().getCompaniesName()) : "";
+    }
+
+    private static String cityOf(Profile profile) {
+        return profile != null && profile.getLocation() != null ? InterestNormalizer.normalize(profile.getLocation().getCity()) : "";
+    }
+
+    /**
+     * Rough heap footprint, in the same spirit as ProfileResponseCache.estimateBytes.
+     */
+    static int estimateBytes(UserSearchPage page) {
+        long bytes = 256 + chars(page.getNextCursor());
+        if (page.getUsers() != null) {
+            for (UserCardDto card : page.getUsers()) {
+                bytes += 96 + chars(card.getUserId()) + chars(card.getFirstName()) + chars(card.getLastName())
+                    + chars(card.getJobTitle()) + chars(card.getCompany()) + chars(card.getCity()) + chars(card.getPhotoUrl());
+                if (card.getInterests() != null) {
+                    for (String interest : card.getInterests()) {
+                        bytes += 8 + chars(interest);
+                    }
+                }
+            }
+        }
+        SearchFacets facets = page.getFacets();
+        if (facets != null) {
+            for (List<FacetCount> counts : Arrays.asList(facets.getInterests(), facets.getCompanies(), facets.getCities())) {
+                for (FacetCount count : counts != null ? counts : List.<FacetCount>of()) {
+                    bytes += 32 + chars(count.getValue());
+                }
+            }
+        }
+        return CacheWeights.capped(bytes);
+    }
+}
@@ -0,0 +1,289 @@
+package com.plusone.PlusOneBackend.service;
+
+import com.plusone.PlusOneBackend.model.User;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.SplittableRandom;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.IntStream;
+
+/**
+ * "People with similar interests": users ranked by Jaccard similarity of their
+ * normalized interest sets, found through MinHash locality-sensitive hashing.
+ *
+ * Each user's interest set gets a MinHash signature of {@value #HASHES} values; two
+ * users agree on any one value with probability equal to their Jaccard similarity. The
+ * signature is cut into {@value #BANDS} bands of {@value #ROWS} rows and users are
+ * bucketed per band, so candidates are the users sharing at least one bucket (most
+ * pairs above ~0.5 similarity do) rather than everyone. Candidates are ordered by how many bands
+ * they share, the best are scored exactly on their interest ids, in parallel when there
+ * are many, and the top results returned.
+ */
+@Component
+public class SimilarInterestsIndex implements UserIndexer {
+
+    static final int HASHES = 64;
+    static final int BANDS = 16;
+    static final int ROWS = HASHES / BANDS;
+    private static final int MAX_BUCKET_SCAN = 2_000;     // users read per bucket; popular sets share huge buckets
+    private static final int MAX_CANDIDATES = 1_000;      // scored exactly, most shared bands first
+    private static final int PARALLEL_THRESHOLD = 256;
+    private static final int[] NONE = new int[0];
+
+    private static final long[] HASH_MULTIPLIERS = new long[HASHES];
+    private static final long[] HASH_OFFSETS = new long[HASHES];
+
+    static {
+        SplittableRandom random = new SplittableRandom(0x5EED);
+        for (int i = 0; i < HASHES; i++) {
+            HASH_MULTIPLIERS[i] = random.nextLong() | 1;
+            HASH_OFFSETS[i] = random.nextLong();
+        }
+    }
+
+    @Autowired
+    private UserIdDictionary userIdDictionary;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    // Guarded by lock
+    private final Map<String, Integer> interestIds = new HashMap<>();
+    private int[][] interestsByUser = new int[0][];          // sorted interest ids per dense user
+    private final List<Map<Long, Bucket>> buckets = new ArrayList<>(BANDS);
+
+    /**
+     * A user id and their exact similarity to the query user.
+     */
+    public record Match(String userId, double similarity, int sharedInterests) {
+    }
+
+    /**
+     * Unordered dense user ids sharing one band value.
+     */
+    private static final class Bucket {
+        int[] users = new int[4];
+        int size = 0;
+
+        void add(int user) {
+            if (size == users.length) {
+                users = Arrays.copyOf(users, size * 2);
+            }
+            users[size++] = user;
+        }
+
+        void remove(int user) {
+            for (int i = 0; i < size; i++) {
+                if (users[i] == user) {
+                    users[i] = users[--size];
+                    return;
+                }
+            }
+        }
+    }
+
+    public SimilarInterestsIndex() {
+        for (int band = 0; band < BANDS; band++) {
+            buckets.add(new HashMap<>());
+        }
+    }
+
+    @Override
+    public void clear() {
+        lock.writeLock().lock();
+        try {
+            interestIds.clear();
+            interestsByUser = new int[0][];
+            buckets.forEach(Map::clear);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void index(User user) {
+        int denseId = userIdDictionary.idFor(user.getId());
+        List<String> interests = InterestNormalizer.normalizeAll(user.getInterests());
+
+        lock.writeLock().lock();
+        try {
+            int[] ids = interests.stream()
+                .mapToInt(interest -> interestIds.computeIfAbsent(interest, key -> interestIds.size()))
+                .distinct()
+                .sorted()
+                .toArray();
+            if (denseId >= interestsByUser.length) {
+                interestsByUser = Arrays.copyOf(interestsByUser,
+                    Math.max(denseId + 1, interestsByUser.length + (interestsByUser.length >> 1) + 16));
+            }
+            int[] old = interestsByUser[denseId] != null ? interestsByUser[denseId] : NONE;
+            if (Arrays.equals(old, ids)) {
+                return;
+            }
+
+            if (old.length > 0) {
+                long[] oldKeys = bandKeys(signature(old));
+                for (int band = 0; band < BANDS; band++) {
+                    Bucket bucket = buckets.get(band).get(oldKeys[band]);
+                    if (bucket != null) {
+                        bucket.remove(denseId);
+                        if (bucket.size == 0) {
+                            buckets.get(band).remove(oldKeys[band]);
+                        }
+                    }
+                }
+            }
+            if (ids.length > 0) {
+                long[] keys = bandKeys(signature(ids));
+                for (int band = 0; band < BANDS; band++) {
+                    buckets.get(band).computeIfAbsent(keys[band], key -> new Bucket()).add(denseId);
+                }
+            }
+            interestsByUser[denseId] = ids;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Up to limit users most similar to the given user, best first; users sharing no
+     * interest are never returned.
+     */
+    public List<Match> similarTo(String userId, int limit) {
+        int user = userIdDictionary.find(userId);
+        if (user < 0 || limit <= 0) {
+            return List.of();
+        }
+
+        lock.readLock().lock();
+        try {
+            int[] interests = user < interestsByUser.length ? interestsByUser[user] : null;
+            if (interests == null || interests.length == 0) {
+                return List.of();
+            }
+            int[] candidates = candidates(user, interests);
+
+            // Exact Jaccard on the candidates; workers only read arrays guarded by our read lock
+            IntStream scoring = Arrays.stream(candidates);
+            if (candidates.length >= PARALLEL_THRESHOLD) {
+                scoring = scoring.parallel();
+            }
+            long[] scored = scoring
+                .mapToLong(candidate -> packScore(shared(interests, interestsByUser[candidate]),
+                    interests.length, interestsByUser[candidate].length, candidate))
+                .filter(packed -> packed != 0)
+                .toArray();
+
+            // Min-heap keeps the best `limit`
+            PriorityQueue<Long> best = new PriorityQueue<>(limit + 1);
+            for (long packed : scored) {
+                best.add(packed);
+                if (best.size() > limit) {
+                    best.poll();
+                }
+            }
+            Match[] result = new Match[best.size()];
+            for (int i = result.length - 1; i >= 0; i--) {
+                long packed = best.poll();
+                int candidate = (int) (packed & 0xFFFFFFFFL);
+                int shared = shared(interests, interestsByUser[candidate]);
+                double similarity = (double) shared / (interests.length + interestsByUser[candidate].length - shared);
+                result[i] = new Match(userIdDictionary.userIdOf(candidate), similarity, shared);
+            }
+            return Arrays.asList(result);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // ---- internals (callers hold a lock) ----
+
+    // Users sharing a bucket with the user, most shared bands first, capped at MAX_CANDIDATES
+    private int[] candidates(int user, int[] interests) {
+        long[] keys = bandKeys(signature(interests));
+        IntIntHashMap sharedBands = new IntIntHashMap();
+        for (int band = 0; band < BANDS; band++) {
+            Bucket bucket = buckets.get(band).get(keys[band]);
+            if (bucket == null) {
+                continue;
+            }
+            for (int i = 0, scanned = Math.min(bucket.size, MAX_BUCKET_SCAN); i < scanned; i++) {
+                if (bucket.users[i] != user) {
+                    sharedBands.addTo(bucket.users[i], 1);
+                }
+            }
+        }
+
+        long[] ranked = new long[sharedBands.size()];
+        int[] count = {0};
+        sharedBands.forEach((candidate, bands) -> ranked[count[0]++] = (long) bands << 32 | candidate);
+        Arrays.sort(ranked);
+        int taken = Math.min(ranked.length, MAX_CANDIDATES);
+        int[] candidates = new int[taken];
+        for (int i = 0; i < taken; i++) {
+            candidates[i] = (int) (ranked[ranked.length - 1 - i] & 0xFFFFFFFFL);
+        }
+        return candidates;
+    }
+
+    /**
+     * Jaccard similarity as a sortable long: similarity in the high bits, then fewer
+     * interests first, then the candidate id. 0 when nothing is shared.
+     */
+    private static long packScore(int shared, int sizeA, int sizeB, int candidate) {
+        if (shared == 0) {
+            return 0;
+        }
+        long similarity = (long) ((double) shared / (sizeA + sizeB - shared) * 0xFFFFF);  // 20 bits
+        return similarity << 43 | (long) (0x7FF - Math.min(sizeB, 0x7FF)) << 32 | candidate;
+    }
+
+    private static int shared(int[] a, int[] b) {
+        int shared = 0;
+        for (int i = 0, j = 0; i < a.length && j < b.length; ) {
+            if (a[i] == b[j]) {
+                shared++;
+                i++;
+                j++;
+            } else if (a[i] < b[j]) {
+                i++;
+            } else {
+                j++;
+            }
+        }
+        return shared;
+    }
+
+    private static int[] signature(int[] interests) {
+        int[] signature = new int[HASHES];
+        Arrays.fill(signature, Integer.MAX_VALUE);
+        for (int interest : interests) {
+            for (int i = 0; i < HASHES; i++) {
+                long h = (interest + 1) * HASH_MULTIPLIERS[i] + HASH_OFFSETS[i];
+                h ^= h >>> 33;
+                h *= 0xFF51AFD7ED558CCDL;
+                h ^= h >>> 33;
+                signature[i] = Math.min(signature[i], (int) (h >>> 33));
+            }
+        }
+        return signature;
+    }
+
+    private static long[] bandKeys(int[] signature) {
+        long[] keys = new long[BANDS];
+        for (int band = 0; band < BANDS; band++) {
+            long key = 1125899906842597L;
+            for (int row = 0; row < ROWS; row++) {
+                key = 31 * key + signature[band * ROWS + row];
+            }
+            keys[band] = key;
+        }
+        return keys;
+    }
+}
@@ -0,0 +1,332 @@
+package com.plusone.PlusOneBackend.service;
+
+import com.plusone.PlusOneBackend.model.Post;
+import com.plusone.PlusOneBackend.model.TimelineEntry;
+import com.plusone.PlusOneBackend.model.TimelineHorizon;
+import com.plusone.PlusOneBackend.model.TimelinePulledAuthor;
+import com.mongodb.MongoBulkWriteException;
+import com.mongodb.bulk.BulkWriteError;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+
+/**
+ * Optional fan-out-on-write feeds ({@code plusone.timeline.fanout-enabled}). When a post
+ * is created, a background task writes a {@link TimelineEntry} into the timeline of each
+ * of the author's connections, so a reader's feed is one range of the owner_created
+ * index instead of a merge over every connection.
+ *
+ * Authors with more than {@code plusone.timeline.fanout-max-connections} connections
+ * are not fanned out; {@link PostService} pulls their posts at read time. Once one of an
+ * author's posts has been skipped that way they stay pulled for good (see
+ * {@link TimelinePulledAuthor}), so a later drop in connections cannot hide it.
+ *
+ * A timeline is only trusted above its owner's {@link TimelineHorizon}; below it feed
+ * pages fall back to pulling. The horizon starts at the owner's first feed read, which
+ * leaves posts from before fan-out was enabled below it, and only moves up: when the
+ * timeline is trimmed to the newest {@code plusone.timeline.max-entries} entries, and when
+ * a backfill copies only the newest of a new connection's posts.
+ */
+@Service
+public class TimelineService implements ConnectionGraph.Listener {
+
+    private static final int INSERT_BATCH_SIZE = 1000;
+    static final int BACKFILL_POSTS = 50;  // recent posts copied when two users connect
+    private static final int DUPLICATE_KEY = 11000;
+    private static final String MAX_POST_ID = "ffffffffffffffffffffffff";
+
+    private final MongoTemplate mongoTemplate;
+    private final ConnectionGraph connectionGraph;
+    private final UserIdDictionary userIdDictionary;
+    private final Executor executor;
+    private final boolean enabled;
+    private final int fanOutMaxConnections;
+    private final int maxEntries;
+
+    // Owners that received entries since the last trim
+    private final Set<String> untrimmed = ConcurrentHashMap.newKeySet();
+
+    // Mirror of timeline_pulled_authors, refreshed with the connection graph
+    private final Set<String> pulledAuthors = ConcurrentHashMap.newKeySet();
+
+    public TimelineService(
+            MongoTemplate mongoTemplate,
+            ConnectionGraph connectionGraph,
+            UserIdDictionary userIdDictionary,
+            @Qualifier("timelineFanOutExecutor") Executor executor,
+            @Value("${plusone.timeline.fanout-enabled:false}") boolean enabled,
+            @Value("${plusone.timeline.fanout-max-connections:1000}") int fanOutMaxConnections,
+            @Value("${plusone.timeline.max-entries:500}") int maxEntries) {
+        this.mongoTemplate = mongoTemplate;
+        this.connectionGraph = connectionGraph;
+        this.userIdDictionary = userIdDictionary;
+        this.executor = executor;
+        this.enabled = enabled;
+        this.fanOutMaxConnections = fanOutMaxConnections;
+        this.maxEntries = maxEntries;
+    }
+
+    @PostConstruct
+    void registerWithGraph() {
+        if (enabled) {
+            connectionGraph.addListener(this);
+            loadPulledAuthors();
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Whether the author's posts are pulled at read time rather than fanned out on write:
+     * they have too many connections now, or had when one of their posts was written.
+     */
+    public boolean isPulled(String authorId, int connections) {
+        return connections > fanOutMaxConnections || pulledAuthors.contains(authorId);
+    }
+
+    public void onPostCreated(Post post) {
+        if (enabled) {
+            executor.execute(() -> fanOut(post));
+        }
+    }
+
+    public void onPostDeleted(String postId) {
+        if (enabled) {
+            mongoTemplate.remove(new Query(Criteria.where("postId").is(postId)), TimelineEntry.class);
+        }
+    }
+
+    /**
+     * Up to rows entries of the owner's timeline strictly older than (createdAt, postId)
+     * and above the owner's horizon, newest first; a null createdAt starts from the
+     * newest entry. Every post by a fanned-out connection above the horizon is among them.
+     */
+    public List<TimelineEntry> entriesBefore(String ownerId, Instant createdAt, String postId, int rows) {
+        List<Criteria> bounds = new ArrayList<>(2);
+        if (createdAt != null) {
+            bounds.add(new Criteria().orOperator(
+                Criteria.where("createdAt").lt(createdAt),
+                Criteria.where("createdAt").is(createdAt).and("postId").lt(postId)
+            ));
+        }
+        TimelineHorizon horizon = horizonOf(ownerId);
+        bounds.add(new Criteria().orOperator(
+            Criteria.where("createdAt").gt(horizon.getCreatedAt()),
+            Criteria.where("createdAt").is(horizon.getCreatedAt()).and("postId").gt(horizon.getPostId())
+        ));
+        Query query = new Query(Criteria.where("ownerId").is(ownerId).andOperator(bounds))
+            .with(Sort.by(Sort.Direction.DESC, "createdAt", "postId"))
+            .limit(rows);
+        return mongoTemplate.find(query, TimelineEntry.class);
+    }
+
+    /**
+     * The owner's horizon, created at the current time on their first read. Entries written
+     * before then may have gaps (posts from before fan-out was enabled, partial backfills),
+     * so only what is fanned out from then on is trusted.
+     */
+    private TimelineHorizon horizonOf(String ownerId) {
+        TimelineHorizon horizon = mongoTemplate.findById(ownerId, TimelineHorizon.class);
+        if (horizon != null) {
+            return horizon;
+        }
+        Update start = new Update().setOnInsert("createdAt", Instant.now()).setOnInsert("postId", MAX_POST_ID);
+        return mongoTemplate.findAndModify(new Query(Criteria.where("_id").is(ownerId)), start,
+            FindAndModifyOptions.options().upsert(true).returnNew(true), TimelineHorizon.class);
+    }
+
+    private void fanOut(Post post) {
+        try {
+            List<String> readers = connectionGraph.connectionIdsOf(post.getUserId());
+            if (readers.isEmpty()) {
+                return;
+            }
+            if (isPulled(post.getUserId(), readers.size())) {
+                markPulled(post);
+                return;
+            }
+            List<TimelineEntry> entries = new ArrayList<>(Math.min(readers.size(), INSERT_BATCH_SIZE));
+            for (String reader : readers) {
+                entries.add(entryFor(reader, post));
+                if (entries.size() == INSERT_BATCH_SIZE) {
+                    insert(entries);
+                    entries.clear();
+                }
+            }
+            insert(entries);
+        } catch (Exception e) {
+            System.err.println("Timeline fan-out failed for post " + post.getId() + ": " + e.getMessage());
+            // Some readers may lack the post; pulling the author is the only way they see it
+            try {
+                markPulled(post);
+            } catch (Exception markFailed) {
+                System.err.println("Could not mark " + post.getUserId() + " as pulled: " + markFailed.getMessage());
+            }
+        }
+    }
+
+    private void markPulled(Post post) {
+        if (pulledAuthors.contains(post.getUserId())) {
+            return;
+        }
+        mongoTemplate.upsert(new Query(Criteria.where("_id").is(post.getUserId())),
+            new Update().setOnInsert("since", post.getCreatedAt()), TimelinePulledAuthor.class);
+        pulledAuthors.add(post.getUserId());
+    }
+
+    // Picks up authors marked by other instances
+    private void loadPulledAuthors() {
+        Query query = new Query();
+        query.fields().include("_id");
+        for (TimelinePulledAuthor author : mongoTemplate.find(query, TimelinePulledAuthor.class)) {
+            pulledAuthors.add(author.getAuthorId());
+        }
+    }
+
+    // New connections see each other's recent posts without waiting for the next one
+    @Override
+    public void onEdgeAdded(int a, int b) {
+        String userA = userIdDictionary.userIdOf(a);
+        String userB = userIdDictionary.userIdOf(b);
+        executor.execute(() -> {
+            try {
+                backfill(userA, userB);
+                backfill(userB, userA);
+            } catch (Exception e) {
+                System.err.println("Timeline backfill failed: " + e.getMessage());
+            }
+        });
+    }
+
+    @Override
+    public void onGraphReloaded() {
+        loadPulledAuthors();
+    }
+
+    private void backfill(String authorId, String readerId) {
+        if (isPulled(authorId, connectionGraph.degreeOf(authorId))) {
+            return;
+        }
+        Query query = new Query(Criteria.where("userId").is(authorId))
+            .with(Sort.by(Sort.Direction.DESC, "createdAt", "_id"))
+            .limit(BACKFILL_POSTS + 1);
+        query.fields().include("userId", "createdAt");
+        List<Post> posts = mongoTemplate.find(query, Post.class);
+        List<TimelineEntry> entries = new ArrayList<>();
+        for (Post post : posts.subList(0, Math.min(posts.size(), BACKFILL_POSTS))) {
+            entries.add(entryFor(readerId, post));
+        }
+        if (posts.size() > BACKFILL_POSTS) {
+            // The author's older posts are not copied, so they must come from the pull below the oldest that was
+            TimelineEntry oldest = entries.get(entries.size() - 1);
+            raiseHorizon(readerId, oldest.getCreatedAt(), oldest.getPostId());
+        }
+        insert(entries);
+    }
+
+    private static TimelineEntry entryFor(String ownerId, Post post) {
+        return TimelineEntry.builder()
+            .ownerId(ownerId)
+            .postId(post.getId())
+            .authorId(post.getUserId())
+            .createdAt(post.getCreatedAt())
+            .build();
+    }
+
+    // Unordered, so one duplicate (a retried fan-out or backfill) does not stop the rest
+    private void insert(List<TimelineEntry> entries) {
+        if (entries.isEmpty()) {
+            return;
+        }
+        try {
+            mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, TimelineEntry.class)
+                .insert(entries)
+                .execute();
+        } catch (DataAccessException e) {
+            if (!onlyDuplicates(e)) {
+                throw e;
+            }
+        }
+        for (TimelineEntry entry : entries) {
+            untrimmed.add(entry.getOwnerId());
+        }
+    }
+
+    private static boolean onlyDuplicates(DataAccessException e) {
+        if (!(e.getCause() instanceof MongoBulkWriteException bulk) || bulk.getWriteConcernError() != null) {
+            return false;
+        }
+        for (BulkWriteError error : bulk.getWriteErrors()) {
+            if (error.getCode() != DUPLICATE_KEY) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Move the owner's horizon up to (createdAt, postId) in one conditional update. It never
+     * moves down, and an owner without one is left alone: their first read starts it above
+     * every existing entry anyway.
+     */
+    private void raiseHorizon(String ownerId, Instant createdAt, String postId) {
+        Query below = new Query(Criteria.where("_id").is(ownerId).orOperator(
+            Criteria.where("createdAt").lt(createdAt),
+            Criteria.where("createdAt").is(createdAt).and("postId").lt(postId)
+        ));
+        mongoTemplate.updateFirst(below, new Update().set("createdAt", createdAt).set("postId", postId), TimelineHorizon.class);
+    }
+
+    /**
+     * Drop entries beyond the newest max-entries of every timeline written to since the
+     * last run: one indexed lookup for the boundary entry, one range delete, and the
+     * horizon moved up to the boundary.
+     */
+    @Scheduled(fixedDelayString = "${plusone.timeline.trim-interval-ms:10000}")
+    public void trimTimelines() {
+        if (untrimmed.isEmpty()) {
+            return;
+        }
+        List<String> owners = new ArrayList<>(untrimmed);
+        untrimmed.removeAll(owners);
+        for (String ownerId : owners) {
+            try {
+                Query boundaryQuery = new Query(Criteria.where("ownerId").is(ownerId))
+                    .with(Sort.by(Sort.Direction.DESC, "createdAt", "postId"))
+                    .skip(maxEntries)
+                    .limit(1);
+                TimelineEntry boundary = mongoTemplate.findOne(boundaryQuery, TimelineEntry.class);
+                if (boundary == null) {
+                    continue;
+                }
+                Criteria atOrBelow = Criteria.where("ownerId").is(ownerId).orOperator(
+                    Criteria.where("createdAt").lt(boundary.getCreatedAt()),
+                    Criteria.where("createdAt").is(boundary.getCreatedAt()).and("postId").lte(boundary.getPostId())
+                );
+                mongoTemplate.remove(new Query(atOrBelow), TimelineEntry.class);
+                raiseHorizon(ownerId, boundary.getCreatedAt(), boundary.getPostId());
+            } catch (Exception e) {
+                System.err.println("Error trimming timeline for " + ownerId + ": " + e.getMessage());
+            }
+        }
+    }
+}
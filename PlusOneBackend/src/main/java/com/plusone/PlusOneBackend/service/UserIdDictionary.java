@@ -0,0 +1,98 @@
+package com.plusone.PlusOneBackend.service;
+
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Maps Mongo ObjectId strings to dense int ids (0, 1, 2, ...) so in-memory indexes can
+ * use primitive arrays instead of String-keyed collections. Ids are assigned on first
+ * use, never reused, and only valid for the lifetime of this process.
+ */
+@Component
+public class UserIdDictionary {
+
+    private final ConcurrentHashMap<String, Integer> denseIds = new ConcurrentHashMap<>();
+    private volatile String[] userIds = new String[1024];
+    private volatile int size = 0;
+
+    /**
+     * Dense id for the user, assigning the next free one if the user is new.
+     */
+    public int idFor(String userId) {
+        Integer existing = denseIds.get(userId);
+        if (existing != null) {
+            return existing;
+        }
+        synchronized (this) {
+            existing = denseIds.get(userId);
+            if (existing != null) {
+                return existing;
+            }
+            int id = size;
+            if (id == userIds.length) {
+                userIds = Arrays.copyOf(userIds, id + (id >> 1));
+            }
+            userIds[id] = userId;
+            size = id + 1;
+            denseIds.put(userId, id);
+            return id;
+        }
+    }
+
+    /**
+     * Dense id for the user, or -1 if the user has never been seen.
+     */
+    public int find(String userId) {
+        Integer existing = userId != null ? denseIds.get(userId) : null;
+        return existing != null ? existing : -1;
+    }
+
+    public String userIdOf(int denseId) {
+        return denseId >= 0 && denseId < size ? userIds[denseId] : null;
+    }
+
+    /**
+     * Number of ids handed out; every dense id is below this.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * The limit smallest user ids (in ObjectId order) among the given dense ids that sort
+     * after afterUserId (null for no lower bound), ascending.
+     *
+     * Dense ids are process-local, so pages of in-memory results are ordered by user id
+     * instead: one pass with a max-heap of the current best, whatever the page depth.
+     */
+    public List<String> firstUserIdsAfter(BitSet denseIds, String afterUserId, int limit) {
+        if (limit <= 0) {
+            return List.of();
+        }
+        PriorityQueue<String> best = new PriorityQueue<>(limit + 1, Comparator.reverseOrder());
+        for (int denseId = denseIds.nextSetBit(0); denseId >= 0; denseId = denseIds.nextSetBit(denseId + 1)) {
+            // ObjectId hex strings sort like the ObjectIds themselves
+            String userId = userIdOf(denseId);
+            if (userId == null || (afterUserId != null && userId.compareTo(afterUserId) <= 0)) {
+                continue;
+            }
+            if (best.size() < limit) {
+                best.add(userId);
+            } else if (userId.compareTo(best.peek()) < 0) {
+                best.poll();
+                best.add(userId);
+            }
+        }
+        List<String> userIds = new ArrayList<>(best);
+        Collections.sort(userIds);
+        return userIds;
+    }
+}
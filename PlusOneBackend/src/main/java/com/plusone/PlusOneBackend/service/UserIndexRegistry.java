@@ -0,0 +1,102 @@
+package com.plusone.PlusOneBackend.service;
+
+import com.plusone.PlusOneBackend.model.User;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.annotation.Order;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+/**
+ * Keeps every {@link UserIndexer} in sync with the users collection: one streamed pass
+ * over all users at startup, then a call per user write.
+ */
+@Component
+public class UserIndexRegistry {
+
+    private static final Logger log = LoggerFactory.getLogger(UserIndexRegistry.class);
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Autowired
+    private List<UserIndexer> indexers;
+
+    // Users written while a rebuild is streaming; re-applied once it finishes. Guarded by this.
+    private Map<String, User> changedDuringRebuild = null;
+
+    private volatile boolean ready = false;
+
+    /**
+     * True once the initial rebuild has finished; until then callers fall back to MongoDB.
+     */
+    public boolean isReady() {
+        return ready;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Order(20)
+    public void rebuild() {
+        try {
+            long start = System.nanoTime();
+            synchronized (this) {
+                changedDuringRebuild = new LinkedHashMap<>();
+            }
+
+            indexers.forEach(UserIndexer::clear);
+            Query query = new Query();
+            query.fields().exclude("password", "onboarding");
+            long count = 0;
+            try (Stream<User> users = mongoTemplate.stream(query, User.class)) {
+                for (User user : (Iterable<User>) users::iterator) {
+                    indexAll(user);
+                    count++;
+                }
+            }
+
+            synchronized (this) {
+                changedDuringRebuild.values().forEach(this::indexAll);
+                changedDuringRebuild = null;
+            }
+            ready = true;
+            log.info("Indexed {} users in {} ms", count, (System.nanoTime() - start) / 1_000_000);
+        } catch (Exception e) {
+            synchronized (this) {
+                changedDuringRebuild = null;
+            }
+            System.err.println("Error building user indexes: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Re-index one user after it was created or updated.
+     */
+    public void onUserChanged(User user) {
+        synchronized (this) {
+            if (changedDuringRebuild != null) {
+                changedDuringRebuild.put(user.getId(), user);
+            }
+        }
+        indexAll(user);
+    }
+
+    private void indexAll(User user) {
+        for (UserIndexer indexer : indexers) {
+            try {
+                indexer.index(user);
+            } catch (Exception e) {
+                System.err.println("Failed to index user " + user.getId() + " in "
+                    + indexer.getClass().getSimpleName() + ": " + e.getMessage());
+            }
+        }
+    }
+}
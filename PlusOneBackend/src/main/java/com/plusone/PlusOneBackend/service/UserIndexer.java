@@ -0,0 +1,20 @@
+package com.plusone.PlusOneBackend.service;
+
+import com.plusone.PlusOneBackend.model.User;
+
+/**
+ * An in-memory index built from user documents. {@link UserIndexRegistry} feeds every
+ * indexer on startup and again whenever a user is created or their profile changes.
+ */
+public interface UserIndexer {
+
+    /**
+     * Drop all indexed users before a full rebuild.
+     */
+    void clear();
+
+    /**
+     * Add the user, or replace what was indexed for them before.
+     */
+    void index(User user);
+}
@@ -1,32 +1,311 @@
 package com.plusone.PlusOneBackend.service;
 
+import com.mongodb.ExplainVerbosity;
+import com.plusone.PlusOneBackend.dto.CacheStats;
+import com.plusone.PlusOneBackend.dto.QueryPlanSummary;
+import com.plusone.PlusOneBackend.dto.SearchFacets;
+import com.plusone.PlusOneBackend.dto.SearchFilters;
+import com.plusone.PlusOneBackend.dto.SimilarUser;
+import com.plusone.PlusOneBackend.dto.UserCardDto;
+import com.plusone.PlusOneBackend.dto.UserSearchPage;
 import com.plusone.PlusOneBackend.model.User;
+import com.plusone.PlusOneBackend.repository.UserRepository;
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.springframework.data.domain.Sort;
 import org.springframework.data.mongodb.core.MongoTemplate;
 import org.springframework.data.mongodb.core.query.*;
 import org.springframework.stereotype.Service;
 
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.BitSet;
 import java.util.List;
-import java.util.regex.Pattern;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Service
 public class UserSearchService {
+    private static final int MAX_LIMIT = 50;
+    private static final int FACET_VALUES = 10;
+    private static final String INTEREST_FIELD = "profile.normalizedInterests";
+    private static final String TOKEN_FIELD = "profile.interestTokens";
+    // Name Spring gives the @Indexed multikey index on the tokens
+    private static final String INTEREST_INDEX = TOKEN_FIELD;
+    private static final Document CARD_FIELDS = Document.parse(UserRepository.CARD_FIELDS);
+
     private final MongoTemplate mongoTemplate;
+    private final UserRepository userRepository;
+    private final InterestIndex interestIndex;
+    private final PeopleSearchIndex peopleSearchIndex;
+    private final FacetIndex facetIndex;
+    private final SimilarInterestsIndex similarInterestsIndex;
+    private final UserIdDictionary userIdDictionary;
+    private final UserIndexRegistry userIndexRegistry;
+    private final SearchResultCache searchResultCache;
 
-    public UserSearchService(MongoTemplate mongoTemplate) {
+    public UserSearchService(MongoTemplate mongoTemplate, UserRepository userRepository,
+                             InterestIndex interestIndex, PeopleSearchIndex peopleSearchIndex,
+                             FacetIndex facetIndex, SimilarInterestsIndex similarInterestsIndex,
+                             UserIdDictionary userIdDictionary, UserIndexRegistry userIndexRegistry,
+                             SearchResultCache searchResultCache) {
         this.mongoTemplate = mongoTemplate;
+        this.userRepository = userRepository;
+        this.interestIndex = interestIndex;
+        this.peopleSearchIndex = peopleSearchIndex;
+        this.facetIndex = facetIndex;
+        this.similarInterestsIndex = similarInterestsIndex;
+        this.userIdDictionary = userIdDictionary;
+        this.userIndexRegistry = userIndexRegistry;
+        this.searchResultCache = searchResultCache;
+    }
+
+    /**
+     * One page of users with a matching interest, narrowed by the filters, in ascending
+     * user id order. Pass the previous page's nextCursor (with the same query and filters)
+     * to continue; a null or blank cursor starts from the top.
+     *
+     * The first page also carries facet counts over all matches, counted from the
+     * in-memory facet tables; they are omitted while the indexes are still loading.
+     */
+    public UserSearchPage searchByInterest(String query, SearchFilters filters, String cursor, int limit) {
+        int pageSize = Math.max(1, Math.min(limit, MAX_LIMIT));
+        String afterUserId = cursor != null && !cursor.isBlank() ? decodeCursor(cursor) : null;
+
+        if (userIndexRegistry.isReady()) {
+            // Repeated searches come from the cache; a burst of the same one runs it once
+            return searchResultCache.get(SearchResultCache.Key.of(query, filters, afterUserId, pageSize),
+                key -> searchIndexes(query, filters, afterUserId, pageSize));
+        }
+
+        // Index still loading (only briefly at startup, so not cached): fall back to the
+        // multikey index on the interest tokens
+        List<String> userIds = searchIndexedInterests(query, filters, afterUserId, pageSize + 1)
+            .stream()
+            .map(User::getId)
+            .collect(Collectors.toList());
+        return page(userIds, pageSize, null);
+    }
+
+    // Answer from the in-memory indexes; only the users on the page are fetched
+    private UserSearchPage searchIndexes(String query, SearchFilters filters, String afterUserId, int pageSize) {
+        BitSet matches = interestIndex.matching(query);
+        facetIndex.retainMatching(matches, filters);
+        SearchFacets facets = afterUserId == null ? facetIndex.count(matches, FACET_VALUES) : null;
+        return page(userIdDictionary.firstUserIdsAfter(matches, afterUserId, pageSize + 1), pageSize, facets);
+    }
+
+    // userIds holds up to one extra match, which tells us whether another page exists
+    private UserSearchPage page(List<String> userIds, int pageSize, SearchFacets facets) {
+        boolean hasMore = userIds.size() > pageSize;
+        if (hasMore) {
+            userIds = userIds.subList(0, pageSize);
+        }
+        return UserSearchPage.builder()
+            .users(loadCards(userIds))
+            .nextCursor(hasMore ? encodeCursor(userIds.get(pageSize - 1)) : null)
+            .facets(facets)
+            .build();
     }
 
-    public List<User> searchByInterest(String query, int limit) {
-        String safe = Pattern.quote(query.trim()); // escape regex special chars
+    public CacheStats cacheStats() {
+        return searchResultCache.stats();
+    }
+
+    /**
+     * Facet counts over every indexed user, e.g. to seed the filters before a search.
+     */
+    public SearchFacets allFacets() {
+        return facetIndex.countAll(FACET_VALUES);
+    }
+
+    /**
+     * Relevance-ranked search over names, job title, company, city and interests. While the
+     * in-memory index is still loading only interests can be searched, via MongoDB.
+     */
+    public List<UserCardDto> searchPeople(String query, int limit) {
+        int cappedLimit = Math.max(1, Math.min(limit, MAX_LIMIT));
+        if (userIndexRegistry.isReady()) {
+            return loadCards(peopleSearchIndex.search(query, cappedLimit));
+        }
+        return searchIndexedInterests(query, null, null, cappedLimit)
+            .stream()
+            .map(UserCardDto::from)
+            .collect(Collectors.toList());
+    }
+
+    /**
+     * Users whose interests overlap most with the user's (Jaccard similarity), best first.
+     * Empty until the in-memory indexes have loaded; there is no MongoDB fallback, since
+     * that would mean comparing against every user.
+     */
+    public List<SimilarUser> similarUsers(String userId, int limit) {
+        if (!userIndexRegistry.isReady()) {
+            return List.of();
+        }
+        List<SimilarInterestsIndex.Match> matches =
+            similarInterestsIndex.similarTo(userId, Math.max(1, Math.min(limit, MAX_LIMIT)));
+        Map<String, UserCardDto> cards = loadCards(matches.stream().map(SimilarInterestsIndex.Match::userId).toList())
+            .stream()
+            .collect(Collectors.toMap(UserCardDto::getUserId, Function.identity()));
+        return matches.stream()
+            .filter(match -> cards.containsKey(match.userId()))
+            .map(match -> new SimilarUser(cards.get(match.userId()), match.similarity(), match.sharedInterests()))
+            .collect(Collectors.toList());
+    }
+
+    // Cards for the given ids, in the same order
+    private List<UserCardDto> loadCards(List<String> userIds) {
+        if (userIds.isEmpty()) {
+            return List.of();
+        }
+        Map<String, User> usersById = userRepository.findCardsByIdIn(userIds)
+            .stream()
+            .collect(Collectors.toMap(User::getId, Function.identity()));
+        return userIds.stream()
+            .map(usersById::get)
+            .filter(Objects::nonNull)
+            .map(UserCardDto::from)
+            .collect(Collectors.toList());
+    }
 
-        // Build query: look for users whose profile.interests array contains the search
-        // term
-        Query mongoQuery = new Query(
-                Criteria.where("profile.interests").regex(safe, "i") // "i" = case-insensitive
-        ).limit(Math.min(limit, 50));
+    /**
+     * Users with an interest that has a word starting with the query (exact matches
+     * included), in _id order after the cursor. Runs against the lowercased word tails in
+     * profile.interestTokens, so a case-sensitive anchored regex is enough and MongoDB
+     * turns it into index bounds instead of scanning every document. Company and city filters are checked on the
+     * documents the index selects. The query is hinted to that index: sorted by _id with
+     * a limit, the planner could otherwise walk the _id index and filter every document.
+     */
+    private List<User> searchIndexedInterests(String query, SearchFilters filters, String afterUserId, int limit) {
+        String normalized = InterestNormalizer.normalize(query);
+        if (normalized.isEmpty()) {
+            return List.of();
+        }
+
+        Criteria criteria = Criteria.where(TOKEN_FIELD).regex(prefixPattern(normalized));
+        if (filters != null) {
+            String interest = InterestNormalizer.normalize(filters.getInterest());
+            if (!interest.isEmpty()) {
+                // Both conditions are on the same field, so they need an explicit $and
+                criteria = new Criteria().andOperator(criteria, Criteria.where(INTEREST_FIELD).is(interest));
+            }
+            criteria = withExactIgnoringCase(criteria, "profile.job.companiesName", filters.getCompany());
+            criteria = withExactIgnoringCase(criteria, "profile.location.city", filters.getCity());
+        }
+        if (afterUserId != null) {
+            criteria = criteria.and("_id").gt(new ObjectId(afterUserId));
+        }
+        Query prefix = new Query(criteria)
+            .with(Sort.by(Sort.Direction.ASC, "_id"))
+            .limit(limit)
+            .withHint(INTEREST_INDEX);
+        includeCardFields(prefix);
+        return mongoTemplate.find(prefix, User.class);
+    }
+
+    // Opaque to clients: base64url of the last user id on the page
+    static String encodeCursor(String userId) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(userId.getBytes(StandardCharsets.UTF_8));
+    }
+
+    static String decodeCursor(String cursor) {
+        try {
+            String userId = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            if (!ObjectId.isValid(userId)) {
+                throw new IllegalArgumentException();
+            }
+            return userId.toLowerCase(Locale.ROOT);
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+    }
+
+    private static void includeCardFields(Query query) {
+        CARD_FIELDS.keySet().forEach(query.fields()::include);
+    }
+
+    // Same normalization as the facet index: trimmed, collapsed whitespace, any case
+    private static Criteria withExactIgnoringCase(Criteria criteria, String field, String value) {
+        String normalized = InterestNormalizer.normalize(value);
+        if (normalized.isEmpty()) {
+            return criteria;
+        }
+        String pattern = prefixPattern(normalized).replace(" ", "\\s+");
+        return criteria.and(field).regex("^\\s*" + pattern.substring(1) + "\\s*$", "i");
+    }
+
+    // Anchored and with every regex metacharacter escaped, so the whole pattern is a literal prefix
+    private static String prefixPattern(String normalized) {
+        StringBuilder pattern = new StringBuilder("^");
+        for (char c : normalized.toCharArray()) {
+            if ("\\^$.|?*+()[]{}".indexOf(c) >= 0) {
+                pattern.append('\\');
+            }
+            pattern.append(c);
+        }
+        return pattern.toString();
+    }
+
+    /**
+     * Query plan of the MongoDB interest search (first page) for the given text, run with
+     * the same hint, to confirm it scans the profile.interestTokens index rather than
+     * the collection or the _id index.
+     */
+    public List<QueryPlanSummary> explainSearch(String query, int limit) {
+        String normalized = InterestNormalizer.normalize(query);
+        int cappedLimit = Math.max(1, Math.min(limit, MAX_LIMIT));
+        return List.of(
+            explain(new Document(TOKEN_FIELD, new Document("$regex", prefixPattern(normalized))), cappedLimit + 1));
+    }
+
+    private QueryPlanSummary explain(Document filter, int limit) {
+        Document plan = mongoTemplate.getCollection(mongoTemplate.getCollectionName(User.class))
+            .find(filter)
+            .sort(new Document("_id", 1))
+            .limit(limit)
+            .hintString(INTEREST_INDEX)
+            .explain(ExplainVerbosity.QUERY_PLANNER);
+        Document queryPlanner = plan.get("queryPlanner", Document.class);
+
+        List<String> stages = new ArrayList<>();
+        List<String> indexes = new ArrayList<>();
+        if (queryPlanner != null) {
+            collectStages(queryPlanner.get("winningPlan"), stages, indexes);
+        }
+        return QueryPlanSummary.builder()
+            .filter(filter.toJson())
+            .stages(stages)
+            .indexes(indexes)
+            .collectionScan(stages.contains("COLLSCAN"))
+            .expectedIndex(INTEREST_INDEX)
+            .usesExpectedIndex(indexes.contains(INTEREST_INDEX))
+            .build();
+    }
 
-        // Run query and return matching users
-        return mongoTemplate.find(mongoQuery, User.class);
+    // Walks inputStage / inputStages / queryPlan (newer servers nest the classic plan there)
+    private static void collectStages(Object node, List<String> stages, List<String> indexes) {
+        if (node instanceof Document stage) {
+            if (stage.get("stage") instanceof String name) {
+                stages.add(name);
+            }
+            if (stage.get("indexName") instanceof String indexName) {
+                indexes.add(indexName);
+            }
+            for (Object child : stage.values()) {
+                if (child instanceof Document || child instanceof List) {
+                    collectStages(child, stages, indexes);
+                }
+            }
+        } else if (node instanceof List<?> children) {
+            for (Object child : children) {
+                collectStages(child, stages, indexes);
+            }
+        }
     }
 
 }
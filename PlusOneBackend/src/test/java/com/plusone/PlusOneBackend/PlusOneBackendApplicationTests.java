@@ -1,11 +1,33 @@
 package com.plusone.PlusOneBackend;
 
+import de.bwaldvogel.mongo.MongoServer;
+import de.bwaldvogel.mongo.backend.memory.MemoryBackend;
+import org.junit.jupiter.api.AfterAll;
 import org.junit.jupiter.api.Test;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
 
+/**
+ * Boots the full context against an in-memory MongoDB and without SMTP settings,
+ * the same way a fresh checkout runs locally.
+ */
 @SpringBootTest
 class PlusOneBackendApplicationTests {
 
+	private static final MongoServer MONGO = new MongoServer(new MemoryBackend());
+
+	@DynamicPropertySource
+	static void mongoProperties(DynamicPropertyRegistry registry) {
+		String uri = MONGO.bindAndGetConnectionString() + "/plusone_test";
+		registry.add("spring.data.mongodb.uri", () -> uri);
+	}
+
+	@AfterAll
+	static void stopMongo() {
+		MONGO.shutdownNow();
+	}
+
 	@Test
 	void contextLoads() {
 	}
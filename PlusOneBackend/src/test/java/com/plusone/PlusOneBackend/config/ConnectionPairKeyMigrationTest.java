@@ -0,0 +1,136 @@
+package com.plusone.PlusOneBackend.config;
+
+import com.mongodb.client.MongoClient;
+import com.mongodb.client.MongoClients;
+import com.plusone.PlusOneBackend.model.Connection;
+import com.plusone.PlusOneBackend.model.ConnectionRequest;
+import de.bwaldvogel.mongo.MongoServer;
+import de.bwaldvogel.mongo.backend.memory.MemoryBackend;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.Index;
+import org.springframework.data.mongodb.core.query.Query;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * The pair-key backfill against an in-memory MongoDB holding the duplicates the old
+ * unkeyed writes allowed, in both directions: the oldest connection and the oldest
+ * pending request of each pair survive, and the unique index builds afterwards.
+ */
+class ConnectionPairKeyMigrationTest {
+
+    private static final String A = id(1);
+    private static final String B = id(2);
+    private static final String C = id(3);
+
+    private final LocalDateTime start = LocalDateTime.of(2024, 1, 1, 12, 0);
+
+    private MongoServer server;
+    private MongoClient client;
+    private MongoTemplate mongoTemplate;
+
+    @BeforeEach
+    void setUp() {
+        server = new MongoServer(new MemoryBackend());
+        client = MongoClients.create(server.bindAndGetConnectionString());
+        mongoTemplate = new MongoTemplate(client, "plusone_test");
+    }
+
+    @AfterEach
+    void tearDown() {
+        client.close();
+        server.shutdownNow();
+    }
+
+    @Test
+    void keepsOldestConnectionPerPair() {
+        connection("c-ab-2", A, B, 2);
+        connection("c-ba-1", B, A, 1);   // oldest of A-B, stored the other way round
+        connection("c-ab-3", A, B, 3);
+        connection("c-ac-5", A, C, 5);
+        connection("c-ca-4", C, A, 4);   // oldest of A-C
+
+        migrate();
+        migrate();  // a rerun after a partial failure changes nothing
+
+        Map<String, String> pairKeys = new TreeMap<>();
+        mongoTemplate.findAll(Connection.class).forEach(c -> pairKeys.put(c.getId(), c.getPairKey()));
+        assertEquals(Map.of("c-ba-1", A + "_" + B, "c-ca-4", A + "_" + C), pairKeys);
+
+        mongoTemplate.indexOps(Connection.class)
+            .ensureIndex(new Index().on("pairKey", Sort.Direction.ASC).unique());
+    }
+
+    @Test
+    void supersedesAllButOldestPendingRequestPerPair() {
+        request("r-ab-2", A, B, "PENDING", 2);
+        request("r-ba-1", B, A, "PENDING", 1);   // oldest pending A-B, the other way round
+        request("r-ab-3", A, B, "PENDING", 3);
+        request("r-ab-0", A, B, "REJECTED", 0);  // older but not pending: left alone
+        request("r-ca-4", C, A, "ACCEPTED", 4);
+        request("r-ac-5", A, C, "PENDING", 5);   // the only pending A-C
+
+        migrate();
+        migrate();
+
+        Map<String, String> statuses = new TreeMap<>();
+        for (ConnectionRequest request : mongoTemplate.findAll(ConnectionRequest.class)) {
+            statuses.put(request.getId(), request.getStatus());
+            assertEquals(expectedPairKey(request), request.getPairKey(), request.getId());
+        }
+        assertEquals(Map.of(
+            "r-ab-0", "REJECTED",
+            "r-ab-2", "SUPERSEDED",
+            "r-ab-3", "SUPERSEDED",
+            "r-ac-5", "PENDING",
+            "r-ba-1", "PENDING",
+            "r-ca-4", "ACCEPTED"), statuses);
+    }
+
+    @Test
+    void leavesCleanDataUntouched() {
+        connection("c-ab", A, B, 1);
+        request("r-ab", A, B, "ACCEPTED", 0);
+        migrate();
+        List<Connection> connections = mongoTemplate.find(new Query(), Connection.class);
+        List<ConnectionRequest> requests = mongoTemplate.find(new Query(), ConnectionRequest.class);
+
+        migrate();
+        assertEquals(connections, mongoTemplate.find(new Query(), Connection.class));
+        assertEquals(requests, mongoTemplate.find(new Query(), ConnectionRequest.class));
+    }
+
+    private void migrate() {
+        new ConnectionPairKeyMigration().apply(mongoTemplate);
+    }
+
+    private void connection(String id, String user1Id, String user2Id, int minutes) {
+        mongoTemplate.insert(Connection.builder()
+            .id(id).user1Id(user1Id).user2Id(user2Id).connectedAt(start.plusMinutes(minutes))
+            .build());
+    }
+
+    private void request(String id, String fromUserId, String toUserId, String status, int minutes) {
+        mongoTemplate.insert(ConnectionRequest.builder()
+            .id(id).fromUserId(fromUserId).toUserId(toUserId).message("hi").status(status)
+            .createdAt(start.plusMinutes(minutes)).updatedAt(start.plusMinutes(minutes))
+            .build());
+    }
+
+    private static String expectedPairKey(ConnectionRequest request) {
+        return Connection.pairKeyOf(request.getFromUserId(), request.getToUserId());
+    }
+
+    private static String id(int n) {
+        return String.format("%024x", n);
+    }
+}
@@ -0,0 +1,191 @@
+package com.plusone.PlusOneBackend.controller;
+
+import com.mongodb.client.MongoClient;
+import com.mongodb.client.MongoClients;
+import com.plusone.PlusOneBackend.service.PhotoService;
+import de.bwaldvogel.mongo.MongoServer;
+import de.bwaldvogel.mongo.backend.memory.MemoryBackend;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.SimpleMongoClientDatabaseFactory;
+import org.springframework.data.mongodb.gridfs.GridFsTemplate;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import javax.imageio.ImageIO;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+
+/**
+ * Photo upload and download against GridFS on an in-memory MongoDB, with variants
+ * generated inline: upload limits, relative URLs, Range and ETag handling, and variants.
+ */
+class PhotoControllerTest {
+
+    private static final long MAX_UPLOAD_BYTES = 256 * 1024;
+
+    @TempDir
+    Path variantDir;
+
+    private MongoServer server;
+    private MongoClient client;
+    private MongoTemplate mongoTemplate;
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        server = new MongoServer(new MemoryBackend());
+        client = MongoClients.create(server.bindAndGetConnectionString());
+        SimpleMongoClientDatabaseFactory databaseFactory = new SimpleMongoClientDatabaseFactory(client, "plusone_test");
+        mongoTemplate = new MongoTemplate(databaseFactory);
+        GridFsTemplate gridFsTemplate = new GridFsTemplate(databaseFactory, mongoTemplate.getConverter());
+
+        PhotoService photoService = new PhotoService(gridFsTemplate, mongoTemplate, Runnable::run,
+            variantDir, 64L * 1024 * 1024, MAX_UPLOAD_BYTES);
+        mockMvc = MockMvcBuilders.standaloneSetup(new PhotoController(photoService)).build();
+    }
+
+    @AfterEach
+    void tearDown() {
+        client.close();
+        server.shutdownNow();
+    }
+
+    @Test
+    void uploadReturnsRelativePaths() throws Exception {
+        MockHttpServletResponse response = upload(png(1200, 600), "image/png");
+
+        assertEquals(201, response.getStatus());
+        String id = idOf(response);
+        assertTrue(response.getContentAsString().contains("\"url\":\"/api/photos/" + id + "\""));
+        assertTrue(response.getContentAsString().contains("\"thumbnailUrl\":\"/api/photos/" + id + "?size=thumb\""));
+    }
+
+    @Test
+    void rejectsUnsupportedAndOversizedUploads() throws Exception {
+        assertEquals(415, upload(new byte[] {1, 2, 3}, "image/webp").getStatus());
+        assertEquals(415, upload(new byte[] {1, 2, 3}, "text/plain").getStatus());
+
+        byte[] tooLarge = new byte[(int) MAX_UPLOAD_BYTES + 1];
+        assertEquals(413, upload(tooLarge, "image/png").getStatus());
+        // The aborted upload leaves nothing behind
+        assertEquals(0, mongoTemplate.getCollection("fs.files").countDocuments());
+        assertEquals(0, mongoTemplate.getCollection("fs.chunks").countDocuments());
+    }
+
+    @Test
+    void originalSupportsRangeAndConditionalGets() throws Exception {
+        byte[] original = png(300, 200);
+        String id = idOf(upload(original, "image/png"));
+
+        MockHttpServletResponse full = download(id, null, null, null);
+        assertEquals(200, full.getStatus());
+        assertArrayEquals(original, full.getContentAsByteArray());
+        assertTrue(full.getHeader(HttpHeaders.CACHE_CONTROL).contains("immutable"));
+        String etag = full.getHeader(HttpHeaders.ETAG);
+
+        MockHttpServletResponse range = download(id, null, "bytes=10-19", null);
+        assertEquals(206, range.getStatus());
+        assertEquals("bytes 10-19/" + original.length, range.getHeader(HttpHeaders.CONTENT_RANGE));
+        assertArrayEquals(Arrays.copyOfRange(original, 10, 20), range.getContentAsByteArray());
+
+        assertEquals(304, download(id, null, null, etag).getStatus());
+        assertEquals(200, download(id, null, null, "\"something-else\"").getStatus());
+    }
+
+    @Test
+    void variantsAreResizedWithTheirOwnEtag() throws Exception {
+        String id = idOf(upload(png(6000, 3000), "image/png"));
+
+        String originalEtag = download(id, null, null, null).getHeader(HttpHeaders.ETAG);
+        for (String size : new String[] {"thumb", "medium"}) {
+            MockHttpServletResponse variant = download(id, size, null, null);
+            assertEquals(200, variant.getStatus());
+            assertEquals("image/jpeg", variant.getContentType());
+            assertTrue(variant.getHeader(HttpHeaders.CACHE_CONTROL).contains("immutable"));
+            assertNotEquals(originalEtag, variant.getHeader(HttpHeaders.ETAG));
+
+            BufferedImage image = ImageIO.read(new ByteArrayInputStream(variant.getContentAsByteArray()));
+            int longest = size.equals("thumb") ? 160 : 640;
+            assertEquals(longest, image.getWidth());
+            assertEquals(longest / 2, image.getHeight());
+        }
+    }
+
+    @Test
+    void undecodablePhotoFallsBackToOriginal() throws Exception {
+        byte[] corrupt = "not really a png".getBytes();
+        String id = idOf(upload(corrupt, "image/png"));
+        assertTrue(Files.exists(variantDir.resolve(id + ".failed")));
+
+        MockHttpServletResponse fallback = download(id, "thumb", null, null);
+        assertEquals(200, fallback.getStatus());
+        assertArrayEquals(corrupt, fallback.getContentAsByteArray());
+        assertNull(fallback.getHeader(HttpHeaders.ETAG));  // not the variant, so not cacheable as one
+        assertTrue(fallback.getHeader(HttpHeaders.CACHE_CONTROL).contains("max-age=60"));
+    }
+
+    @Test
+    void unknownSizeAndMissingPhoto() throws Exception {
+        String id = idOf(upload(png(100, 100), "image/png"));
+        assertEquals(400, download(id, "huge", null, null).getStatus());
+        assertEquals(404, download("0123456789abcdef01234567", null, null, null).getStatus());
+        assertEquals(404, download("0123456789abcdef01234567", "thumb", null, null).getStatus());
+    }
+
+    private MockHttpServletResponse upload(byte[] body, String contentType) throws Exception {
+        return mockMvc.perform(post("/api/photos").contentType(contentType).content(body).param("filename", "photo"))
+            .andReturn().getResponse();
+    }
+
+    private MockHttpServletResponse download(String id, String size, String range, String ifNoneMatch) throws Exception {
+        var request = get("/api/photos/{id}", id);
+        if (size != null) {
+            request.param("size", size);
+        }
+        if (range != null) {
+            request.header(HttpHeaders.RANGE, range);
+        }
+        if (ifNoneMatch != null) {
+            request.header(HttpHeaders.IF_NONE_MATCH, ifNoneMatch);
+        }
+        return mockMvc.perform(request).andReturn().getResponse();
+    }
+
+    private static String idOf(MockHttpServletResponse response) throws Exception {
+        String json = response.getContentAsString();
+        int start = json.indexOf("\"id\":\"") + 6;
+        return json.substring(start, json.indexOf('"', start));
+    }
+
+    private static byte[] png(int width, int height) throws IOException {
+        BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        Graphics2D graphics = image.createGraphics();
+        graphics.setColor(Color.ORANGE);
+        graphics.fillRect(0, 0, width / 2, height);
+        graphics.dispose();
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ImageIO.write(image, "png", out);
+        return out.toByteArray();
+    }
+}
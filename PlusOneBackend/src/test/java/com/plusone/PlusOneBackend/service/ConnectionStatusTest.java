@@ -0,0 +1,102 @@
+package com.plusone.PlusOneBackend.service;
+
+import com.mongodb.client.MongoClient;
+import com.mongodb.client.MongoClients;
+import com.plusone.PlusOneBackend.model.Connection;
+import com.plusone.PlusOneBackend.model.ConnectionRequest;
+import com.plusone.PlusOneBackend.repository.ConnectionRepository;
+import com.plusone.PlusOneBackend.repository.ConnectionRequestRepository;
+import de.bwaldvogel.mongo.MongoServer;
+import de.bwaldvogel.mongo.backend.memory.MemoryBackend;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.repository.support.MongoRepositoryFactory;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Connection statuses on an instance whose graph has not seen an accept handled
+ * elsewhere: MongoDB, not the stale graph, decides "not connected".
+ */
+class ConnectionStatusTest {
+
+    private static final String ME = id(1);
+    private static final String FRIEND_HERE = id(2);
+    private static final String FRIEND_ELSEWHERE = id(3);
+    private static final String PENDING = id(4);
+    private static final String STRANGER = id(5);
+
+    private MongoServer server;
+    private MongoClient client;
+    private MongoTemplate mongoTemplate;
+    private ConnectionGraph connectionGraph;
+    private ConnectionService connectionService;
+
+    @BeforeEach
+    void setUp() {
+        server = new MongoServer(new MemoryBackend());
+        client = MongoClients.create(server.bindAndGetConnectionString());
+        mongoTemplate = new MongoTemplate(client, "plusone_test");
+        MongoRepositoryFactory repositories = new MongoRepositoryFactory(mongoTemplate);
+
+        connectionGraph = new ConnectionGraph();
+        ReflectionTestUtils.setField(connectionGraph, "mongoTemplate", mongoTemplate);
+        ReflectionTestUtils.setField(connectionGraph, "userIdDictionary", new UserIdDictionary());
+
+        connectionService = new ConnectionService();
+        ReflectionTestUtils.setField(connectionService, "connectionGraph", connectionGraph);
+        ReflectionTestUtils.setField(connectionService, "connectionRepository",
+            repositories.getRepository(ConnectionRepository.class));
+        ReflectionTestUtils.setField(connectionService, "connectionRequestRepository",
+            repositories.getRepository(ConnectionRequestRepository.class));
+
+        connect(ME, FRIEND_HERE);
+        connectionGraph.reload();
+        // Accepted on another instance after this one loaded its graph
+        connect(FRIEND_ELSEWHERE, ME);
+        mongoTemplate.insert(ConnectionRequest.builder()
+            .fromUserId(PENDING).toUserId(ME).message("hi").status("PENDING").pairKey(Connection.pairKeyOf(PENDING, ME))
+            .build());
+    }
+
+    @AfterEach
+    void tearDown() {
+        client.close();
+        server.shutdownNow();
+    }
+
+    @Test
+    void singleStatusConfirmsNegativesInMongo() {
+        assertTrue(connectionGraph.isLoaded());
+        assertEquals("FRIENDS", connectionService.getConnectionStatus(ME, FRIEND_HERE));
+        assertEquals("FRIENDS", connectionService.getConnectionStatus(ME, FRIEND_ELSEWHERE));
+        assertEquals("FRIENDS", connectionService.getConnectionStatus(FRIEND_ELSEWHERE, ME));
+        assertEquals("PENDING", connectionService.getConnectionStatus(ME, PENDING));
+        assertEquals("CONNECT", connectionService.getConnectionStatus(ME, STRANGER));
+    }
+
+    @Test
+    void batchStatusConfirmsNegativesInMongo() {
+        Map<String, String> statuses = connectionService.getConnectionStatuses(ME,
+            List.of(STRANGER, FRIEND_ELSEWHERE, PENDING, FRIEND_HERE));
+
+        assertEquals(List.of(STRANGER, FRIEND_ELSEWHERE, PENDING, FRIEND_HERE), List.copyOf(statuses.keySet()));
+        assertEquals(List.of("CONNECT", "FRIENDS", "PENDING", "FRIENDS"), List.copyOf(statuses.values()));
+    }
+
+    private void connect(String userId1, String userId2) {
+        mongoTemplate.insert(Connection.builder()
+            .user1Id(userId1).user2Id(userId2).pairKey(Connection.pairKeyOf(userId1, userId2)).build());
+    }
+
+    private static String id(int n) {
+        return String.format("%024x", n);
+    }
+}
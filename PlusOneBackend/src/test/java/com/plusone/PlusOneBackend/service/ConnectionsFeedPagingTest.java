@@ -0,0 +1,123 @@
+package com.plusone.PlusOneBackend.service;
+
+import com.mongodb.client.MongoClient;
+import com.mongodb.client.MongoClients;
+import com.plusone.PlusOneBackend.dto.PostPage;
+import com.plusone.PlusOneBackend.model.Connection;
+import com.plusone.PlusOneBackend.model.Post;
+import de.bwaldvogel.mongo.MongoServer;
+import de.bwaldvogel.mongo.backend.memory.MemoryBackend;
+import org.bson.types.ObjectId;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Walks the connections feed page by page against an in-memory MongoDB: every post by a
+ * connection comes back exactly once, newest first, including posts sharing a createdAt.
+ */
+class ConnectionsFeedPagingTest {
+
+    private static final String VIEWER = id(1);
+    private static final List<String> CONNECTIONS = List.of(id(2), id(3), id(4));
+    private static final String STRANGER = id(5);
+
+    private MongoServer server;
+    private MongoClient client;
+    private MongoTemplate mongoTemplate;
+    private PostService postService;
+
+    @BeforeEach
+    void setUp() {
+        server = new MongoServer(new MemoryBackend());
+        client = MongoClients.create(server.bindAndGetConnectionString());
+        mongoTemplate = new MongoTemplate(client, "plusone_test");
+
+        UserIdDictionary userIdDictionary = new UserIdDictionary();
+        ConnectionGraph connectionGraph = new ConnectionGraph();  // not loaded, so it reads the connections collection
+        ReflectionTestUtils.setField(connectionGraph, "mongoTemplate", mongoTemplate);
+        ReflectionTestUtils.setField(connectionGraph, "userIdDictionary", userIdDictionary);
+
+        postService = new PostService();
+        ReflectionTestUtils.setField(postService, "mongoTemplate", mongoTemplate);
+        ReflectionTestUtils.setField(postService, "connectionGraph", connectionGraph);
+        ReflectionTestUtils.setField(postService, "timelineService",
+            new TimelineService(mongoTemplate, connectionGraph, userIdDictionary, Runnable::run, false, 1000, 500));
+    }
+
+    @AfterEach
+    void tearDown() {
+        client.close();
+        server.shutdownNow();
+    }
+
+    @Test
+    void pagesThroughEveryConnectionPostOnce() {
+        for (String connectionId : CONNECTIONS) {
+            mongoTemplate.insert(Connection.builder()
+                .user1Id(VIEWER).user2Id(connectionId).pairKey(Connection.pairKeyOf(VIEWER, connectionId)).build());
+        }
+
+        SplittableRandom random = new SplittableRandom(13);
+        Instant start = Instant.parse("2026-01-01T00:00:00Z");
+        List<Post> expected = new ArrayList<>();
+        for (int i = 0; i < 120; i++) {
+            // Few distinct timestamps, so pages often end in the middle of a tie
+            Instant createdAt = start.plusSeconds(random.nextInt(30));
+            String author = i % 5 == 0 ? VIEWER : i % 7 == 0 ? STRANGER : CONNECTIONS.get(random.nextInt(CONNECTIONS.size()));
+            Post post = mongoTemplate.insert(post(author, createdAt));
+            if (CONNECTIONS.contains(author)) {
+                expected.add(post);
+            }
+        }
+        expected.sort(Comparator.comparing(Post::getCreatedAt).thenComparing(Post::getId).reversed());
+
+        for (int limit : new int[] {1, 7, expected.size(), PostService.MAX_PAGE_SIZE}) {
+            List<String> seen = new ArrayList<>();
+            String cursor = null;
+            do {
+                PostPage page = postService.getConnectionsFeed(VIEWER, cursor, limit);
+                assertTrue(page.getPosts().size() <= Math.min(limit, PostService.MAX_PAGE_SIZE));
+                page.getPosts().forEach(post -> seen.add(post.getId()));
+                cursor = page.getNextCursor();
+            } while (cursor != null);
+
+            assertEquals(expected.stream().map(Post::getId).toList(), seen, "limit " + limit);
+        }
+    }
+
+    @Test
+    void emptyWithoutConnections() {
+        mongoTemplate.insert(post(STRANGER, Instant.now()));
+
+        PostPage page = postService.getConnectionsFeed(VIEWER, null, 10);
+        assertTrue(page.getPosts().isEmpty());
+        assertNull(page.getNextCursor());
+    }
+
+    private static Post post(String userId, Instant createdAt) {
+        Post post = new Post();
+        post.setId(new ObjectId().toHexString());
+        post.setUserId(userId);
+        post.setCategory(Post.CATEGORIES.get(0));
+        post.setTitle("Post by " + userId);
+        post.setCreatedAt(createdAt);
+        return post;
+    }
+
+    private static String id(int n) {
+        return String.format("%024x", n);
+    }
+}
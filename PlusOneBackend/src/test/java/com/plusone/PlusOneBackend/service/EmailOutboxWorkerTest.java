@@ -0,0 +1,82 @@
+package com.plusone.PlusOneBackend.service;
+
+import com.icegreen.greenmail.junit5.GreenMailExtension;
+import com.icegreen.greenmail.util.ServerSetupTest;
+import com.plusone.PlusOneBackend.model.EmailOutboxMessage;
+import jakarta.mail.internet.MimeMessage;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Delivers outbox batches against a local GreenMail SMTP server.
+ */
+class EmailOutboxWorkerTest {
+
+    @RegisterExtension
+    static GreenMailExtension greenMail = new GreenMailExtension(ServerSetupTest.SMTP);
+
+    private EmailOutboxWorker workerFor(int port) {
+        JavaMailSenderImpl mailSender = new JavaMailSenderImpl();
+        mailSender.setHost("localhost");
+        mailSender.setPort(port);
+        StaticListableBeanFactory beans = new StaticListableBeanFactory();
+        beans.addBean("mailSender", mailSender);
+        return new EmailOutboxWorker(null, beans.getBeanProvider(JavaMailSender.class), Runnable::run, 20, 1, 3,
+            Duration.ofSeconds(30), Duration.ofMinutes(10), Duration.ofMinutes(5));
+    }
+
+    private EmailOutboxMessage message(String id, String recipient) {
+        return EmailOutboxMessage.builder()
+            .id(id)
+            .recipient(recipient)
+            .subject("There's been an update in PlusOne")
+            .body("Hi there")
+            .status("SENDING")
+            .attempts(1)
+            .build();
+    }
+
+    @Test
+    void deliversWholeBatch() throws Exception {
+        EmailOutboxWorker worker = workerFor(ServerSetupTest.SMTP.getPort());
+
+        Map<String, String> failures = worker.deliver(List.of(
+            message("1", "alice@vanderbilt.edu"),
+            message("2", "bob@vanderbilt.edu")));
+
+        assertTrue(failures.isEmpty());
+        MimeMessage[] received = greenMail.getReceivedMessages();
+        assertEquals(2, received.length);
+        assertEquals("There's been an update in PlusOne", received[0].getSubject());
+    }
+
+    @Test
+    void reportsEveryMessageWhenServerIsDown() {
+        EmailOutboxWorker worker = workerFor(ServerSetupTest.SMTP.getPort() + 1);
+
+        Map<String, String> failures = worker.deliver(List.of(
+            message("1", "alice@vanderbilt.edu"),
+            message("2", "bob@vanderbilt.edu")));
+
+        assertEquals(2, failures.size());
+    }
+
+    @Test
+    void backoffGrowsAndIsCapped() {
+        EmailOutboxWorker worker = workerFor(ServerSetupTest.SMTP.getPort());
+
+        assertTrue(worker.backoffFor(1).compareTo(Duration.ofSeconds(36)) <= 0);
+        assertTrue(worker.backoffFor(3).compareTo(Duration.ofSeconds(96)) >= 0);
+        assertTrue(worker.backoffFor(15).compareTo(Duration.ofMinutes(12)) <= 0);
+    }
+}
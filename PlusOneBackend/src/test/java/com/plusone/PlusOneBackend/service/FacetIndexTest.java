@@ -0,0 +1,151 @@
+package com.plusone.PlusOneBackend.service;
+
+import com.plusone.PlusOneBackend.dto.FacetCount;
+import com.plusone.PlusOneBackend.dto.SearchFacets;
+import com.plusone.PlusOneBackend.dto.SearchFilters;
+import com.plusone.PlusOneBackend.model.Profile;
+import com.plusone.PlusOneBackend.model.User;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.BitSet;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Facet counts and filters, in particular that re-indexing a changed user moves their
+ * counts instead of adding to them.
+ */
+class FacetIndexTest {
+
+    private static final List<String> INTERESTS = List.of("Hiking", "Chess", "Jazz", "Yoga", "Film");
+    private static final List<String> COMPANIES = List.of("Microsoft", "Google", "HCA");
+    private static final List<String> CITIES = List.of("Nashville", "Memphis");
+
+    private UserIdDictionary userIdDictionary;
+    private FacetIndex index;
+
+    @BeforeEach
+    void setUp() {
+        userIdDictionary = new UserIdDictionary();
+        index = newIndex();
+    }
+
+    private FacetIndex newIndex() {
+        FacetIndex facetIndex = new FacetIndex();
+        ReflectionTestUtils.setField(facetIndex, "userIdDictionary", userIdDictionary);
+        return facetIndex;
+    }
+
+    @Test
+    void countsAndFiltersIgnoringCase() {
+        index.index(user(1, List.of("Hiking", "Chess"), "Microsoft", "Nashville"));
+        index.index(user(2, List.of("hiking "), "microsoft", "Memphis"));
+        index.index(user(3, List.of("Jazz"), "Google", "Nashville"));
+
+        SearchFacets all = index.countAll(10);
+        assertEquals(3, all.getTotalUsers());
+        assertEquals(new FacetCount("Hiking", 2), all.getInterests().get(0));
+        assertEquals(new FacetCount("Microsoft", 2), all.getCompanies().get(0));
+
+        BitSet users = allUsers();
+        index.retainMatching(users, new SearchFilters("HIKING", null, "nashville"));
+        assertEquals(bits(0), users);  // dense ids follow indexing order, so user 1 is 0
+        assertEquals(1, index.count(users, 10).getTotalUsers());
+
+        BitSet none = allUsers();
+        index.retainMatching(none, new SearchFilters(null, "Amazon", null));
+        assertEquals(new BitSet(), none);
+    }
+
+    @Test
+    void reindexedUserMovesTheirCounts() {
+        index.index(user(1, List.of("Hiking", "Chess"), "Microsoft", "Nashville"));
+        index.index(user(2, List.of("Hiking"), "Microsoft", "Nashville"));
+
+        // User 2 changes jobs, moves and swaps an interest
+        index.index(user(2, List.of("Yoga"), "Google", "Memphis"));
+
+        SearchFacets all = index.countAll(10);
+        assertEquals(2, all.getTotalUsers());
+        assertEquals(List.of(new FacetCount("Hiking", 1), new FacetCount("Chess", 1), new FacetCount("Yoga", 1)),
+            all.getInterests());
+        assertEquals(List.of(new FacetCount("Microsoft", 1), new FacetCount("Google", 1)), all.getCompanies());
+
+        BitSet users = allUsers();
+        index.retainMatching(users, new SearchFilters("Hiking", null, null));
+        assertEquals(bits(0), users);
+
+        // A value nobody holds any more is no longer counted
+        index.index(user(1, List.of("Chess"), null, null));
+        assertEquals(List.of(new FacetCount("Chess", 1), new FacetCount("Yoga", 1)), index.countAll(10).getInterests());
+    }
+
+    @Test
+    void incrementalUpdatesMatchFreshRebuild() {
+        SplittableRandom random = new SplittableRandom(3);
+        User[] latest = new User[50];
+        for (int i = 0; i < 1_000; i++) {
+            int n = random.nextInt(latest.length);
+            latest[n] = randomUser(n, random);
+            index.index(latest[n]);
+        }
+
+        FacetIndex rebuilt = newIndex();
+        for (User user : latest) {
+            if (user != null) {
+                rebuilt.index(user);
+            }
+        }
+        assertSameCounts(rebuilt.countAll(10), index.countAll(10));
+        BitSet users = allUsers();
+        assertSameCounts(rebuilt.count(users, 10), index.count(users, 10));
+    }
+
+    // Equal counts are listed in first-seen order, which differs between the two indexes
+    private static void assertSameCounts(SearchFacets expected, SearchFacets actual) {
+        assertEquals(expected.getTotalUsers(), actual.getTotalUsers());
+        assertEquals(byValue(expected.getInterests()), byValue(actual.getInterests()));
+        assertEquals(byValue(expected.getCompanies()), byValue(actual.getCompanies()));
+        assertEquals(byValue(expected.getCities()), byValue(actual.getCities()));
+    }
+
+    private static Map<String, Integer> byValue(List<FacetCount> counts) {
+        return counts.stream().collect(Collectors.toMap(FacetCount::getValue, FacetCount::getUsers));
+    }
+
+    private User randomUser(int n, SplittableRandom random) {
+        List<String> interests = INTERESTS.stream().filter(interest -> random.nextInt(3) == 0).toList();
+        return user(n, interests, COMPANIES.get(random.nextInt(COMPANIES.size())), CITIES.get(random.nextInt(CITIES.size())));
+    }
+
+    private BitSet allUsers() {
+        BitSet users = new BitSet();
+        users.set(0, userIdDictionary.size());
+        return users;
+    }
+
+    private static BitSet bits(int... denseIds) {
+        BitSet bits = new BitSet();
+        for (int id : denseIds) {
+            bits.set(id);
+        }
+        return bits;
+    }
+
+    private static User user(int n, List<String> interests, String company, String city) {
+        Profile profile = new Profile();
+        profile.setInterests(interests);
+        profile.setJob(Profile.Job.builder().companiesName(company).build());
+        profile.setLocation(Profile.Location.builder().city(city).build());
+        User user = new User("user" + n + "@vanderbilt.edu", "secret", "First" + n, "Last" + n);
+        user.setId(String.format("%024x", n));
+        user.setProfile(profile);
+        return user;
+    }
+}
@@ -0,0 +1,63 @@
+package com.plusone.PlusOneBackend.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Checks the open-addressing map against a HashMap, including backward-shift removal.
+ */
+class IntIntHashMapTest {
+
+    @Test
+    void addToCreatesUpdatesAndRemovesAtZero() {
+        IntIntHashMap map = new IntIntHashMap();
+
+        assertEquals(2, map.addTo(7, 2));
+        assertEquals(5, map.addTo(7, 3));
+        assertEquals(5, map.get(7));
+        assertEquals(0, map.get(8));
+
+        assertEquals(0, map.addTo(7, -5));
+        assertEquals(0, map.size());
+        assertEquals(0, map.addTo(9, 0));
+        assertEquals(0, map.size());
+    }
+
+    @Test
+    void matchesHashMapUnderRandomUpdates() {
+        IntIntHashMap map = new IntIntHashMap(2);
+        Map<Integer, Integer> expected = new HashMap<>();
+        SplittableRandom random = new SplittableRandom(42);
+
+        for (int i = 0; i < 50_000; i++) {
+            // A small key range so removals constantly punch holes in probe chains
+            int key = random.nextInt(2_000);
+            if (random.nextInt(5) == 0) {
+                map.remove(key);
+                expected.remove(key);
+            } else {
+                int delta = random.nextInt(-2, 3);
+                map.addTo(key, delta);
+                int value = expected.getOrDefault(key, 0) + delta;
+                if (value == 0) {
+                    expected.remove(key);
+                } else {
+                    expected.put(key, value);
+                }
+            }
+        }
+
+        assertEquals(expected.size(), map.size());
+        for (int key = 0; key < 2_000; key++) {
+            assertEquals(expected.getOrDefault(key, 0), map.get(key), "key " + key);
+        }
+        Map<Integer, Integer> visited = new HashMap<>();
+        map.forEach(visited::put);
+        assertEquals(expected, visited);
+    }
+}
@@ -0,0 +1,159 @@
+package com.plusone.PlusOneBackend.service;
+
+import com.mongodb.client.MongoClient;
+import com.mongodb.client.MongoClients;
+import com.plusone.PlusOneBackend.dto.UserCardDto;
+import com.plusone.PlusOneBackend.dto.UserSearchPage;
+import com.plusone.PlusOneBackend.model.Profile;
+import com.plusone.PlusOneBackend.model.User;
+import com.plusone.PlusOneBackend.repository.UserRepository;
+import de.bwaldvogel.mongo.MongoServer;
+import de.bwaldvogel.mongo.backend.memory.MemoryBackend;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.Index;
+import org.springframework.data.mongodb.repository.support.MongoRepositoryFactory;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Interest search matches any word of an interest by prefix, and gives the same users
+ * from MongoDB (while the in-memory indexes load) as from memory afterwards.
+ */
+class InterestSearchMatchingTest {
+
+    private static final Map<String, List<String>> QUERIES = Map.of(
+        "learning", List.of(id(1), id(2)),
+        "learn", List.of(id(1), id(2)),
+        "machine lea", List.of(id(1)),
+        "running", List.of(id(3), id(4)),
+        "trail run", List.of(id(3)),
+        "hop", List.of(id(5)),
+        "earning", List.of(),
+        "ail", List.of());
+
+    private MongoServer server;
+    private MongoClient client;
+    private UserIndexRegistry userIndexRegistry;
+    private SearchResultCache searchResultCache;
+    private UserSearchService userSearchService;
+
+    @BeforeEach
+    void setUp() {
+        server = new MongoServer(new MemoryBackend());
+        client = MongoClients.create(server.bindAndGetConnectionString());
+        MongoTemplate mongoTemplate = new MongoTemplate(client, "plusone_test");
+        mongoTemplate.indexOps(User.class)
+            .ensureIndex(new Index().on("profile.interestTokens", Sort.Direction.ASC).named("profile.interestTokens"));
+
+        mongoTemplate.insert(user(1, "Machine Learning", "Chess"));
+        mongoTemplate.insert(user(2, "Deep  learning"));
+        mongoTemplate.insert(user(3, "Trail Running"));
+        mongoTemplate.insert(user(4, "running"));
+        mongoTemplate.insert(user(5, "Hip-Hop", "Film"));
+        mongoTemplate.insert(user(6, "Hiking"));
+
+        UserIdDictionary userIdDictionary = new UserIdDictionary();
+        InterestIndex interestIndex = new InterestIndex();
+        FacetIndex facetIndex = new FacetIndex();
+        PeopleSearchIndex peopleSearchIndex = new PeopleSearchIndex();
+        SimilarInterestsIndex similarInterestsIndex = new SimilarInterestsIndex();
+        for (Object index : List.of(interestIndex, facetIndex, peopleSearchIndex, similarInterestsIndex)) {
+            ReflectionTestUtils.setField(index, "userIdDictionary", userIdDictionary);
+        }
+        userIndexRegistry = new UserIndexRegistry();
+        ReflectionTestUtils.setField(userIndexRegistry, "mongoTemplate", mongoTemplate);
+        ReflectionTestUtils.setField(userIndexRegistry, "indexers",
+            List.of(interestIndex, facetIndex, peopleSearchIndex, similarInterestsIndex));
+
+        searchResultCache = new SearchResultCache(1 << 20, Duration.ofMinutes(1));
+        userSearchService = new UserSearchService(mongoTemplate,
+            new MongoRepositoryFactory(mongoTemplate).getRepository(UserRepository.class),
+            interestIndex, peopleSearchIndex, facetIndex, similarInterestsIndex,
+            userIdDictionary, userIndexRegistry, searchResultCache);
+    }
+
+    @AfterEach
+    void tearDown() {
+        client.close();
+        server.shutdownNow();
+    }
+
+    @Test
+    void mongoAndMemoryMatchWordPrefixes() {
+        assertFalse(userIndexRegistry.isReady());
+        QUERIES.forEach((query, expected) -> assertEquals(expected, search(query), "MongoDB: " + query));
+
+        userIndexRegistry.rebuild();
+        assertTrue(userIndexRegistry.isReady());
+        QUERIES.forEach((query, expected) -> assertEquals(expected, search(query), "memory: " + query));
+    }
+
+    @Test
+    void wordTailsStartAtEveryWord() {
+        assertEquals(List.of("machine learning", "learning", "hip-hop", "hop", "c++"),
+            InterestNormalizer.wordTails(List.of(" Machine  Learning", "Hip-Hop", "C++", "machine learning")));
+    }
+
+    @Test
+    void profileChangeDropsPagesMatchingAnyWord() {
+        AtomicInteger loads = new AtomicInteger();
+        SearchResultCache.Key key = SearchResultCache.Key.of("running", null, null, 20);
+        searchResultCache.get(key, k -> page(loads));
+        searchResultCache.get(key, k -> page(loads));
+        assertEquals(1, loads.get());
+
+        Profile before = profile("Chess");
+        searchResultCache.onProfileChanged(before, profile("Chess", "Trail Running"));
+        searchResultCache.get(key, k -> page(loads));
+        assertEquals(2, loads.get());
+
+        // An interest the query does not match leaves the page alone
+        searchResultCache.onProfileChanged(before, profile("Chess", "Bird Watching"));
+        searchResultCache.get(key, k -> page(loads));
+        assertEquals(2, loads.get());
+    }
+
+    private List<String> search(String query) {
+        return userSearchService.searchByInterest(query, null, null, 20).getUsers().stream()
+            .map(UserCardDto::getUserId)
+            .toList();
+    }
+
+    private static UserSearchPage page(AtomicInteger loads) {
+        loads.incrementAndGet();
+        return UserSearchPage.builder().users(List.of()).build();
+    }
+
+    private static Profile profile(String... interests) {
+        Profile profile = new Profile();
+        profile.setInterests(List.of(interests));
+        return profile;
+    }
+
+    // As ProfileService saves it
+    private static User user(int n, String... interests) {
+        Profile profile = profile(interests);
+        profile.setNormalizedInterests(InterestNormalizer.normalizeAll(profile.getInterests()));
+        profile.setInterestTokens(InterestNormalizer.wordTails(profile.getInterests()));
+        User user = new User("user" + n + "@vanderbilt.edu", "secret", "First" + n, "Last" + n);
+        user.setId(id(n));
+        user.setProfile(profile);
+        return user;
+    }
+
+    private static String id(int n) {
+        return String.format("%024x", n);
+    }
+}
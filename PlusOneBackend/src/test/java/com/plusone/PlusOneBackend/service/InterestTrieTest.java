@@ -0,0 +1,98 @@
+package com.plusone.PlusOneBackend.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Top-K completions, including after counts move from one interest to another.
+ */
+class InterestTrieTest {
+
+    private static final List<String> INTERESTS = List.of(
+        "hiking", "hip hop", "history", "hockey", "machine learning", "music", "museums", "h");
+
+    @Test
+    void completesPrefixMostUsersFirst() {
+        InterestTrie trie = new InterestTrie();
+        add(trie, "hiking", 5);
+        add(trie, "hip hop", 9);
+        add(trie, "history", 1);
+        add(trie, "music", 20);
+
+        assertEquals(List.of(term("hip hop"), term("hiking"), term("history")), trie.topTerms("hi", 10));
+        assertEquals(List.of(term("hip hop"), term("hiking")), trie.topTerms("hi", 2));
+        assertEquals(List.of(term("music"), term("hip hop")), trie.topTerms("", 2));
+        assertTrue(trie.topTerms("x", 10).isEmpty());
+        assertTrue(trie.topTerms("hi", 0).isEmpty());
+    }
+
+    @Test
+    void reindexedUserMovesBetweenInterests() {
+        InterestTrie trie = new InterestTrie();
+        add(trie, "hiking", 3);
+        add(trie, "hockey", 2);
+
+        // One user swaps hiking for hockey, as InterestIndex does on a profile edit
+        trie.adjust("hiking", term("hiking"), -1);
+        trie.adjust("hockey", term("hockey"), 1);
+        assertEquals(List.of(term("hockey"), term("hiking")), trie.topTerms("h", 10));
+
+        // The last holders drop hiking entirely; it must stop being suggested
+        trie.adjust("hiking", term("hiking"), -2);
+        assertEquals(List.of(term("hockey")), trie.topTerms("h", 10));
+        assertTrue(trie.topTerms("hik", 10).isEmpty());
+
+        int nodes = trie.nodeCount();
+        add(trie, "hiking", 1);
+        assertEquals(nodes, trie.nodeCount());  // nodes are reused, not re-created
+    }
+
+    @Test
+    void matchesBruteForceUnderRandomAdjustments() {
+        InterestTrie trie = new InterestTrie();
+        Map<String, Integer> counts = new HashMap<>();
+        SplittableRandom random = new SplittableRandom(7);
+
+        for (int i = 0; i < 5_000; i++) {
+            String interest = INTERESTS.get(random.nextInt(INTERESTS.size()));
+            int current = counts.getOrDefault(interest, 0);
+            int delta = current > 0 && random.nextBoolean() ? -1 : 1;
+            trie.adjust(interest, term(interest), delta);
+            counts.put(interest, current + delta);
+
+            String source = INTERESTS.get(random.nextInt(INTERESTS.size()));
+            String prefix = source.substring(0, Math.min(source.length(), random.nextInt(3)));
+            List<Integer> actual = trie.topTerms(prefix, 3);
+            List<String> expected = new ArrayList<>();
+            counts.forEach((name, count) -> {
+                if (count > 0 && name.startsWith(prefix)) {
+                    expected.add(name);
+                }
+            });
+            expected.sort(Comparator.comparing((String name) -> -counts.get(name)));
+
+            assertEquals(Math.min(3, expected.size()), actual.size(), "prefix '" + prefix + "'");
+            for (int k = 0; k < actual.size(); k++) {
+                // Ties may come out in either order, so compare counts rather than terms
+                assertEquals(counts.get(expected.get(k)), counts.get(INTERESTS.get(actual.get(k))), "prefix '" + prefix + "'");
+            }
+        }
+    }
+
+    private static void add(InterestTrie trie, String interest, int users) {
+        trie.adjust(interest, term(interest), users);
+    }
+
+    private static int term(String interest) {
+        return INTERESTS.indexOf(interest);
+    }
+}
@@ -0,0 +1,138 @@
+package com.plusone.PlusOneBackend.service;
+
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * The distance keyset cursor of "people near me". The in-memory MongoDB has no $geoNear,
+ * so pages come from a stand-in with its semantics: rows at or beyond minDistance, minus
+ * the excluded ids, nearest first, and ties in no particular order from one call to the next.
+ */
+class NearbyCursorTest {
+
+    private final SplittableRandom random = new SplittableRandom(7);
+
+    @Test
+    void everyUserOnceAcrossTiesSpanningPages() {
+        List<Document> users = new ArrayList<>();
+        addUsers(users, 7, 1.0);
+        addUsers(users, 3, 1.0 + 1e-12);  // a km -> m -> km round trip away from 1.0
+        addUsers(users, 10, 2.5);
+        addUsers(users, 1, 2.75);
+        addUsers(users, 5, 4.0);
+
+        for (int pageSize : new int[] {1, 2, 3, 4, 7, 50}) {
+            List<Document> seen = walk(users, pageSize);
+            assertEquals(users.size(), seen.size(), "page size " + pageSize);
+            assertEquals(users.size(), new HashSet<>(seen).size(), "page size " + pageSize);
+            for (int i = 1; i < seen.size(); i++) {
+                assertTrue(distanceOf(seen.get(i)) >= distanceOf(seen.get(i - 1)) - 1e-9, "page size " + pageSize);
+            }
+        }
+    }
+
+    @Test
+    void tiedIdsCarryOverWhileTheTieLasts() {
+        List<Document> page1 = List.of(row(1.0), row(2.0), row(2.0));
+        NearbyUserService.Position first = decode(page1, null);
+        assertEquals(2.0, first.distanceKm());
+        assertEquals(List.of(idOf(page1.get(1)), idOf(page1.get(2))), first.tiedIds());
+
+        List<Document> page2 = List.of(row(2.0), row(2.0));
+        NearbyUserService.Position second = decode(page2, first);
+        assertEquals(4, second.tiedIds().size());
+
+        // Past the tie, the earlier ids are no longer needed
+        List<Document> page3 = List.of(row(2.0), row(3.0));
+        assertEquals(List.of(idOf(page3.get(1))), decode(page3, second).tiedIds());
+    }
+
+    @Test
+    void rejectsMalformedCursors() {
+        String[] cursors = {
+            "not base64!",
+            encode("no separator"),
+            encode("abc:" + new ObjectId().toHexString()),  // not a distance
+            encode("-1.0:" + new ObjectId().toHexString()),
+            encode("NaN:" + new ObjectId().toHexString()),
+            encode("1.5:not-an-object-id"),
+            encode("1.5:"),
+        };
+        for (String cursor : cursors) {
+            IllegalArgumentException e = assertThrows(IllegalArgumentException.class,
+                () -> NearbyUserService.decodeCursor(cursor), cursor);
+            assertEquals("Invalid cursor", e.getMessage());
+        }
+    }
+
+    private List<Document> walk(List<Document> users, int pageSize) {
+        List<Document> seen = new ArrayList<>();
+        NearbyUserService.Position after = null;
+        while (true) {
+            List<Document> rows = geoNear(users, after, pageSize + 1);
+            List<Document> page = rows.subList(0, Math.min(pageSize, rows.size()));
+            seen.addAll(page);
+            if (rows.size() <= pageSize) {
+                return seen;
+            }
+            after = decode(page, after);
+        }
+    }
+
+    private List<Document> geoNear(List<Document> users, NearbyUserService.Position after, int limit) {
+        List<Document> rows = new ArrayList<>();
+        Set<String> excluded = after != null ? new HashSet<>(after.tiedIds()) : Set.of();
+        for (Document user : users) {
+            if ((after == null || distanceOf(user) >= after.minDistanceKm()) && !excluded.contains(idOf(user))) {
+                rows.add(user);
+            }
+        }
+        List<Double> shuffle = rows.stream().map(row -> random.nextDouble()).toList();
+        List<Integer> order = new ArrayList<>();
+        for (int i = 0; i < rows.size(); i++) {
+            order.add(i);
+        }
+        order.sort(Comparator.<Integer>comparingDouble(i -> distanceOf(rows.get(i))).thenComparing(shuffle::get));
+        return order.stream().limit(limit).map(rows::get).toList();
+    }
+
+    private static NearbyUserService.Position decode(List<Document> page, NearbyUserService.Position previous) {
+        return NearbyUserService.decodeCursor(NearbyUserService.encodeCursor(page, previous));
+    }
+
+    private static void addUsers(List<Document> users, int count, double distanceKm) {
+        for (int i = 0; i < count; i++) {
+            users.add(row(distanceKm));
+        }
+    }
+
+    private static Document row(double distanceKm) {
+        return new Document("_id", new ObjectId()).append("distance", distanceKm);
+    }
+
+    private static String idOf(Document row) {
+        return row.getObjectId("_id").toHexString();
+    }
+
+    private static double distanceOf(Document row) {
+        return row.getDouble("distance");
+    }
+
+    private static String encode(String raw) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,115 @@
+package com.plusone.PlusOneBackend.service;
+
+import com.plusone.PlusOneBackend.model.Profile;
+import com.plusone.PlusOneBackend.model.User;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Ranking, prefix matching, re-indexing, and that MaxScore pruning returns the same top
+ * K as scoring every match.
+ */
+class PeopleSearchIndexTest {
+
+    private static final String[] FIRST_NAMES = {"Alice", "Bob", "Carmen", "Deepak", "Elena", "Farid"};
+    private static final String[] LAST_NAMES = {"Smith", "Nguyen", "Garcia", "Patel", "Kim"};
+    private static final String[] TITLES = {"Software Engineer", "Data Scientist", "Product Designer", "Nurse", "Engineering Manager"};
+    private static final String[] COMPANIES = {"Microsoft", "Google", "HCA", "Amazon"};
+    private static final String[] CITIES = {"Nashville", "Memphis", "Austin"};
+    private static final String[] INTERESTS = {"Hiking", "Chess", "Jazz", "Machine Learning", "Soccer", "Film"};
+
+    private PeopleSearchIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new PeopleSearchIndex();
+        ReflectionTestUtils.setField(index, "userIdDictionary", new UserIdDictionary());
+    }
+
+    @Test
+    void ranksNameMatchesAboveCityMatches() {
+        index.index(user(1, "Nashville", "Smith", "Nurse", "HCA", "Memphis", "Jazz"));
+        index.index(user(2, "Alice", "Kim", "Nurse", "HCA", "Nashville", "Jazz"));
+        index.index(user(3, "Bob", "Patel", "Nurse", "HCA", "Austin", "Chess"));
+
+        assertEquals(List.of(id(1), id(2)), index.search("nashville", 10));
+        assertEquals(List.of(id(1)), index.search("nashville", 1));
+    }
+
+    @Test
+    void lastWordMatchesAsPrefix() {
+        index.index(user(1, "Alice", "Kim", "Software Engineer", "Google", "Austin", "Chess"));
+        index.index(user(2, "Bob", "Patel", "Product Designer", "Google", "Austin", "Chess"));
+
+        assertEquals(List.of(id(1)), index.search("software eng", 10));
+        assertEquals(List.of(id(1)), index.search("eng", 10));
+        assertTrue(index.search("eng software", 10).contains(id(1)));  // only the last word is a prefix
+        assertTrue(index.search("xyz", 10).isEmpty());
+    }
+
+    @Test
+    void reindexedUserIsFoundByNewFieldsOnly() {
+        index.index(user(1, "Alice", "Kim", "Software Engineer", "Google", "Austin", "Chess"));
+        index.index(user(2, "Bob", "Patel", "Nurse", "HCA", "Memphis", "Jazz"));
+
+        index.index(user(1, "Alice", "Kim", "Data Scientist", "Amazon", "Nashville", "Hiking"));
+
+        assertTrue(index.search("google", 10).isEmpty());
+        assertTrue(index.search("chess", 10).isEmpty());
+        assertEquals(List.of(id(1)), index.search("amazon data", 10));
+        assertEquals(List.of(id(1)), index.search("hiking", 10));
+        assertEquals(List.of(id(2)), index.search("nurse", 10));
+    }
+
+    @Test
+    void prunedTopKMatchesFullRanking() {
+        SplittableRandom random = new SplittableRandom(5);
+        int users = 400;
+        for (int n = 0; n < users; n++) {
+            index.index(user(n, pick(FIRST_NAMES, random), pick(LAST_NAMES, random), pick(TITLES, random),
+                pick(COMPANIES, random), pick(CITIES, random), pick(INTERESTS, random)));
+        }
+        // Re-index some users so the postings have seen removals too
+        for (int i = 0; i < 100; i++) {
+            int n = random.nextInt(users);
+            index.index(user(n, pick(FIRST_NAMES, random), pick(LAST_NAMES, random), pick(TITLES, random),
+                pick(COMPANIES, random), pick(CITIES, random), pick(INTERESTS, random)));
+        }
+
+        String[] queries = {"alice google", "software engineer nashville", "kim patel hiking", "data scientist amazon austin",
+            "nurse hca memphis jazz", "engineering man", "farid chess film", "machine learning goo"};
+        for (String query : queries) {
+            // With a limit above the number of matches no pruning can kick in
+            List<String> full = index.search(query, users);
+            for (int k : new int[] {1, 5, 20}) {
+                assertEquals(full.subList(0, Math.min(k, full.size())), index.search(query, k), query + " k=" + k);
+            }
+        }
+    }
+
+    private static String pick(String[] values, SplittableRandom random) {
+        return values[random.nextInt(values.length)];
+    }
+
+    private static String id(int n) {
+        return String.format("%024x", n);
+    }
+
+    private static User user(int n, String firstName, String lastName, String title, String company, String city, String interest) {
+        Profile profile = new Profile();
+        profile.setJob(Profile.Job.builder().title(title).companiesName(company).build());
+        profile.setLocation(Profile.Location.builder().city(city).build());
+        profile.setInterests(List.of(interest));
+        User user = new User("user" + n + "@vanderbilt.edu", "secret", firstName, lastName);
+        user.setId(id(n));
+        user.setProfile(profile);
+        return user;
+    }
+}
@@ -0,0 +1,119 @@
+package com.plusone.PlusOneBackend.service;
+
+import com.mongodb.client.MongoClient;
+import com.mongodb.client.MongoClients;
+import com.plusone.PlusOneBackend.model.Connection;
+import de.bwaldvogel.mongo.MongoServer;
+import de.bwaldvogel.mongo.backend.memory.MemoryBackend;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.BitSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Mutual-connection counts kept up from edge events agree with a reload's recount, and a
+ * reload only sends users whose counts changed back for ranking.
+ */
+class PeopleYouMayKnowTest {
+
+    private MongoServer server;
+    private MongoClient client;
+    private MongoTemplate mongoTemplate;
+    private ConnectionGraph connectionGraph;
+    private PeopleYouMayKnowService service;
+
+    @BeforeEach
+    void setUp() {
+        server = new MongoServer(new MemoryBackend());
+        client = MongoClients.create(server.bindAndGetConnectionString());
+        mongoTemplate = new MongoTemplate(client, "plusone_test");
+
+        UserIdDictionary userIdDictionary = new UserIdDictionary();
+        connectionGraph = new ConnectionGraph();
+        ReflectionTestUtils.setField(connectionGraph, "mongoTemplate", mongoTemplate);
+        ReflectionTestUtils.setField(connectionGraph, "userIdDictionary", userIdDictionary);
+
+        service = new PeopleYouMayKnowService();
+        ReflectionTestUtils.setField(service, "connectionGraph", connectionGraph);
+        ReflectionTestUtils.setField(service, "userIdDictionary", userIdDictionary);
+        service.registerWithGraph();
+    }
+
+    @AfterEach
+    void tearDown() {
+        client.close();
+        server.shutdownNow();
+    }
+
+    @Test
+    void unchangedReloadMarksNobodyDirty() {
+        // 1 knows 2, 3, 4; 5 knows 2 and 3
+        connect(1, 2);
+        connect(1, 3);
+        connect(1, 4);
+        connect(5, 2);
+        connectionGraph.reload();
+        service.refreshDirtyUsers();
+
+        // Edges arriving one at a time, then persisted, as ConnectionService does
+        connectionGraph.addEdge(id(5), id(3));
+        connect(5, 3);
+        connectionGraph.addEdge(id(6), id(4));
+        connect(6, 4);
+        service.refreshDirtyUsers();
+        assertEquals(List.of(id(5), id(6)), service.suggestionsFor(id(1), 10));
+
+        connectionGraph.reload();
+        assertTrue(dirty().isEmpty(), "dirty after reload: " + dirty());
+        assertEquals(List.of(id(5), id(6)), service.suggestionsFor(id(1), 10));
+    }
+
+    @Test
+    void reloadMarksOnlyUsersWhoseCountsChanged() {
+        connect(1, 2);
+        connect(2, 3);
+        connect(4, 5);
+        connect(5, 6);
+        connectionGraph.reload();
+        service.refreshDirtyUsers();
+        assertEquals(List.of(id(3)), service.suggestionsFor(id(1), 10));
+
+        // Written by another instance; this one only sees it on reload
+        connect(2, 7);
+        connectionGraph.reload();
+
+        BitSet expected = new BitSet();
+        for (int n : new int[] {1, 3, 7}) {
+            expected.set(denseId(n));
+        }
+        assertEquals(expected, dirty());
+        service.refreshDirtyUsers();
+        assertEquals(Set.of(id(3), id(7)), Set.copyOf(service.suggestionsFor(id(1), 10)));
+        assertEquals(List.of(id(4)), service.suggestionsFor(id(6), 10));
+    }
+
+    private BitSet dirty() {
+        return (BitSet) ReflectionTestUtils.getField(service, "dirty");
+    }
+
+    private int denseId(int n) {
+        return ((UserIdDictionary) ReflectionTestUtils.getField(service, "userIdDictionary")).find(id(n));
+    }
+
+    private void connect(int a, int b) {
+        mongoTemplate.insert(Connection.builder()
+            .user1Id(id(a)).user2Id(id(b)).pairKey(Connection.pairKeyOf(id(a), id(b))).build());
+    }
+
+    private static String id(int n) {
+        return String.format("%024x", n);
+    }
+}
@@ -0,0 +1,49 @@
+package com.plusone.PlusOneBackend.service;
+
+import com.plusone.PlusOneBackend.model.Post;
+import org.bson.types.ObjectId;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Base64;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * The (createdAt, _id) keyset cursor shared by the per-user post list and the feeds.
+ */
+class PostCursorTest {
+
+    @Test
+    void roundTripsCreatedAtAndId() {
+        Post post = new Post();
+        post.setId(new ObjectId().toHexString());
+        post.setCreatedAt(Instant.parse("2026-03-01T12:34:56.789Z"));
+
+        PostService.Position position = PostService.decodeCursor(PostService.encodeCursor(post));
+
+        assertEquals(post.getCreatedAt(), position.createdAt());
+        assertEquals(new ObjectId(post.getId()), position.id());
+    }
+
+    @Test
+    void rejectsMalformedCursors() {
+        String[] cursors = {
+            "not base64!",
+            encode("no separator"),
+            encode("abc:" + new ObjectId().toHexString()),  // not a timestamp
+            encode("1700000000000:not-an-object-id"),
+            encode("1700000000000:"),
+        };
+        for (String cursor : cursors) {
+            IllegalArgumentException e = assertThrows(IllegalArgumentException.class, () -> PostService.decodeCursor(cursor), cursor);
+            assertEquals("Invalid cursor", e.getMessage());
+        }
+    }
+
+    private static String encode(String raw) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,148 @@
+package com.plusone.PlusOneBackend.service;
+
+import com.mongodb.client.MongoClient;
+import com.mongodb.client.MongoClients;
+import com.plusone.PlusOneBackend.dto.PostPatchRequest;
+import com.plusone.PlusOneBackend.model.Post;
+import com.plusone.PlusOneBackend.repository.PostRepository;
+import de.bwaldvogel.mongo.MongoServer;
+import de.bwaldvogel.mongo.backend.memory.MemoryBackend;
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.repository.support.MongoRepositoryFactory;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Partial post updates against an in-memory MongoDB: the version bump, rejection of a
+ * stale version, and the fields a patch may and may not touch.
+ */
+class PostPatchTest {
+
+    private MongoServer server;
+    private MongoClient client;
+    private MongoTemplate mongoTemplate;
+    private PostService postService;
+
+    @BeforeEach
+    void setUp() {
+        server = new MongoServer(new MemoryBackend());
+        client = MongoClients.create(server.bindAndGetConnectionString());
+        mongoTemplate = new MongoTemplate(client, "plusone_test");
+
+        postService = new PostService();
+        ReflectionTestUtils.setField(postService, "mongoTemplate", mongoTemplate);
+        ReflectionTestUtils.setField(postService, "postRepository",
+            new MongoRepositoryFactory(mongoTemplate).getRepository(PostRepository.class));
+    }
+
+    @AfterEach
+    void tearDown() {
+        client.close();
+        server.shutdownNow();
+    }
+
+    @Test
+    void patchSetsListedFieldsAndBumpsVersion() {
+        Post post = mongoTemplate.insert(post());
+        assertEquals(0L, post.getVersion());
+
+        Post updated = postService.patchPost(post.getId(), patch(" job opportunities ", "New title", null, 0L));
+
+        assertEquals(1L, updated.getVersion());
+        assertEquals("Job opportunities", updated.getCategory());
+        assertEquals("New title", updated.getTitle());
+        assertEquals(post.getDescription(), updated.getDescription());
+        assertEquals(post.getUserId(), updated.getUserId());
+        assertEquals(post.getCreatedAt(), updated.getCreatedAt());
+        assertEquals(updated.getTitle(), mongoTemplate.findById(post.getId(), Post.class).getTitle());
+    }
+
+    @Test
+    void staleVersionIsRejected() {
+        Post post = mongoTemplate.insert(post());
+        postService.patchPost(post.getId(), patch(null, "First edit", null, 0L));
+
+        assertThrows(OptimisticLockingFailureException.class,
+            () -> postService.patchPost(post.getId(), patch(null, "Based on an old copy", null, 0L)));
+
+        Post stored = mongoTemplate.findById(post.getId(), Post.class);
+        assertEquals("First edit", stored.getTitle());
+        assertEquals(1L, stored.getVersion());
+    }
+
+    @Test
+    void patchWithoutVersionOverwrites() {
+        Post post = mongoTemplate.insert(post());
+        postService.patchPost(post.getId(), patch(null, "First edit", null, null));
+
+        Post updated = postService.patchPost(post.getId(), patch(null, null, "Second edit", null));
+
+        assertEquals(2L, updated.getVersion());
+        assertEquals("First edit", updated.getTitle());
+        assertEquals("Second edit", updated.getDescription());
+    }
+
+    @Test
+    void emptyImageUrlRemovesTheImage() {
+        Post post = post();
+        post.setImageUrl("/api/photos/abc");
+        mongoTemplate.insert(post);
+
+        PostPatchRequest patch = new PostPatchRequest();
+        patch.setImageUrl("");
+        postService.patchPost(post.getId(), patch);
+
+        Document stored = mongoTemplate.getCollection("posts").find(new Document("_id", new ObjectId(post.getId()))).first();
+        assertFalse(stored.containsKey("imageUrl"));
+    }
+
+    @Test
+    void missingPostIsNull() {
+        String id = new ObjectId().toHexString();
+        assertNull(postService.patchPost(id, patch(null, "Title", null, null)));
+        assertNull(postService.patchPost(id, patch(null, "Title", null, 3L)));
+    }
+
+    @Test
+    void rejectsEmptyPatchAndUnknownCategory() {
+        Post post = mongoTemplate.insert(post());
+
+        assertThrows(IllegalArgumentException.class, () -> postService.patchPost(post.getId(), new PostPatchRequest()));
+        assertThrows(IllegalArgumentException.class,
+            () -> postService.patchPost(post.getId(), patch("Concerts", null, null, 0L)));
+        assertEquals(0L, mongoTemplate.findById(post.getId(), Post.class).getVersion());
+    }
+
+    private static Post post() {
+        Post post = new Post();
+        post.setId(new ObjectId().toHexString());
+        post.setUserId(String.format("%024x", 1));
+        post.setCategory("Events");
+        post.setTitle("Original title");
+        post.setDescription("Original description");
+        post.setCreatedAt(Instant.now().truncatedTo(ChronoUnit.MILLIS));
+        return post;
+    }
+
+    private static PostPatchRequest patch(String category, String title, String description, Long version) {
+        PostPatchRequest patch = new PostPatchRequest();
+        patch.setCategory(category);
+        patch.setTitle(title);
+        patch.setDescription(description);
+        patch.setVersion(version);
+        return patch;
+    }
+}
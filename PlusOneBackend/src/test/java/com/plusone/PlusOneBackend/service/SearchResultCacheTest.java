@@ -0,0 +1,124 @@
+package com.plusone.PlusOneBackend.service;
+
+import com.plusone.PlusOneBackend.dto.UserSearchPage;
+import com.plusone.PlusOneBackend.model.Profile;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Single-flight loads, and the race between a load and a profile change: a page whose
+ * load overlapped onProfileChanged may have read the old index, so it is served once
+ * and not kept.
+ */
+class SearchResultCacheTest {
+
+    private final SearchResultCache cache = new SearchResultCache(1 << 20, Duration.ofMinutes(1));
+    private final SearchResultCache.Key key = SearchResultCache.Key.of("hiking", null, null, 20);
+    private final AtomicInteger loads = new AtomicInteger();
+
+    @Test
+    void pageLoadedWithoutProfileChangesIsKept() {
+        UserSearchPage first = cache.get(key, k -> load());
+        assertSame(first, cache.get(key, k -> load()));
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    void profileChangeDuringLoadDropsThePage() {
+        UserSearchPage raced = cache.get(key, k -> {
+            // Even a change the key does not match: the load cannot tell which users it read
+            cache.onProfileChanged(profile("Chess"), profile("Chess", "Film"));
+            return load();
+        });
+        assertEquals(1, loads.get());
+
+        UserSearchPage reloaded = cache.get(key, k -> load());
+        assertEquals(2, loads.get());
+        assertNotSame(raced, reloaded);
+        assertSame(reloaded, cache.get(key, k -> load()));
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void profileChangeOnAnotherThreadDuringLoadDropsThePage() throws Exception {
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch changed = new CountDownLatch(1);
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            Future<UserSearchPage> page = executor.submit(() -> cache.get(key, k -> {
+                loading.countDown();
+                await(changed);
+                return load();
+            }));
+            assertTrue(loading.await(5, TimeUnit.SECONDS));
+            cache.onProfileChanged(profile("Chess"), profile("Hiking"));
+            changed.countDown();
+            page.get(5, TimeUnit.SECONDS);
+        } finally {
+            executor.shutdownNow();
+        }
+
+        cache.get(key, k -> load());
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void concurrentRequestsShareOneLoad() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<UserSearchPage>> pages = executor.invokeAll(List.of(
+                    () -> cache.get(key, k -> loadAfter(release)),
+                    () -> cache.get(key, k -> loadAfter(release)),
+                    () -> cache.get(key, k -> loadAfter(release)),
+                    () -> {
+                        release.countDown();
+                        return cache.get(key, k -> loadAfter(release));
+                    }),
+                5, TimeUnit.SECONDS);
+            for (Future<UserSearchPage> page : pages) {
+                assertSame(pages.get(0).get(), page.get());
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        assertEquals(1, loads.get());
+    }
+
+    private UserSearchPage load() {
+        loads.incrementAndGet();
+        return UserSearchPage.builder().users(List.of()).build();
+    }
+
+    private UserSearchPage loadAfter(CountDownLatch release) {
+        await(release);
+        return load();
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static Profile profile(String... interests) {
+        Profile profile = new Profile();
+        profile.setInterests(List.of(interests));
+        return profile;
+    }
+}
@@ -0,0 +1,112 @@
+package com.plusone.PlusOneBackend.service;
+
+import com.plusone.PlusOneBackend.model.Profile;
+import com.plusone.PlusOneBackend.model.User;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * LSH lookups, including that re-indexing a changed user moves them between buckets.
+ */
+class SimilarInterestsIndexTest {
+
+    private UserIdDictionary userIdDictionary;
+    private SimilarInterestsIndex index;
+
+    @BeforeEach
+    void setUp() {
+        userIdDictionary = new UserIdDictionary();
+        index = newIndex();
+    }
+
+    private SimilarInterestsIndex newIndex() {
+        SimilarInterestsIndex similarInterestsIndex = new SimilarInterestsIndex();
+        ReflectionTestUtils.setField(similarInterestsIndex, "userIdDictionary", userIdDictionary);
+        return similarInterestsIndex;
+    }
+
+    @Test
+    void identicalInterestsMatchExactly() {
+        index.index(user(1, "Hiking", "Chess", "Jazz"));
+        index.index(user(2, "hiking", "CHESS", "jazz "));
+        index.index(user(3, "Yoga", "Film"));
+
+        List<SimilarInterestsIndex.Match> matches = index.similarTo(id(1), 10);
+        assertEquals(List.of(new SimilarInterestsIndex.Match(id(2), 1.0, 3)), matches);
+        assertTrue(index.similarTo(id(4), 10).isEmpty());
+    }
+
+    @Test
+    void reindexedUserMovesBetweenBuckets() {
+        index.index(user(1, "Hiking", "Chess", "Jazz"));
+        index.index(user(2, "Hiking", "Chess", "Jazz"));
+        index.index(user(3, "Yoga", "Film", "Poetry"));
+
+        // User 2 trades all their interests for user 3's
+        index.index(user(2, "Yoga", "Film", "Poetry"));
+        assertTrue(index.similarTo(id(1), 10).isEmpty());
+        assertEquals(List.of(new SimilarInterestsIndex.Match(id(2), 1.0, 3)), index.similarTo(id(3), 10));
+
+        // ... and then clears them
+        index.index(user(2));
+        assertTrue(index.similarTo(id(3), 10).isEmpty());
+        assertTrue(index.similarTo(id(2), 10).isEmpty());
+    }
+
+    @Test
+    void incrementalUpdatesMatchFreshRebuild() {
+        List<String> interests = List.of("Hiking", "Chess", "Jazz", "Yoga", "Film", "Poetry", "Dogs", "Chess Boxing");
+        SimilarInterestsIndex rebuilt = newIndex();
+        // A seed user fixes the interest ids (and so the MinHash signatures) the same in both
+        for (SimilarInterestsIndex similarInterestsIndex : List.of(index, rebuilt)) {
+            similarInterestsIndex.index(user(1_000, interests.toArray(new String[0])));
+            similarInterestsIndex.index(user(1_000));
+        }
+
+        SplittableRandom random = new SplittableRandom(11);
+        User[] latest = new User[40];
+        for (int i = 0; i < 2_000; i++) {
+            int n = random.nextInt(latest.length);
+            List<String> picked = new ArrayList<>();
+            for (String interest : interests) {
+                if (random.nextInt(3) == 0) {
+                    picked.add(interest);
+                }
+            }
+            latest[n] = user(n, picked.toArray(new String[0]));
+            index.index(latest[n]);
+        }
+        for (User user : latest) {
+            if (user != null) {
+                rebuilt.index(user);
+            }
+        }
+
+        for (User user : latest) {
+            if (user != null) {
+                assertEquals(rebuilt.similarTo(user.getId(), 100), index.similarTo(user.getId(), 100), user.getId());
+            }
+        }
+    }
+
+    private static String id(int n) {
+        return String.format("%024x", n);
+    }
+
+    private static User user(int n, String... interests) {
+        Profile profile = new Profile();
+        profile.setInterests(List.of(interests));
+        User user = new User("user" + n + "@vanderbilt.edu", "secret", "First" + n, "Last" + n);
+        user.setId(id(n));
+        user.setProfile(profile);
+        return user;
+    }
+}
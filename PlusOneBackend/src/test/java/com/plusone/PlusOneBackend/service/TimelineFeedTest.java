@@ -0,0 +1,239 @@
+package com.plusone.PlusOneBackend.service;
+
+import com.mongodb.client.MongoClient;
+import com.mongodb.client.MongoClients;
+import com.plusone.PlusOneBackend.dto.PostPage;
+import com.plusone.PlusOneBackend.model.Connection;
+import com.plusone.PlusOneBackend.model.Post;
+import com.plusone.PlusOneBackend.model.TimelineEntry;
+import com.plusone.PlusOneBackend.model.TimelineHorizon;
+import de.bwaldvogel.mongo.MongoServer;
+import de.bwaldvogel.mongo.backend.memory.MemoryBackend;
+import org.bson.types.ObjectId;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * The fan-out feed against an in-memory MongoDB, with fan-out run inline: whatever the
+ * timeline holds, every page walk returns each connection's posts exactly once, newest
+ * first, as a pull over all connections would.
+ */
+class TimelineFeedTest {
+
+    private static final int FAN_OUT_MAX_CONNECTIONS = 3;
+    private static final int MAX_ENTRIES = 5;
+
+    private static final String READER = id(1);
+    private static final String AUTHOR = id(2);
+    private static final String OTHER_AUTHOR = id(3);
+
+    private MongoServer server;
+    private MongoClient client;
+    private MongoTemplate mongoTemplate;
+    private UserIdDictionary userIdDictionary;
+    private ConnectionGraph connectionGraph;
+    private TimelineService timelineService;
+    private PostService postService;
+
+    // Posts from here on are newer than any horizon a read starts
+    private final Instant later = Instant.now().plus(1, ChronoUnit.HOURS).truncatedTo(ChronoUnit.MILLIS);
+
+    @BeforeEach
+    void setUp() {
+        server = new MongoServer(new MemoryBackend());
+        client = MongoClients.create(server.bindAndGetConnectionString());
+        mongoTemplate = new MongoTemplate(client, "plusone_test");
+
+        userIdDictionary = new UserIdDictionary();
+        connectionGraph = new ConnectionGraph();
+        ReflectionTestUtils.setField(connectionGraph, "mongoTemplate", mongoTemplate);
+        ReflectionTestUtils.setField(connectionGraph, "userIdDictionary", userIdDictionary);
+        timelineService = newTimelineService();
+
+        postService = new PostService();
+        ReflectionTestUtils.setField(postService, "mongoTemplate", mongoTemplate);
+        ReflectionTestUtils.setField(postService, "connectionGraph", connectionGraph);
+        ReflectionTestUtils.setField(postService, "timelineService", timelineService);
+    }
+
+    private TimelineService newTimelineService() {
+        TimelineService service = new TimelineService(mongoTemplate, connectionGraph, userIdDictionary, Runnable::run,
+            true, FAN_OUT_MAX_CONNECTIONS, MAX_ENTRIES);
+        service.registerWithGraph();
+        return service;
+    }
+
+    @AfterEach
+    void tearDown() {
+        client.close();
+        server.shutdownNow();
+    }
+
+    @Test
+    void newPostsAreFannedOutAndRead() {
+        connect(READER, AUTHOR, OTHER_AUTHOR);
+        feed(READER, 10);  // starts the reader's horizon
+
+        for (int i = 0; i < 8; i++) {
+            publish(i % 2 == 0 ? AUTHOR : OTHER_AUTHOR, later.plusSeconds(i));
+        }
+
+        assertEquals(8, timelineOf(READER).size());
+        assertFeedComplete(READER);
+    }
+
+    @Test
+    void postsFromBeforeFanOutAreStillReached() {
+        connect(READER, AUTHOR, OTHER_AUTHOR);
+        // Written before fan-out was enabled, so never fanned out
+        for (int i = 0; i < 12; i++) {
+            insert(i % 2 == 0 ? AUTHOR : OTHER_AUTHOR, later.minus(2, ChronoUnit.HOURS).plusSeconds(i));
+        }
+        feed(READER, 10);
+        for (int i = 0; i < 12; i++) {
+            publish(i % 2 == 0 ? AUTHOR : OTHER_AUTHOR, later.plusSeconds(i));
+        }
+
+        assertFeedComplete(READER);
+    }
+
+    @Test
+    void partialBackfillDoesNotHideOlderPosts() {
+        connect(READER, AUTHOR);
+        feed(READER, 10);
+
+        // A prolific user the reader has not connected to yet, posting between the author's posts
+        String prolific = id(4);
+        for (int i = 0; i < TimelineService.BACKFILL_POSTS + 20; i++) {
+            insert(prolific, later.plusSeconds(i));
+        }
+        for (int i = 0; i < 10; i++) {
+            publish(AUTHOR, later.plusSeconds(i * 7));
+        }
+        connectionGraph.addEdge(READER, prolific);
+
+        assertEquals(TimelineService.BACKFILL_POSTS, timelineOf(READER).stream()
+            .filter(entry -> entry.getAuthorId().equals(prolific)).count());
+        assertFeedComplete(READER);
+    }
+
+    @Test
+    void trimmedTimelineFallsBackToPull() {
+        connect(READER, AUTHOR);
+        feed(READER, 10);
+        for (int i = 0; i < 3 * MAX_ENTRIES; i++) {
+            publish(AUTHOR, later.plusSeconds(i));
+        }
+
+        timelineService.trimTimelines();
+
+        List<TimelineEntry> kept = timelineOf(READER);
+        assertEquals(MAX_ENTRIES, kept.size());
+        TimelineHorizon horizon = mongoTemplate.findById(READER, TimelineHorizon.class);
+        assertTrue(horizon.getCreatedAt().isBefore(kept.get(kept.size() - 1).getCreatedAt()));
+        assertFeedComplete(READER);
+    }
+
+    @Test
+    void trimWithoutReadsLeavesHorizonToFirstRead() {
+        connect(READER, AUTHOR);
+        for (int i = 0; i < 3 * MAX_ENTRIES; i++) {
+            publish(AUTHOR, later.plusSeconds(i));
+        }
+        timelineService.trimTimelines();
+        assertNull(mongoTemplate.findById(READER, TimelineHorizon.class));
+
+        assertFeedComplete(READER);
+    }
+
+    @Test
+    void authorStaysPulledAfterLosingConnections() {
+        String popular = id(5);
+        connect(popular, READER, id(6), id(7), id(8));
+        connect(READER, AUTHOR);
+        feed(READER, 10);
+
+        publish(popular, later);  // too many connections: not fanned out
+        publish(AUTHOR, later.plusSeconds(1));
+        assertEquals(List.of(AUTHOR), timelineOf(READER).stream().map(TimelineEntry::getAuthorId).toList());
+
+        // Back under the threshold; the skipped post must still be pulled
+        mongoTemplate.remove(new Query(Criteria.where("user2Id").in(id(7), id(8))), Connection.class);
+        connectionGraph.reload();
+        assertEquals(FAN_OUT_MAX_CONNECTIONS - 1, connectionGraph.degreeOf(popular));
+        publish(popular, later.plusSeconds(2));
+
+        assertFeedComplete(READER);
+        assertTrue(newTimelineService().isPulled(popular, 0));  // also on other instances
+    }
+
+    private void assertFeedComplete(String reader) {
+        List<String> authors = connectionGraph.connectionIdsOf(reader);
+        List<String> expected = mongoTemplate.find(new Query(Criteria.where("userId").in(authors)), Post.class).stream()
+            .sorted(Comparator.comparing(Post::getCreatedAt).thenComparing(Post::getId).reversed())
+            .map(Post::getId)
+            .toList();
+        for (int limit : new int[] {1, 4, 10}) {
+            assertEquals(expected, feed(reader, limit), "limit " + limit);
+        }
+    }
+
+    private List<String> feed(String reader, int limit) {
+        List<String> seen = new ArrayList<>();
+        String cursor = null;
+        do {
+            PostPage page = postService.getConnectionsFeed(reader, cursor, limit);
+            page.getPosts().forEach(post -> seen.add(post.getId()));
+            cursor = page.getNextCursor();
+        } while (cursor != null);
+        return seen;
+    }
+
+    private List<TimelineEntry> timelineOf(String ownerId) {
+        Query query = new Query(Criteria.where("ownerId").is(ownerId))
+            .with(Sort.by(Sort.Direction.DESC, "createdAt", "postId"));
+        return mongoTemplate.find(query, TimelineEntry.class);
+    }
+
+    private void connect(String userId, String... others) {
+        for (String other : others) {
+            mongoTemplate.insert(Connection.builder()
+                .user1Id(userId).user2Id(other).pairKey(Connection.pairKeyOf(userId, other)).build());
+        }
+        connectionGraph.reload();
+    }
+
+    private void publish(String userId, Instant createdAt) {
+        timelineService.onPostCreated(insert(userId, createdAt));
+    }
+
+    private Post insert(String userId, Instant createdAt) {
+        Post post = new Post();
+        post.setId(new ObjectId().toHexString());
+        post.setUserId(userId);
+        post.setCategory(Post.CATEGORIES.get(0));
+        post.setTitle("Post by " + userId);
+        post.setCreatedAt(createdAt);
+        return mongoTemplate.insert(post);
+    }
+
+    private static String id(int n) {
+        return String.format("%024x", n);
+    }
+}
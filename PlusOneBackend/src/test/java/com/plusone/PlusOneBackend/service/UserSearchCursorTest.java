@@ -0,0 +1,46 @@
+package com.plusone.PlusOneBackend.service;
+
+import org.bson.types.ObjectId;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * The opaque user-id cursor of interest search.
+ */
+class UserSearchCursorTest {
+
+    @Test
+    void roundTripsUserId() {
+        String userId = new ObjectId().toHexString();
+        assertEquals(userId, UserSearchService.decodeCursor(UserSearchService.encodeCursor(userId)));
+    }
+
+    @Test
+    void normalizesUpperCaseIds() {
+        String userId = new ObjectId().toHexString();
+        assertEquals(userId, UserSearchService.decodeCursor(encode(userId.toUpperCase())));
+    }
+
+    @Test
+    void rejectsMalformedCursors() {
+        String[] cursors = {
+            "not base64!",
+            encode(""),
+            encode("not-an-object-id"),
+            encode(new ObjectId().toHexString() + "00"),
+        };
+        for (String cursor : cursors) {
+            IllegalArgumentException e = assertThrows(IllegalArgumentException.class, () -> UserSearchService.decodeCursor(cursor), cursor);
+            assertEquals("Invalid cursor", e.getMessage());
+        }
+    }
+
+    private static String encode(String raw) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -1,46 +1,29 @@
 import { useState, useEffect } from 'react';
 import { connectionService } from '../services/connectionService';
+import { photoSrc } from '../services/photoService';
+import type { UserCard } from '../services/connectionService';
 import ConnectPopup from './ConnectPopup';
 
-interface UserProfile {
-  userId: string;
-  firstName: string;
-  lastName: string;
-  email: string;
-  profile: {
-    gender?: string | null;
-    age?: number | null;
-    location: {
-      city: string;
-      state: string;
-      country: string;
-    };
-    job: {
-      title: string;
-      companiesName: string;
-    };
-    interests: string[];
-    profilePhoto: {
-      url?: string;
-    };
-  };
-  createdAt: string;
-}
-
 interface UserProfileCardProps {
-  user: UserProfile;
+  user: UserCard;
   currentUserId: string;
+  // Status already fetched by the list in one batch call; the card fetches its own when omitted
+  initialStatus?: string;
   onConnectionUpdate: () => void;
 }
 
-export default function UserProfileCard({ user, currentUserId, onConnectionUpdate }: UserProfileCardProps) {
-  const [connectionStatus, setConnectionStatus] = useState<string>('CONNECT');
+export default function UserProfileCard({ user, currentUserId, initialStatus, onConnectionUpdate }: UserProfileCardProps) {
+  const [connectionStatus, setConnectionStatus] = useState<string>(initialStatus || 'CONNECT');
   const [showConnectPopup, setShowConnectPopup] = useState(false);
   const [isLoading, setIsLoading] = useState(false);
 
   useEffect(() => {
-    loadConnectionStatus();
-  }, [user.userId, currentUserId]);
+    if (initialStatus) {
+      setConnectionStatus(initialStatus);
+    } else {
+      loadConnectionStatus();
+    }
+  }, [user.userId, currentUserId, initialStatus]);
 
   const loadConnectionStatus = async () => {
     try {
@@ -107,9 +90,9 @@ export default function UserProfileCard({ user, currentUserId, onConnectionUpdat
                   border: '3px solid #000'
                 }}
               >
-                {user.profile.profilePhoto?.url ? (
+                {user.photoUrl ? (
                   <img 
-                    src={user.profile.profilePhoto.url} 
+                    src={photoSrc(user.photoUrl)} 
                     alt={`${user.firstName} ${user.lastName}`}
                     className="rounded-circle"
                     style={{ width: '100%', height: '100%', objectFit: 'cover' }}
@@ -123,9 +106,12 @@ export default function UserProfileCard({ user, currentUserId, onConnectionUpdat
             </div>
 
             {/* Name */}
-            <h5 className="card-title text-center mb-3">
+            <h5 className="card-title text-center mb-1">
               {user.firstName} {user.lastName}
             </h5>
+            <p className="text-center text-muted small mb-3">
+              {[user.jobTitle, user.city].filter(Boolean).join(' · ') || '\u00a0'}
+            </p>
 
             {/* Connect Button */}
             <div className="text-center mb-3">
@@ -146,10 +132,10 @@ export default function UserProfileCard({ user, currentUserId, onConnectionUpdat
             </div>
 
             {/* Interests */}
-            {user.profile.interests && user.profile.interests.length > 0 && (
+            {user.interests && user.interests.length > 0 && (
               <div className="mt-auto">
                 <div className="d-flex flex-wrap gap-1 justify-content-center">
-                  {user.profile.interests.slice(0, 3).map((interest, index) => (
+                  {user.interests.slice(0, 3).map((interest, index) => (
                     <span
                       key={index}
                       className="badge rounded-pill"
@@ -162,9 +148,9 @@ export default function UserProfileCard({ user, currentUserId, onConnectionUpdat
                       {interest}
                     </span>
                   ))}
-                  {user.profile.interests.length > 3 && (
+                  {user.interests.length > 3 && (
                     <span className="badge rounded-pill bg-secondary">
-                      +{user.profile.interests.length - 3}
+                      +{user.interests.length - 3}
                     </span>
                   )}
                 </div>
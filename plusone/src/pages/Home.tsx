@@ -2,35 +2,12 @@ import { useState, useEffect } from "react";
 import Sidebar from "../components/Sidebar";
 import UserProfileCard from "../components/UserProfileCard";
 import { connectionService } from "../services/connectionService";
-
-interface UserProfile {
-  userId: string;
-  firstName: string;
-  lastName: string;
-  email: string;
-  profile: {
-    gender?: string | null;
-    age?: number | null;
-    location: {
-      city: string;
-      state: string;
-      country: string;
-    };
-    job: {
-      title: string;
-      companiesName: string;
-    };
-    interests: string[];
-    profilePhoto: {
-      url?: string;
-    };
-  };
-  createdAt: string;
-}
+import type { UserCard } from "../services/connectionService";
 
 function Home() {
   const [navOpen, setNavOpen] = useState(false);
-  const [users, setUsers] = useState<UserProfile[]>([]);
+  const [users, setUsers] = useState<UserCard[]>([]);
+  const [statuses, setStatuses] = useState<Record<string, string>>({});
   const [loading, setLoading] = useState(true);
   const [error, setError] = useState('');
 
@@ -51,7 +28,11 @@ function Home() {
   const loadRecentUsers = async () => {
     try {
       setLoading(true);
-      const recentUsers = await connectionService.getRecentUsers(user.userId);
+      const recentUsers = await connectionService.getSuggestedUsers(user.userId);
+      const recentStatuses = recentUsers.length
+        ? await connectionService.getConnectionStatuses(user.userId, recentUsers.map((u) => u.userId))
+        : {};
+      setStatuses(recentStatuses);
       setUsers(recentUsers);
     } catch (err: any) {
       setError('Failed to load users');
@@ -136,6 +117,7 @@ function Home() {
                 key={userProfile.userId}
                 user={userProfile}
                 currentUserId={user.userId}
+                initialStatus={statuses[userProfile.userId]}
                 onConnectionUpdate={handleConnectionUpdate}
               />
             ))}
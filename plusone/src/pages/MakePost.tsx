@@ -2,7 +2,8 @@ import { useEffect, useMemo, useRef, useState } from "react";
 import { useLocation, useNavigate } from "react-router-dom";
 import Sidebar from "../components/Sidebar";
 import { postService } from "../services/postService";
-import type { Post, Category } from "../types/post";
+import { photoService } from "../services/photoService";
+import type { Post, PostPatch, Category } from "../types/post";
 
 export default function MakePost() {
   const [navOpen, setNavOpen] = useState(false);
@@ -37,18 +38,40 @@ export default function MakePost() {
     e.preventDefault();
     if (!user?.userId) return;
 
-    // TODO: upload file later; for now, just ignore or use a stub URL
+    let uploadedUrl = imageUrl;
+    if (file && file.type.startsWith("image/")) {
+      uploadedUrl = (await photoService.upload(file, user.userId)).url;
+    }
     const payload: Post = {
       id: state?.post?.id,
       userId: user.userId,
       title,
       category,
       description,
-      imageUrl: imageUrl || undefined,
+      imageUrl: uploadedUrl || undefined,
     };
 
-    if (payload.id) {
-      await postService.update(payload.id, payload);
+    if (payload.id && state?.post) {
+      // Send only the fields that differ from the post we loaded, checked against its version
+      const loaded = state.post;
+      const changes: PostPatch = {};
+      if (title !== loaded.title) changes.title = title;
+      if (category !== loaded.category) changes.category = category;
+      if (description !== loaded.description) changes.description = description;
+      if ((payload.imageUrl || "") !== (loaded.imageUrl || "")) changes.imageUrl = payload.imageUrl || "";
+      if (Object.keys(changes).length === 0) {
+        navigate("/mypage");
+        return;
+      }
+      try {
+        await postService.patch(payload.id, { ...changes, version: loaded.version });
+      } catch (err: any) {
+        if (err?.response?.status === 409) {
+          alert("This post was changed somewhere else. Reload it and try again.");
+          return;
+        }
+        throw err;
+      }
     } else {
       await postService.create(payload);
     }
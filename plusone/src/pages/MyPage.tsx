@@ -3,6 +3,7 @@ import { Link, useNavigate } from "react-router-dom";
 import Sidebar from "../components/Sidebar";
 import { postService } from "../services/postService";
 import { connectionService } from "../services/connectionService";
+import { photoSrc } from "../services/photoService";
 import type { Post } from "../types/post";
 
 interface ConnectionRequest {
@@ -26,8 +27,11 @@ export default function MyPage() {
     connectionsCount: number;
     requestsCount: number;
     postsCount: number;
+    photoUrl?: string;
   } | null>(null);
   const [posts, setPosts] = useState<Post[]>([]);
+  const [postsCursor, setPostsCursor] = useState<string | null>(null);
+  const [postsLoading, setPostsLoading] = useState(false);
   const [connectionRequests, setConnectionRequests] = useState<ConnectionRequest[]>([]);
   const [requestsLoading, setRequestsLoading] = useState(false);
   const [error, setError] = useState('');
@@ -56,8 +60,10 @@ export default function MyPage() {
           connectionsCount: res.connectionsCount,
           requestsCount: res.requestsCount,
           postsCount: res.postsCount,
+          photoUrl: res.profile?.profilePhoto?.url,
         });
         setPosts(res.posts);
+        setPostsCursor(res.postsNextCursor);
         
         // Load connection requests
         loadConnectionRequests();
@@ -83,11 +89,26 @@ export default function MyPage() {
     }
   };
 
+  const loadMorePosts = async () => {
+    if (!user?.userId || !postsCursor) return;
+    try {
+      setPostsLoading(true);
+      const page = await postService.list(user.userId, postsCursor);
+      setPosts((prev) => [...prev, ...page.posts]);
+      setPostsCursor(page.nextCursor);
+    } catch (error) {
+      console.error('Failed to load more posts:', error);
+    } finally {
+      setPostsLoading(false);
+    }
+  };
+
   const onDelete = async (postId?: string) => {
     if (!postId) return;
     if (!confirm("Delete this post? This cannot be undone.")) return;
     await postService.remove(postId);
     setPosts((prev) => prev.filter((p) => p.id !== postId));
+    setProfile((prev) => (prev ? { ...prev, postsCount: Math.max(0, prev.postsCount - 1) } : prev));
   };
 
   const onEdit = (p: Post) => {
@@ -186,22 +207,35 @@ export default function MyPage() {
           <>
             {/* Profile block */}
             <div className="d-flex align-items-start gap-4 mb-4">
-              {/* avatar placeholder */}
-              <div
-                style={{
-                  width: 110,
-                  height: 110,
-                  borderRadius: "50%",
-                  border: "6px solid #000",
-                  background: "#efefef",
-                }}
-              />
+              {profile?.photoUrl ? (
+                <img
+                  src={photoSrc(profile.photoUrl, "thumb")}
+                  alt={`${profile.firstName} ${profile.lastName}`}
+                  style={{
+                    width: 110,
+                    height: 110,
+                    borderRadius: "50%",
+                    border: "6px solid #000",
+                    objectFit: "cover",
+                  }}
+                />
+              ) : (
+                <div
+                  style={{
+                    width: 110,
+                    height: 110,
+                    borderRadius: "50%",
+                    border: "6px solid #000",
+                    background: "#efefef",
+                  }}
+                />
+              )}
               <div>
                 <h2 className="h4 mb-1">
                   {profile?.firstName} {profile?.lastName}
                 </h2>
                 <div className="text-muted small">
-                  {posts.length} posts
+                  {profile?.postsCount ?? posts.length} posts
                   <br />
                   {profile?.connectionsCount ?? 0} connections
                   <br />
@@ -292,7 +326,7 @@ export default function MyPage() {
                     <div className="d-flex gap-2 mt-2">
                       {p.imageUrl ? (
                         <img
-                          src={p.imageUrl}
+                          src={photoSrc(p.imageUrl, "medium")}
                           alt={p.title}
                           style={{
                             width: 90,
@@ -338,6 +372,19 @@ export default function MyPage() {
                 </button>
               </div>
             </div>
+
+            {postsCursor && (
+              <div className="text-center mt-3">
+                <button
+                  type="button"
+                  className="btn btn-outline-dark btn-sm"
+                  onClick={loadMorePosts}
+                  disabled={postsLoading}
+                >
+                  {postsLoading ? "Loading..." : "Load more posts"}
+                </button>
+              </div>
+            )}
           </>
         )}
       </main>
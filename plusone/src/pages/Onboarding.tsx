@@ -1,6 +1,7 @@
 import { useEffect, useMemo, useState } from "react";
 import { useNavigate } from "react-router-dom";
 import { profileService } from "../services/profileService";
+import { photoService, photoSrc } from "../services/photoService";
 import type { Profile, ProfileResponse, Gender } from "../types/profile";
 import { GENDER_VALUES } from "../types/profile";
 import type { Location } from "../types/profile";
@@ -119,7 +120,7 @@ export default function Onboarding() {
   }, [navigate, user?.userId]);
 
   useEffect(() => {
-    setPhotoPreview(profile.profilePhoto?.url || DEFAULT_AVATAR);
+    setPhotoPreview(profile.profilePhoto?.url ? photoSrc(profile.profilePhoto.url, "thumb") : DEFAULT_AVATAR);
   }, [profile.profilePhoto?.url]);
 
   if (!user?.userId) {
@@ -163,22 +164,22 @@ export default function Onboarding() {
     setCustomInterest("");
   };
 
-  const handlePhotoUpload = (file: File | null) => {
+  const handlePhotoUpload = async (file: File | null) => {
     if (!file) return;
-    const reader = new FileReader();
-    reader.onload = () => {
-      const dataUrl = typeof reader.result === "string" ? reader.result : null;
-      if (!dataUrl) return;
+    setError(null);
+    try {
+      const photo = await photoService.upload(file, user?.userId);
       setProfile((prev) => ({
         ...prev,
         profilePhoto: {
-          storage: "inline-base64",
-          key: `upload-${Date.now()}`,
-          url: dataUrl,
+          storage: photo.storage,
+          key: photo.id,
+          url: photo.url,
         },
       }));
-    };
-    reader.readAsDataURL(file);
+    } catch (err) {
+      setError((err as Error).message || "Failed to upload your photo");
+    }
   };
 
   const persistProfile = async (nextStep: number, markComplete: boolean) => {
@@ -208,7 +209,7 @@ export default function Onboarding() {
   const hydrateFromResponse = (response: ProfileResponse) => {
     const incoming = normalizeProfile(response.profile);
     setProfile(incoming);
-    setPhotoPreview(incoming.profilePhoto.url || DEFAULT_AVATAR);
+    setPhotoPreview(incoming.profilePhoto.url ? photoSrc(incoming.profilePhoto.url, "thumb") : DEFAULT_AVATAR);
 
     if (response.onboarding?.completed) {
       navigate("/home", { replace: true });
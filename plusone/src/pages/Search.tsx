@@ -1,15 +1,22 @@
 import PageTemplate from "../components/PageTemplate";
-import { useState } from "react"; // store user enteried search query
+import { useEffect, useState } from "react"; // store user enteried search query
+import { photoSrc } from "../services/photoService";
 
 // 1) A tiny type so TS knows what comes back from the server
-type User = {
-  id: string;
+type UserCard = {
+  userId: string;
   firstName: string;
   lastName: string;
+  jobTitle?: string | null;
+  company?: string | null;
+  city?: string | null;
+  photoUrl?: string | null;
   interests?: string[];
-  job?: { title?: string; companyName?: string };
-  numConnections?: number;
-  profilePhotoUrl?: string;
+};
+
+type InterestSuggestion = {
+  interest: string;
+  users: number;
 };
 
 // 2) Where your backend lives (change if needed)
@@ -20,10 +27,36 @@ export default function Search() {
   // what the user typed
   const [query, setQuery] = useState("");
   // results from the server
-  const [results, setResults] = useState<User[]>([]);
+  const [results, setResults] = useState<UserCard[]>([]);
   // basic request state
   const [loading, setLoading] = useState(false);
   const [error, setError] = useState("");
+  // interest typeahead for the search box
+  const [suggestions, setSuggestions] = useState<InterestSuggestion[]>([]);
+
+  useEffect(() => {
+    const prefix = query.trim();
+    if (!prefix) {
+      setSuggestions([]);
+      return;
+    }
+    const controller = new AbortController();
+    const timer = setTimeout(async () => {
+      try {
+        const res = await fetch(
+          `${API_BASE_URL}/users/interests/autocomplete?prefix=${encodeURIComponent(prefix)}&limit=8`,
+          { signal: controller.signal }
+        );
+        if (res.ok) setSuggestions(await res.json());
+      } catch {
+        // typeahead is best-effort; ignore aborted or failed lookups
+      }
+    }, 150);
+    return () => {
+      clearTimeout(timer);
+      controller.abort();
+    };
+  }, [query]);
 
   // 3) Runs when you submit the form (Enter or button click)
   const handleSearch = async (e: React.FormEvent) => {
@@ -36,14 +69,14 @@ export default function Search() {
     setResults([]);
 
     try {
-      // 4) Call your API: GET /api/users/search?q=...
+      // 4) Call your API: GET /api/users/search/people?q=... (names, jobs, companies, interests)
       const res = await fetch(
-        `${API_BASE_URL}/users/search?q=${encodeURIComponent(q)}`
+        `${API_BASE_URL}/users/search/people?q=${encodeURIComponent(q)}`
       );
       if (!res.ok) {
         throw new Error(`Search failed (${res.status})`);
       }
-      const data: User[] = await res.json();
+      const data: UserCard[] = await res.json();
       setResults(data);
     } catch (err: any) {
       setError(err?.message || "Something went wrong.");
@@ -65,6 +98,8 @@ export default function Search() {
           className="form-control"
           value={query}
           onChange={(e) => setQuery(e.target.value)}
+          list="interest-suggestions"
+          autoComplete="off"
           style={{
             flex: 1,
             border: "2px solid #000",
@@ -72,6 +107,13 @@ export default function Search() {
             padding: "8px 12px",
           }}
         />
+        <datalist id="interest-suggestions">
+          {suggestions.map((s) => (
+            <option key={s.interest} value={s.interest}>
+              {s.users} {s.users === 1 ? "person" : "people"}
+            </option>
+          ))}
+        </datalist>
         <button
           type="submit"
           className="btn btn-dark"
@@ -84,14 +126,14 @@ export default function Search() {
       {/* Simple results grid */}
       <div className="row g-3">
         {results.map((u) => (
-          <div key={u.id} className="col-12 col-md-6 col-lg-4">
+          <div key={u.userId} className="col-12 col-md-6 col-lg-4">
             <div
               className="p-3 border border-2"
               style={{ borderColor: "#000" }}
             >
               <div className="d-flex align-items-center gap-3">
                 <img
-                  src={u.profilePhotoUrl || "https://placehold.co/64x64"}
+                  src={u.photoUrl ? photoSrc(u.photoUrl) : "https://placehold.co/64x64"}
                   alt={`${u.firstName} ${u.lastName}`}
                   width={64}
                   height={64}
@@ -106,12 +148,9 @@ export default function Search() {
                     {u.firstName} {u.lastName}
                   </div>
                   <div className="small text-muted">
-                    {u.job?.title || "—"}
-                    {u.job?.companyName ? ` @ ${u.job.companyName}` : ""}
-                  </div>
-                  <div className="small mt-1">
-                    <strong>Connections:</strong> {u.numConnections ?? 0}
+                    {[u.jobTitle, u.company].filter(Boolean).join(" at ") || "—"}
                   </div>
+                  {u.city && <div className="small mt-1">{u.city}</div>}
                 </div>
               </div>
 
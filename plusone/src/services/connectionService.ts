@@ -2,29 +2,15 @@ import axios from 'axios';
 
 const API_BASE_URL = 'http://localhost:8080/api/connections';
 
-export interface UserProfile {
+export interface UserCard {
   userId: string;
   firstName: string;
   lastName: string;
-  email: string;
-  profile: {
-    gender?: string | null;
-    age?: number | null;
-    location: {
-      city: string;
-      state: string;
-      country: string;
-    };
-    job: {
-      title: string;
-      companiesName: string;
-    };
-    interests: string[];
-    profilePhoto: {
-      url?: string;
-    };
-  };
-  createdAt: string;
+  jobTitle?: string | null;
+  company?: string | null;
+  city?: string | null;
+  photoUrl?: string | null;
+  interests: string[];
 }
 
 export interface CreateConnectionRequest {
@@ -43,11 +29,17 @@ export interface ConnectionRequest {
 
 export const connectionService = {
   // Get recent users for homepage
-  async getRecentUsers(currentUserId: string): Promise<UserProfile[]> {
+  async getRecentUsers(currentUserId: string): Promise<UserCard[]> {
     const response = await axios.get(`${API_BASE_URL}/recent-users?currentUserId=${currentUserId}`);
     return response.data;
   },
 
+  // Get "people you may know" suggestions (falls back to recent users for new accounts)
+  async getSuggestedUsers(userId: string, limit = 3): Promise<UserCard[]> {
+    const response = await axios.get(`${API_BASE_URL}/suggestions?userId=${userId}&limit=${limit}`);
+    return response.data;
+  },
+
   // Create a connection request
   async createConnectionRequest(fromUserId: string, request: CreateConnectionRequest): Promise<ConnectionRequest> {
     const response = await axios.post(`${API_BASE_URL}/request?fromUserId=${fromUserId}`, request);
@@ -66,6 +58,12 @@ export const connectionService = {
     return response.data;
   },
 
+  // Get connection statuses between one user and a list of others in a single call
+  async getConnectionStatuses(fromUserId: string, toUserIds: string[]): Promise<Record<string, string>> {
+    const response = await axios.post(`${API_BASE_URL}/status/batch?fromUserId=${fromUserId}`, toUserIds);
+    return response.data;
+  },
+
   // Get pending connection requests for a user
   async getPendingRequests(userId: string): Promise<ConnectionRequest[]> {
     const response = await axios.get(`${API_BASE_URL}/pending-requests?userId=${userId}`);
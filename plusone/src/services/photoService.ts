@@ -0,0 +1,36 @@
+import axios from "axios";
+
+const API_BASE = import.meta.env.VITE_API_URL || "http://localhost:8080/api";
+const API_ORIGIN = API_BASE.replace(/\/api\/?$/, "");
+
+export type PhotoSize = "thumb" | "medium";
+
+export interface UploadedPhoto {
+  id: string;
+  storage: string;
+  url: string;
+  thumbnailUrl: string;
+  contentType: string;
+  length: number;
+  sha256: string;
+}
+
+export const photoService = {
+  // The file is sent as the raw request body so the server can stream it into GridFS
+  async upload(file: File, ownerId?: string): Promise<UploadedPhoto> {
+    const { data } = await axios.post<UploadedPhoto>(`${API_BASE}/photos`, file, {
+      params: { filename: file.name, ownerId },
+      headers: { "Content-Type": file.type || "application/octet-stream" },
+      withCredentials: true,
+    });
+    return data;
+  },
+};
+
+// Uploaded photos are stored as paths like /api/photos/<id> (older ones as absolute URLs);
+// size picks a resized variant so pages do not download originals
+export function photoSrc(url: string, size?: PhotoSize): string {
+  const src = url.startsWith("/api/") ? API_ORIGIN + url : url;
+  if (!size || !/\/api\/photos\/[^/?]+$/.test(src)) return src;
+  return `${src}?size=${size}`;
+}
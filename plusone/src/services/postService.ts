@@ -1,5 +1,5 @@
 import axios from "axios";
-import type { Post } from "../types/post";
+import type { Post, PostPage, PostPatch } from "../types/post";
 import type { ProfileResponse } from "../types/profile";
 
 const API_BASE = import.meta.env.VITE_API_URL || "http://localhost:8080/api";
@@ -15,8 +15,10 @@ export const postService = {
     const { data } = await api.get<ProfileResponse>(`/users/${userId}/profile`);
     return data;
   },
-  async list(userId: string): Promise<Post[]> {
-    const { data } = await api.get<Post[]>("/posts", { params: { userId } });
+  async list(userId: string, cursor?: string | null, limit = 10): Promise<PostPage> {
+    const { data } = await api.get<PostPage>("/posts", {
+      params: { userId, cursor: cursor || undefined, limit },
+    });
     return data;
   },
   async create(post: Post): Promise<Post> {
@@ -27,6 +29,10 @@ export const postService = {
     const { data } = await api.put<Post>(`/posts/${id}`, post);
     return data;
   },
+  async patch(id: string, changes: PostPatch): Promise<Post> {
+    const { data } = await api.patch<Post>(`/posts/${id}`, changes);
+    return data;
+  },
   async remove(id: string): Promise<void> {
     await api.delete(`/posts/${id}`);
   },
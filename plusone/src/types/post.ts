@@ -8,5 +8,20 @@ export interface Post {
   description: string;
   imageUrl?: string | null;
   createdAt?: string;
+  version?: number;
 }
 
+/** Fields to change in a PATCH; omitted fields are left as they are. */
+export interface PostPatch {
+  category?: Category;
+  title?: string;
+  description?: string;
+  imageUrl?: string;  // "" removes the image
+  version?: number;   // rejects the edit with 409 if the post changed since
+}
+
+
+export interface PostPage {
+  posts: Post[];
+  nextCursor: string | null;
+}
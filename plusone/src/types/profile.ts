@@ -60,6 +60,7 @@ export interface ProfileResponse {
   requestsCount: number;
   postsCount: number;
   posts: Post[];
+  postsNextCursor: string | null;
   profile: Profile;
   onboarding: Onboarding;
 }